@@ -0,0 +1,63 @@
+package com.server.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "analytics.fan-out")
+public class AnalyticsFanOutProperties {
+    // false runs the sections one after another on the request thread
+    private boolean enabled = true;
+
+    // auto: virtual threads when the runtime has them, platform threads otherwise
+    private String threads = "auto";
+
+    private int maxConcurrency = 32;
+
+    private int queueCapacity = 256;
+
+    private Duration sectionTimeout = Duration.ofSeconds(2);
+
+    // Getters and setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getThreads() {
+        return threads;
+    }
+
+    public void setThreads(String threads) {
+        this.threads = threads;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getSectionTimeout() {
+        return sectionTimeout;
+    }
+
+    public void setSectionTimeout(Duration sectionTimeout) {
+        this.sectionTimeout = sectionTimeout;
+    }
+}
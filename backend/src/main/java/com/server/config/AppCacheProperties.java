@@ -0,0 +1,71 @@
+package com.server.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cache")
+public class AppCacheProperties {
+    // local: Caffeine only, shared: Caffeine in front of a SharedCacheStore
+    private String type = "local";
+
+    // Caffeine spec applied to caches without an entry in specs
+    private String defaultSpec = "maximumSize=1000,expireAfterWrite=60s";
+
+    // Per cache name Caffeine spec, e.g. storeStats=maximumSize=500,expireAfterWrite=30s
+    private Map<String, String> specs = new HashMap<>();
+
+    private Duration sharedTtl = Duration.ofMinutes(5);
+
+    // Entries per cache kept by the in-process shared store
+    private long sharedMaximumSize = 10000;
+
+    // Getters and setters
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getDefaultSpec() {
+        return defaultSpec;
+    }
+
+    public void setDefaultSpec(String defaultSpec) {
+        this.defaultSpec = defaultSpec;
+    }
+
+    public Map<String, String> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(Map<String, String> specs) {
+        this.specs = specs;
+    }
+
+    public Duration getSharedTtl() {
+        return sharedTtl;
+    }
+
+    public void setSharedTtl(Duration sharedTtl) {
+        this.sharedTtl = sharedTtl;
+    }
+
+    public long getSharedMaximumSize() {
+        return sharedMaximumSize;
+    }
+
+    public void setSharedMaximumSize(long sharedMaximumSize) {
+        this.sharedMaximumSize = sharedMaximumSize;
+    }
+
+    public boolean isShared() {
+        return "shared".equalsIgnoreCase(type);
+    }
+}
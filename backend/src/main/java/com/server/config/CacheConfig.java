@@ -0,0 +1,37 @@
+package com.server.config;
+
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.server.service.cache.LocalSharedCacheStore;
+import com.server.service.cache.SharedCacheStore;
+import com.server.service.cache.TieredCache;
+import com.server.service.cache.TieredCacheManager;
+
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(SharedCacheStore.class)
+    public SharedCacheStore sharedCacheStore(AppCacheProperties properties) {
+        return new LocalSharedCacheStore(properties.getSharedTtl(), properties.getSharedMaximumSize());
+    }
+
+    @Bean
+    public CacheManager cacheManager(AppCacheProperties properties, SharedCacheStore sharedCacheStore) {
+        return new TieredCacheManager(properties, sharedCacheStore);
+    }
+
+    // Lets actuator publish cache.gets/puts/evictions for the local tier of each cache
+    @Bean
+    public CacheMeterBinderProvider<TieredCache> tieredCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getNativeCache(), cache.getName(), tags);
+    }
+}
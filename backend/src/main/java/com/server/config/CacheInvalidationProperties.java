@@ -0,0 +1,66 @@
+package com.server.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.invalidation")
+public class CacheInvalidationProperties {
+    // auto: change streams, polling when the deployment has none; change-stream | polling | off
+    private String mode = "auto";
+
+    // Names this node's resume token; defaults to the host name
+    private String nodeId;
+
+    // How often updatedAt is polled when change streams are unavailable
+    private Duration pollInterval = Duration.ofSeconds(5);
+
+    // How often the resume token is saved
+    private Duration checkpointInterval = Duration.ofSeconds(5);
+
+    // Wait before reopening a failed change stream
+    private Duration retryDelay = Duration.ofSeconds(5);
+
+    // Getters and setters
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public Duration getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(Duration checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(Duration retryDelay) {
+        this.retryDelay = retryDelay;
+    }
+}
@@ -2,13 +2,16 @@ package com.server.config;
 
 import com.cloudinary.Cloudinary;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@ConditionalOnProperty(name = "upload.provider", havingValue = "cloudinary", matchIfMissing = true)
 public class CloudinaryConfig {
     
     @Value("${cloudinary.cloud-name}")
@@ -20,6 +23,14 @@ public class CloudinaryConfig {
     @Value("${cloudinary.api-secret}")
     private String apiSecret;
 
+    // Optional preset applied to direct browser uploads
+    @Value("${cloudinary.upload-preset:}")
+    private String uploadPreset;
+
+    // How long a browser has to finish a signed upload and register it
+    @Value("${cloudinary.signed-upload-ttl:PT10M}")
+    private Duration signedUploadTtl;
+
     @Bean
     public Cloudinary cloudinary() {
         Map<String, String> config = new HashMap<>();
@@ -28,4 +39,12 @@ public class CloudinaryConfig {
         config.put("api_secret", apiSecret);
         return new Cloudinary(config);
     }
-} 
\ No newline at end of file
+
+    public String getUploadPreset() {
+        return uploadPreset;
+    }
+
+    public Duration getSignedUploadTtl() {
+        return signedUploadTtl;
+    }
+}
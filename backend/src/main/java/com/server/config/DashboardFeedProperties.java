@@ -0,0 +1,120 @@
+package com.server.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "dashboard.feed")
+public class DashboardFeedProperties {
+    // Comment line sent to idle connections so proxies keep them open
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    // Connections are closed after this long; the browser reconnects with its last event id
+    private Duration timeout = Duration.ofMinutes(30);
+
+    // Retry delay suggested to reconnecting clients
+    private Duration reconnectDelay = Duration.ofSeconds(3);
+
+    // Events kept per store for Last-Event-ID replay
+    private int replayBuffer = 256;
+
+    // Events queued per connection before it is told to resync
+    private int queueCapacity = 128;
+
+    private int maxSubscribersPerStore = 50;
+
+    // Threads writing events to connections
+    private int senderThreads = 4;
+
+    // A product crossing below this available quantity is reported as low stock
+    private int lowStockThreshold = 10;
+
+    // How often a node reads order events dispatched elsewhere for the stores it watches
+    private Duration fanoutInterval = Duration.ofSeconds(1);
+
+    // Each read goes back this far before the previous one, for events recorded late
+    private Duration fanoutOverlap = Duration.ofSeconds(10);
+
+    // Getters and setters
+    public Duration getHeartbeatInterval() {
+        return heartbeatInterval;
+    }
+
+    public void setHeartbeatInterval(Duration heartbeatInterval) {
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getReconnectDelay() {
+        return reconnectDelay;
+    }
+
+    public void setReconnectDelay(Duration reconnectDelay) {
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    public int getReplayBuffer() {
+        return replayBuffer;
+    }
+
+    public void setReplayBuffer(int replayBuffer) {
+        this.replayBuffer = replayBuffer;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getMaxSubscribersPerStore() {
+        return maxSubscribersPerStore;
+    }
+
+    public void setMaxSubscribersPerStore(int maxSubscribersPerStore) {
+        this.maxSubscribersPerStore = maxSubscribersPerStore;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public int getLowStockThreshold() {
+        return lowStockThreshold;
+    }
+
+    public void setLowStockThreshold(int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    public Duration getFanoutInterval() {
+        return fanoutInterval;
+    }
+
+    public void setFanoutInterval(Duration fanoutInterval) {
+        this.fanoutInterval = fanoutInterval;
+    }
+
+    public Duration getFanoutOverlap() {
+        return fanoutOverlap;
+    }
+
+    public void setFanoutOverlap(Duration fanoutOverlap) {
+        this.fanoutOverlap = fanoutOverlap;
+    }
+}
@@ -0,0 +1,120 @@
+package com.server.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded executors for work that fans out independent Mongo queries. At
+ * most maxConcurrency tasks run at once and queueCapacity wait; beyond that
+ * the caller runs the task itself, which slows the request instead of
+ * failing it. The analytics executor rejects instead, because its callers
+ * wait with a deadline that a section run on the request thread would
+ * ignore.
+ */
+@Configuration
+public class ExecutorConfig {
+    private static final Logger logger = LoggerFactory.getLogger(ExecutorConfig.class);
+
+    // Dashboard sections, see SectionFanOut; a full queue rejects and the section is left out
+    @Bean(name = "analyticsExecutor", destroyMethod = "shutdown")
+    public ExecutorService analyticsExecutor(AnalyticsFanOutProperties properties) {
+        return boundedExecutor("analytics-", properties.getThreads(),
+            properties.getMaxConcurrency(), properties.getQueueCapacity(), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Short per-collection lookups, e.g. reference validation
+    @Bean(name = "lookupExecutor", destroyMethod = "shutdown")
+    public ExecutorService lookupExecutor(
+            @Value("${lookup.executor.threads:auto}") String threads,
+            @Value("${lookup.executor.max-concurrency:16}") int maxConcurrency,
+            @Value("${lookup.executor.queue-capacity:256}") int queueCapacity) {
+        return boundedExecutor("lookup-", threads, maxConcurrency, queueCapacity);
+    }
+
+    // Image uploads to the storage provider, see CloudinaryService
+    @Bean(name = "uploadExecutor", destroyMethod = "shutdown")
+    public ExecutorService uploadExecutor(
+            @Value("${upload.executor.threads:auto}") String threads,
+            @Value("${upload.executor.max-concurrency:4}") int maxConcurrency,
+            @Value("${upload.executor.queue-capacity:64}") int queueCapacity) {
+        return boundedExecutor("upload-", threads, maxConcurrency, queueCapacity);
+    }
+
+    // Image variant rendering, see ImageVariantService. CPU bound, so platform
+    // threads; a full queue rejects and the images are picked up by the resume sweep
+    @Bean(name = "imageExecutor", destroyMethod = "shutdown")
+    public ExecutorService imageExecutor(
+            @Value("${images.pipeline.threads:2}") int threads,
+            @Value("${images.pipeline.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            threads,
+            threads,
+            30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory("image-", "platform"),
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private ExecutorService boundedExecutor(String prefix, String threads, int maxConcurrency, int queueCapacity) {
+        return boundedExecutor(prefix, threads, maxConcurrency, queueCapacity,
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    private ExecutorService boundedExecutor(String prefix, String threads, int maxConcurrency, int queueCapacity,
+            RejectedExecutionHandler rejection) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            maxConcurrency,
+            maxConcurrency,
+            30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory(prefix, threads),
+            rejection);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private ThreadFactory threadFactory(String prefix, String threads) {
+        if (!"platform".equalsIgnoreCase(threads)) {
+            ThreadFactory virtual = virtualThreadFactory(prefix);
+            if (virtual != null) {
+                logger.info("{} executor runs on virtual threads", prefix);
+                return virtual;
+            }
+            if ("virtual".equalsIgnoreCase(threads)) {
+                logger.warn("Virtual threads need Java 21+, {} executor falls back to platform threads", prefix);
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Thread.ofVirtual() is looked up reflectively so the code still builds for Java 17
+    private ThreadFactory virtualThreadFactory(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 1L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
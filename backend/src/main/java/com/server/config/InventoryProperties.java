@@ -0,0 +1,98 @@
+package com.server.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "inventory")
+public class InventoryProperties {
+    // How long reserved stock is held before it expires back to the product
+    private Duration reservationTtl = Duration.ofMinutes(10);
+
+    // How long settled reservations are kept before the TTL index removes them
+    private Duration reservationRetention = Duration.ofDays(1);
+
+    // Expired reservations released per sweep
+    private int sweepBatchSize = 500;
+
+    private final HotSkus hotSkus = new HotSkus();
+
+    public static class HotSkus {
+        // Serve the listed products from an in-memory allotment instead of the product document
+        private boolean enabled = false;
+
+        private List<String> productIds = new ArrayList<>();
+
+        // Units claimed from Mongo per refill
+        private int batchSize = 50;
+
+        // 0: one stripe per available processor
+        private int stripes = 0;
+
+        // Getters and setters
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getProductIds() {
+            return productIds;
+        }
+
+        public void setProductIds(List<String> productIds) {
+            this.productIds = productIds;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getStripes() {
+            return stripes;
+        }
+
+        public void setStripes(int stripes) {
+            this.stripes = stripes;
+        }
+    }
+
+    // Getters and setters
+    public Duration getReservationTtl() {
+        return reservationTtl;
+    }
+
+    public void setReservationTtl(Duration reservationTtl) {
+        this.reservationTtl = reservationTtl;
+    }
+
+    public Duration getReservationRetention() {
+        return reservationRetention;
+    }
+
+    public void setReservationRetention(Duration reservationRetention) {
+        this.reservationRetention = reservationRetention;
+    }
+
+    public int getSweepBatchSize() {
+        return sweepBatchSize;
+    }
+
+    public void setSweepBatchSize(int sweepBatchSize) {
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    public HotSkus getHotSkus() {
+        return hotSkus;
+    }
+}
@@ -0,0 +1,83 @@
+package com.server.config;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.model.analytics.SalesContribution;
+import com.server.model.analytics.SalesRollup;
+import com.server.model.event.OutboxEvent;
+import com.server.model.inventory.StockReservation;
+import com.server.model.order.Order;
+import com.server.model.storage.ImageAsset;
+import com.server.model.storage.UploadSession;
+import com.server.model.store.Billboard;
+import com.server.model.store.Category;
+import com.server.model.store.Price;
+import com.server.model.store.Store;
+import com.server.model.store.products.Product;
+import com.server.model.store.products.ProductColor;
+import com.server.model.store.products.ProductSize;
+
+/**
+ * Creates the indexes declared on the entities below. Automatic index
+ * creation is off for the whole mapping context, so only collections whose
+ * queries depend on their indexes are listed here.
+ */
+@Configuration
+public class MongoIndexConfig {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private static final List<Class<?>> INDEXED_TYPES = List.of(
+        Order.class,
+        Product.class,
+        SalesRollup.class,
+        // Per-store rebuilds of the rollups
+        SalesContribution.class,
+        // _id/storeId identity lookups and ownerEmail listings
+        Store.class,
+        // Expiry sweep, unique references and the purge TTL
+        StockReservation.class,
+        // Relay scan of pending events, dashboard fan-out and the purge TTL
+        OutboxEvent.class,
+        // Purge TTL of unfinished direct uploads, resume sweep of unrendered images
+        ImageAsset.class,
+        // Purge TTL of abandoned resumable uploads, per-owner limits
+        UploadSession.class,
+        // storeId lookups behind reference validation and readiness rebuilds
+        ProductColor.class,
+        ProductSize.class,
+        Billboard.class,
+        Category.class,
+        Price.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        MongoPersistentEntityIndexResolver resolver =
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> type : INDEXED_TYPES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(type);
+            resolver.resolveIndexFor(type).forEach(index -> {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (Exception e) {
+                    logger.error("Failed to create index {} on {}: {}", index.getIndexOptions(), type.getSimpleName(), e.getMessage());
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.server.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Turns the services' {@code @Transactional} methods into Mongo
+ * transactions, so the outbox event recorded for a save commits or rolls
+ * back with it. Needs a replica set or sharded cluster; without this
+ * configuration the annotations have no effect and events are written
+ * right after the change.
+ */
+@Configuration
+@ConditionalOnProperty(name = "outbox.transactions.enabled", havingValue = "true")
+public class MongoTransactionConfig {
+
+    @Bean
+    public MongoTransactionManager transactionManager(MongoDatabaseFactory databaseFactory) {
+        return new MongoTransactionManager(databaseFactory);
+    }
+}
@@ -0,0 +1,10 @@
+package com.server.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background sweeps and flushes, e.g. expiring stock reservations
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,7 @@
 package com.server.config;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -19,7 +21,7 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.beans.factory.annotation.Value;
 
 import com.server.security.JwtAuthenticationFilter;
-import com.server.util.TokenUtil;
+import com.server.security.JwtClaimsCache;
 
 @Configuration
 @EnableWebSecurity
@@ -27,7 +29,7 @@ import com.server.util.TokenUtil;
 @ComponentScan(basePackages = "com.server.security")
 public class SecurityConfig {
 
-    private final TokenUtil tokenUtil;
+    private final JwtClaimsCache jwtClaimsCache;
 
     @Value("${cors.allowed.origins}")
     private String[] allowedOrigins;
@@ -47,13 +49,13 @@ public class SecurityConfig {
     @Value("${cors.max.age}")
     private long maxAge;
 
-    public SecurityConfig(TokenUtil tokenUtil) {
-        this.tokenUtil = tokenUtil;
+    public SecurityConfig(JwtClaimsCache jwtClaimsCache) {
+        this.jwtClaimsCache = jwtClaimsCache;
     }
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter() {
-        return new JwtAuthenticationFilter(tokenUtil);
+        return new JwtAuthenticationFilter(jwtClaimsCache);
     }
 
     @Bean
@@ -68,6 +70,9 @@ public class SecurityConfig {
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Completion of an already authorized async response, e.g. the dashboard feed
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers(HttpMethod.GET, "/api/health", "/api/ping").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
@@ -85,6 +90,9 @@ public class SecurityConfig {
                 .requestMatchers("/api/stores/{storeId}/prices/**").authenticated()
                 .requestMatchers("/api/stores/{storeId}/products/**").authenticated()
 
+                // Platform administration: migrations, rebuilds and inventory tooling
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
                 // Dashboard endpoints
                 .requestMatchers("/api/**").authenticated()
                 .requestMatchers("/api/store/{storeId}/dashboard").authenticated()
@@ -98,6 +106,8 @@ public class SecurityConfig {
                 // Static resources
                 .requestMatchers("/favicon.ico").permitAll()
                 .requestMatchers("/static/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll()
+                .requestMatchers(HttpMethod.HEAD, "/uploads/**").permitAll()
                 
                 // Swagger UI
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
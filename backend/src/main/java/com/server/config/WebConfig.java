@@ -1,20 +1,24 @@
 package com.server.config;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.lang.NonNull;
 
+import com.server.security.StoreContextInterceptor;
+
+import lombok.RequiredArgsConstructor;
+
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
     
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    private final StoreContextInterceptor storeContextInterceptor;
+
+    // /uploads/** is served by UploadFileController
 
     @Override
-    public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-            .addResourceLocations("file:" + uploadDir + "/");
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(storeContextInterceptor).addPathPatterns("/api/**");
     }
-} 
\ No newline at end of file
+} 
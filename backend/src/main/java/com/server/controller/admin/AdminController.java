@@ -3,19 +3,50 @@ package com.server.controller.admin;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.server.service.admin.AdminService;
+import com.server.service.analytics.SalesRollupBackfill;
+import com.server.service.inventory.AvailableStockBackfill;
+import com.server.service.inventory.HotStockFront;
+import com.server.service.inventory.InventoryBenchmark;
+import com.server.service.store.StoreReadinessService;
+import com.server.service.store.StoreReferenceMigration;
+import com.server.service.store.settings.ProductCatalogService;
 import com.server.util.ApiResponse;
 
 import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
+@PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private StoreReferenceMigration storeReferenceMigration;
+
+    @Autowired
+    private SalesRollupBackfill salesRollupBackfill;
+
+    @Autowired
+    private ProductCatalogService productCatalogService;
+
+    @Autowired
+    private StoreReadinessService storeReadinessService;
+
+    @Autowired
+    private HotStockFront hotStockFront;
+
+    @Autowired
+    private AvailableStockBackfill availableStockBackfill;
+
+    // Only present with inventory.benchmark.enabled=true
+    @Autowired(required = false)
+    private InventoryBenchmark inventoryBenchmark;
+
     @GetMapping("/dashboard")
     public ResponseEntity<ApiResponse<Map<String, Object>>> getDashboardStats() {
         try {
@@ -48,4 +79,129 @@ public class AdminController {
                     .body(ApiResponse.error("Failed to retrieve system analytics", null));
         }
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/migrations/store-references")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> migrateStoreReferences(
+            @RequestParam(defaultValue = "configured") String target) {
+        try {
+            long modified;
+            switch (target) {
+                case "detached":
+                    modified = storeReferenceMigration.detachAll();
+                    break;
+                case "embedded":
+                    modified = storeReferenceMigration.rebuildAll();
+                    break;
+                default:
+                    modified = storeReferenceMigration.migrate();
+            }
+            return ResponseEntity.ok(ApiResponse.success("Store references migrated",
+                    Map.of("target", target, "modifiedStores", modified)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to migrate store references: " + e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/migrations/product-prices")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> migrateProductPrices() {
+        try {
+            long modified = productCatalogService.normalizePriceTypes();
+            return ResponseEntity.ok(ApiResponse.success("Product prices migrated",
+                    Map.of("modifiedFields", modified)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to migrate product prices: " + e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/migrations/available-stock")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> migrateAvailableStock() {
+        try {
+            long modified = availableStockBackfill.backfillAll();
+            return ResponseEntity.ok(ApiResponse.success("Available stock initialised",
+                    Map.of("modifiedProducts", modified)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to initialise available stock: " + e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/rollups/sales/rebuild")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildSalesRollups(
+            @RequestParam(required = false) String storeId) {
+        try {
+            long orders = storeId == null
+                    ? salesRollupBackfill.rebuildAll()
+                    : salesRollupBackfill.rebuild(storeId);
+            return ResponseEntity.ok(ApiResponse.success("Sales rollups rebuilt",
+                    Map.of("storeId", storeId == null ? "all" : storeId, "orders", orders)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to rebuild sales rollups: " + e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/readiness/rebuild")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> rebuildStoreReadiness(
+            @RequestParam(required = false) String storeId) {
+        try {
+            if (storeId != null) {
+                Map<String, Long> counts = storeReadinessService.rebuild(storeId);
+                return ResponseEntity.ok(ApiResponse.success("Store readiness rebuilt",
+                        Map.of("storeId", storeId, "counts", counts)));
+            }
+            long stores = storeReadinessService.rebuildAll();
+            return ResponseEntity.ok(ApiResponse.success("Store readiness rebuilt",
+                    Map.of("storeId", "all", "stores", stores)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to rebuild store readiness: " + e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/inventory/hot-skus")
+    public ResponseEntity<ApiResponse<Map<String, Map<String, Long>>>> getHotSkus() {
+        return ResponseEntity.ok(ApiResponse.success("Hot SKUs retrieved", hotStockFront.getStats()));
+    }
+
+    @PostMapping("/inventory/hot-skus/{productId}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> enableHotSku(@PathVariable String productId) {
+        hotStockFront.enable(productId);
+        return ResponseEntity.ok(ApiResponse.success("Hot SKU enabled", Map.of("productId", productId)));
+    }
+
+    @DeleteMapping("/inventory/hot-skus/{productId}")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> disableHotSku(@PathVariable String productId) {
+        try {
+            hotStockFront.disable(productId);
+            return ResponseEntity.ok(ApiResponse.success("Hot SKU disabled", Map.of("productId", productId)));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to disable hot SKU: " + e.getMessage(), null));
+        }
+    }
+
+    // In-memory only: single CAS counter vs striped counter under contention
+    @PostMapping("/inventory/benchmark")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> runInventoryBenchmark(
+            @RequestParam(defaultValue = "16") int threads,
+            @RequestParam(defaultValue = "100000") int operations,
+            @RequestParam(defaultValue = "0") int stripes) {
+        if (inventoryBenchmark == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Inventory benchmark is disabled", null));
+        }
+        try {
+            int stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+            return ResponseEntity.ok(ApiResponse.success("Inventory benchmark finished",
+                    inventoryBenchmark.run(threads, operations, stripeCount)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+}
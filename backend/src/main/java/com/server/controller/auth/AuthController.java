@@ -1,6 +1,7 @@
 package com.server.controller.auth;
 
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -12,6 +13,7 @@ import com.server.dto.auth.AuthRequest;
 import com.server.dto.auth.AuthResponse;
 import com.server.dto.auth.LoginRequest;
 import com.server.model.accounts.Owner;
+import com.server.security.JwtClaimsCache;
 import com.server.service.auth.AuthService;
 import com.server.util.ApiResponse;
 import com.server.util.TokenUtil;
@@ -39,6 +41,7 @@ public class AuthController {
 
     private final TokenUtil tokenUtil;
     private final AuthService authService;
+    private final JwtClaimsCache jwtClaimsCache;
 
 
     // Register a new store owner
@@ -203,8 +206,13 @@ public class AuthController {
     // Logout a store owner
     @PostMapping("/logout")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<?> logout(HttpServletResponse response) {
+    public ResponseEntity<?> logout(HttpServletRequest request, HttpServletResponse response) {
         try {
+            String authHeader = request.getHeader("Authorization");
+            if (authHeader != null && authHeader.startsWith("Bearer ")) {
+                jwtClaimsCache.revoke(authHeader.substring(7));
+            }
+
             Cookie cookie = new Cookie("token", null);
             cookie.setHttpOnly(true);
             cookie.setSecure(true);
@@ -0,0 +1,141 @@
+package com.server.controller.common;
+
+import com.server.dto.common.UploadSessionRequest;
+import com.server.exception.ResourceNotFoundException;
+import com.server.model.storage.UploadSession;
+import com.server.service.storage.ChunkedUploadService;
+import com.server.util.ApiResponse;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Resumable chunked uploads, see ChunkedUploadService
+@RestController
+@RequestMapping("/api/upload/sessions")
+@RequiredArgsConstructor
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> start(
+            @RequestBody UploadSessionRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            UploadSession session = chunkedUploadService.start(userDetails.getUsername(),
+                request.getFileName(), request.getContentType(), request.getSize());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Upload started", toView(session)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to start upload: " + e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> get(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(toView(chunkedUploadService.get(userDetails.getUsername(), id))));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+
+    // Raw body; Content-Length is the chunk length
+    @PutMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> writeChunk(
+            @PathVariable String id,
+            @RequestParam("offset") long offset,
+            HttpServletRequest request,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        long length = request.getContentLengthLong();
+        if (length < 0) {
+            return ResponseEntity.status(HttpStatus.LENGTH_REQUIRED)
+                .body(ApiResponse.error("Content-Length is required", null));
+        }
+        try {
+            UploadSession session = chunkedUploadService.writeChunk(
+                userDetails.getUsername(), id, offset, length, request.getInputStream());
+            return ResponseEntity.ok(ApiResponse.success("Chunk stored", toView(session)));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage(), null));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Chunk not stored, send it again: " + e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/{id}/complete")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> complete(
+            @PathVariable String id,
+            @RequestParam("sha256") String sha256,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            UploadSession session = chunkedUploadService.complete(userDetails.getUsername(), id, sha256);
+            return ResponseEntity.ok(ApiResponse.success("Upload completed", toView(session)));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.unprocessableEntity().body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to complete upload: " + e.getMessage(), null));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Void>> abort(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            chunkedUploadService.abort(userDetails.getUsername(), id);
+            return ResponseEntity.ok(ApiResponse.success("Upload aborted", null));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to abort upload: " + e.getMessage(), null));
+        }
+    }
+
+    private Map<String, Object> toView(UploadSession session) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("id", session.getId());
+        view.put("fileName", session.getFileName());
+        view.put("size", session.getSize());
+        view.put("status", session.getStatus());
+        view.put("chunkSize", session.getChunkSize());
+        view.put("missing", ChunkedUploadService.missing(session));
+        view.put("expiresAt", session.getExpiresAt());
+        view.put("url", session.getUrl());
+        return view;
+    }
+}
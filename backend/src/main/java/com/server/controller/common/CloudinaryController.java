@@ -1,5 +1,6 @@
 package com.server.controller.common;
 
+import com.server.dto.common.ImageUploadResult;
 import com.server.service.storage.CloudinaryService;
 import com.server.util.ApiResponse;
 
@@ -47,12 +48,18 @@ public class CloudinaryController {
 
     @PostMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<List<Map<String, String>>>> uploadMultipleImages(
+    public ResponseEntity<ApiResponse<List<ImageUploadResult>>> uploadMultipleImages(
             @RequestParam("files") List<MultipartFile> files,
             @RequestParam(value = "folder", required = false) String folder) {
         try {
-            List<Map<String, String>> results = cloudinaryService.uploadMultipleImages(files, folder);
-            return ResponseEntity.ok(ApiResponse.success("Images uploaded successfully", results));
+            List<ImageUploadResult> results = cloudinaryService.uploadMultipleImages(files, folder);
+            long uploaded = results.stream().filter(ImageUploadResult::isUploaded).count();
+            if (uploaded == 0 && !results.isEmpty()) {
+                return ResponseEntity.internalServerError()
+                    .body(ApiResponse.error("Failed to upload images", results));
+            }
+            return ResponseEntity.ok(ApiResponse.success(
+                "Uploaded " + uploaded + " of " + results.size() + " images", results));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                 .body(ApiResponse.error("Failed to upload images: " + e.getMessage(), null));
@@ -0,0 +1,51 @@
+package com.server.controller.common;
+
+import com.server.model.storage.ImageAsset;
+import com.server.service.storage.ImageVariantService;
+import com.server.util.ApiResponse;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Responsive image sets for storefront pages, keyed by the image URLs they already have
+@RestController
+@RequestMapping("/api/v1/store/public/images")
+@RequiredArgsConstructor
+public class ImageController {
+
+    private static final int MAX_URLS = 100;
+
+    private final ImageVariantService imageVariantService;
+
+    @GetMapping("/variants")
+    public ResponseEntity<ApiResponse<Map<String, Map<String, Object>>>> getVariants(
+            @RequestParam("url") List<String> urls) {
+        if (urls.size() > MAX_URLS) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("At most " + MAX_URLS + " URLs per request", null));
+        }
+        try {
+            Map<String, Map<String, Object>> sets = new LinkedHashMap<>();
+            imageVariantService.findByUrls(urls).forEach((url, asset) -> sets.put(url, toImageSet(asset)));
+            return ResponseEntity.ok(ApiResponse.success(sets));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to fetch image variants: " + e.getMessage(), null));
+        }
+    }
+
+    private Map<String, Object> toImageSet(ImageAsset asset) {
+        Map<String, Object> set = new LinkedHashMap<>();
+        set.put("url", asset.getUrl());
+        set.put("width", asset.getWidth());
+        set.put("height", asset.getHeight());
+        set.put("status", asset.getStatus());
+        set.put("variants", asset.getVariants());
+        return set;
+    }
+}
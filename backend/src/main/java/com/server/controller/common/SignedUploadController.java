@@ -0,0 +1,59 @@
+package com.server.controller.common;
+
+import com.server.dto.common.SignedUploadCallback;
+import com.server.model.storage.ImageAsset;
+import com.server.service.storage.SignedUploadService;
+import com.server.util.ApiResponse;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Direct browser uploads to Cloudinary, see SignedUploadService
+@RestController
+@RequestMapping("/api/upload/signed")
+@ConditionalOnProperty(name = "upload.provider", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SignedUploadController {
+
+    private final SignedUploadService signedUploadService;
+
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> sign(
+            @RequestParam(value = "folder", required = false) String folder,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            Map<String, Object> params = signedUploadService.sign(userDetails.getUsername(), folder);
+            return ResponseEntity.ok(ApiResponse.success("Upload signed", params));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to sign upload: " + e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/complete")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<ApiResponse<ImageAsset>> complete(
+            @RequestBody SignedUploadCallback callback,
+            @AuthenticationPrincipal UserDetails userDetails) {
+        try {
+            ImageAsset asset = signedUploadService.register(userDetails.getUsername(),
+                callback.getPublicId(), callback.getVersion(), callback.getSignature());
+            return ResponseEntity.ok(ApiResponse.success("Image registered", asset));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to register upload: " + e.getMessage(), null));
+        }
+    }
+}
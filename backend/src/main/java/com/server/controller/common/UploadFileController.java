@@ -0,0 +1,31 @@
+package com.server.controller.common;
+
+import com.server.service.storage.UploadFileServer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Uploaded files, see UploadFileServer
+@Controller
+@RequiredArgsConstructor
+public class UploadFileController {
+
+    private static final String PREFIX = "/uploads/";
+
+    private final UploadFileServer uploadFileServer;
+
+    @RequestMapping(value = "/uploads/**", method = { RequestMethod.GET, RequestMethod.HEAD })
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        uploadFileServer.serve(UriUtils.decode(path.substring(PREFIX.length()), StandardCharsets.UTF_8), request, response);
+    }
+}
@@ -0,0 +1,116 @@
+package com.server.controller.inventory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import com.server.dto.inventory.ReservationRequest;
+import com.server.exception.common.ResourceNotFoundException;
+import com.server.exception.store.InsufficientStockException;
+import com.server.model.inventory.StockReservation;
+import com.server.model.store.products.Product;
+import com.server.service.inventory.InventoryService;
+import com.server.util.ApiResponse;
+
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/stores/{storeId}/inventory")
+@RequiredArgsConstructor
+public class InventoryController {
+    private final InventoryService inventoryService;
+
+    @PostMapping("/reservations")
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<StockReservation>> reserve(
+            @PathVariable String storeId,
+            @RequestBody ReservationRequest request) {
+        try {
+            StockReservation reservation = inventoryService.reserve(storeId, request.getReference(), request.getQuantities());
+            return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Stock reserved", reservation));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to reserve stock: " + e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/reservations/{reservationId}")
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<StockReservation>> getReservation(
+            @PathVariable String storeId,
+            @PathVariable String reservationId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Reservation retrieved",
+                inventoryService.getReservation(storeId, reservationId)));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage(), null));
+        }
+    }
+
+    @PostMapping("/reservations/{reservationId}/commit")
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<StockReservation>> commit(
+            @PathVariable String storeId,
+            @PathVariable String reservationId) {
+        return settle("Reservation committed", () -> inventoryService.commit(storeId, reservationId));
+    }
+
+    @PostMapping("/reservations/{reservationId}/release")
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<StockReservation>> release(
+            @PathVariable String storeId,
+            @PathVariable String reservationId) {
+        return settle("Reservation released", () -> inventoryService.release(storeId, reservationId));
+    }
+
+    // Restock or write-off; product edits no longer change stock
+    @PostMapping("/products/{productId}/adjustments")
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<Product>> adjustStock(
+            @PathVariable String storeId,
+            @PathVariable String productId,
+            @RequestParam int delta) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Stock adjusted",
+                inventoryService.adjust(storeId, productId, delta)));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage(), null));
+        } catch (InsufficientStockException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to adjust stock: " + e.getMessage(), null));
+        }
+    }
+
+    private ResponseEntity<ApiResponse<StockReservation>> settle(
+            String message, Supplier<StockReservation> action) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(message, action.get()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage(), null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to settle reservation: " + e.getMessage(), null));
+        }
+    }
+}
@@ -1,11 +1,22 @@
 package com.server.controller.order;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.server.dto.common.CursorPage;
+import com.server.dto.order.OrderBatchRequest;
+import com.server.dto.order.OrderFilter;
+import com.server.dto.order.OrderPlacementResult;
+import com.server.dto.order.OrderRequest;
 import com.server.model.order.Order;
+import com.server.service.store.OrderPlacementService;
 import com.server.service.store.OrderService;
+import com.server.util.ApiResponse;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -13,19 +24,29 @@ import java.util.List;
 public class OrderController {
     
     private final OrderService orderService;
+    private final OrderPlacementService orderPlacementService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderPlacementService orderPlacementService) {
         this.orderService = orderService;
+        this.orderPlacementService = orderPlacementService;
     }
 
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        try {
-            List<Order> orders = orderService.getAllOrders();
-            return ResponseEntity.ok(orders);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+    public ResponseEntity<CursorPage<Order>> getOrders(
+            @RequestParam(required = false) String storeId,
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        OrderFilter filter = new OrderFilter();
+        filter.setStoreId(storeId);
+        filter.setCustomerId(customerId);
+        filter.setStatus(status);
+        filter.setFrom(from);
+        filter.setTo(to);
+        return findOrders(filter, cursor, limit);
     }
 
     @GetMapping("/{id}")
@@ -39,32 +60,92 @@ public class OrderController {
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Order>> getOrdersByCustomer(@PathVariable String customerId) {
+    public ResponseEntity<CursorPage<Order>> getOrdersByCustomer(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        OrderFilter filter = new OrderFilter();
+        filter.setCustomerId(customerId);
+        return findOrders(filter, cursor, limit);
+    }
+
+    @GetMapping("/store/{storeId}")
+    public ResponseEntity<CursorPage<Order>> getOrdersByStore(
+            @PathVariable String storeId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        OrderFilter filter = new OrderFilter();
+        filter.setStoreId(storeId);
+        filter.setStatus(status);
+        filter.setFrom(from);
+        filter.setTo(to);
+        return findOrders(filter, cursor, limit);
+    }
+
+    @PostMapping("/store/{storeId}")
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<OrderPlacementResult>> placeOrder(
+            @PathVariable String storeId,
+            @RequestBody OrderRequest request) {
         try {
-            List<Order> orders = orderService.getOrdersByCustomer(customerId);
-            return ResponseEntity.ok(orders);
+            OrderPlacementResult result = orderPlacementService.place(storeId, request);
+            switch (result.getOutcome()) {
+                case CREATED:
+                    return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.success("Order placed", result));
+                case DUPLICATE:
+                    return ResponseEntity.ok(ApiResponse.success("Order already placed", result));
+                default:
+                    return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                        .body(ApiResponse.error(result.getError(), result));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), null));
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to place order: " + e.getMessage(), null));
         }
     }
 
-    @GetMapping("/store/{storeId}")
-    public ResponseEntity<List<Order>> getOrdersByStore(@PathVariable String storeId) {
+    // Every order is placed or rejected on its own; the results follow the request order
+    @PostMapping("/store/{storeId}/batch")
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<List<OrderPlacementResult>>> placeOrders(
+            @PathVariable String storeId,
+            @RequestBody OrderBatchRequest request) {
         try {
-            List<Order> orders = orderService.getOrdersByStore(storeId);
-            return ResponseEntity.ok(orders);
+            List<OrderPlacementResult> results = orderPlacementService.placeAll(storeId, request.getOrders());
+            return ResponseEntity.ok(ApiResponse.success("Orders processed", results));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error(e.getMessage(), null));
         } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+            return ResponseEntity.internalServerError()
+                .body(ApiResponse.error("Failed to place orders: " + e.getMessage(), null));
         }
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String status) {
+    public ResponseEntity<CursorPage<Order>> getOrdersByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        OrderFilter filter = new OrderFilter();
+        filter.setStatus(status);
+        return findOrders(filter, cursor, limit);
+    }
+
+    private ResponseEntity<CursorPage<Order>> findOrders(OrderFilter filter, String cursor, Integer limit) {
         try {
-            List<Order> orders = orderService.getOrdersByStatus(status);
-            return ResponseEntity.ok(orders);
+            return ResponseEntity.ok(orderService.findOrders(filter, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
-} 
\ No newline at end of file
+}
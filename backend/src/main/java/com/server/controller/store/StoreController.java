@@ -15,9 +15,11 @@ import org.slf4j.LoggerFactory;
 import com.server.model.store.Store;
 import com.server.util.ApiResponse;
 import com.server.dto.store.StoreDTO;
+import com.server.dto.store.StoreSummary;
 import com.server.exception.auth.UnauthorizedException;
 import com.server.exception.common.ResourceNotFoundException;
 import com.server.service.store.StoreService;
+import com.server.service.store.StoreChildLoader;
 import com.server.service.analytics.AnalyticsService;
 import com.server.security.UserPrincipal;
 
@@ -36,9 +38,12 @@ public class StoreController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private StoreChildLoader storeChildLoader;
+
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<List<Store>>> getAllStores() {
+    public ResponseEntity<ApiResponse<List<StoreSummary>>> getAllStores() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String email = authentication.getName();
@@ -48,11 +53,8 @@ public class StoreController {
                     .body(ApiResponse.error("User not authenticated", null));
             }
 
-            List<Store> stores = storeService.getStoresByOwnerEmail(email);
+            List<StoreSummary> stores = storeService.getStoreSummariesByOwnerEmail(email);
             return ResponseEntity.ok(ApiResponse.success("Stores retrieved successfully", stores));
-        } catch (ResourceNotFoundException e) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                .body(ApiResponse.error(e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("Failed to retrieve stores: " + e.getMessage(), null));
@@ -88,14 +90,7 @@ public class StoreController {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             String email = authentication.getName();
             
-            // Get owner's stores
-            List<Store> ownerStores = storeService.getStoresByOwnerEmail(email);
-            
-            // Find the requested store in owner's stores
-            Store store = ownerStores.stream()
-                .filter(s -> s.getId().equals(storeId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Store not found or access denied"));
+            Store store = storeService.getOwnedStore(storeId, email);
             
             return ResponseEntity.ok(ApiResponse.success("Store retrieved successfully", store));
         } catch (ResourceNotFoundException e) {
@@ -109,7 +104,7 @@ public class StoreController {
 
     @GetMapping("/owner/stores")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<List<Store>>> getOwnerStores() {
+    public ResponseEntity<ApiResponse<List<StoreSummary>>> getOwnerStores() {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
             if (authentication == null || !authentication.isAuthenticated()) {
@@ -128,7 +123,7 @@ public class StoreController {
             
             logger.info("Fetching stores for user email: {}", email);
             
-            List<Store> stores = storeService.getStoresByOwnerEmail(email);
+            List<StoreSummary> stores = storeService.getStoreSummariesByOwnerEmail(email);
             
             if (stores.isEmpty()) {
                 logger.info("No stores found for user: {}", email);
@@ -206,6 +201,26 @@ public class StoreController {
         }
     }
 
+    @GetMapping("/{storeId}/children/{type}")
+    @PreAuthorize("isAuthenticated() and @storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<Page<?>>> getStoreChildren(
+            @PathVariable String storeId,
+            @PathVariable String type,
+            Pageable pageable) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(
+                "Store " + type + " retrieved successfully",
+                storeChildLoader.load(storeId, type, pageable)
+            ));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to retrieve store " + type, null));
+        }
+    }
+
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<Page<Store>>> searchStores(
             @RequestParam(required = false) String query,
@@ -20,7 +20,6 @@ public class BillboardsController {
     @GetMapping
     public ResponseEntity<ApiResponse<List<Billboard>>> getBillboards(@PathVariable String storeId) {
         try {
-            billboardService.setCurrentStore(storeId);
             return ResponseEntity.ok(ApiResponse.success(
                 "Billboards retrieved successfully",
                 billboardService.getBillboards()
@@ -37,7 +36,6 @@ public class BillboardsController {
             @PathVariable String storeId,
             @RequestBody Billboard billboard) {
         try {
-            billboardService.setCurrentStore(storeId);
             return ResponseEntity.ok(ApiResponse.success(
                 "Billboard created successfully",
                 billboardService.createBillboard(billboard)
@@ -55,7 +53,6 @@ public class BillboardsController {
             @PathVariable String billboardId,
             @RequestBody Billboard billboard) {
         try {
-            billboardService.setCurrentStore(storeId);
             return ResponseEntity.ok(ApiResponse.success(
                 "Billboard updated successfully",
                 billboardService.updateBillboard(billboardId, billboard)
@@ -72,7 +69,6 @@ public class BillboardsController {
             @PathVariable String storeId,
             @PathVariable String billboardId) {
         try {
-            billboardService.setCurrentStore(storeId);
             billboardService.deleteBillboard(billboardId);
             return ResponseEntity.ok(ApiResponse.success("Billboard deleted successfully", null));
         } catch (Exception e) {
@@ -22,7 +22,6 @@ public class CategoriesController {
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<List<Category>>> getCategories(@PathVariable String storeId) {
         try {
-            categoryService.setCurrentStore(storeId);
             List<Category> categories = categoryService.getCategories();
             return ResponseEntity.ok(ApiResponse.success(
                 "Categories retrieved successfully",
@@ -40,7 +39,6 @@ public class CategoriesController {
             @PathVariable String storeId,
             @Valid @RequestBody Category category) {
         try {
-            categoryService.setCurrentStore(storeId);
             Category created = categoryService.createCategory(category);
             return ResponseEntity.ok(ApiResponse.success(
                 "Category created successfully",
@@ -59,7 +57,6 @@ public class CategoriesController {
             @PathVariable String categoryId,
             @Valid @RequestBody Category category) {
         try {
-            categoryService.setCurrentStore(storeId);
             Category updated = categoryService.updateCategory(categoryId, category);
             return ResponseEntity.ok(ApiResponse.success(
                 "Category updated successfully",
@@ -77,7 +74,6 @@ public class CategoriesController {
             @PathVariable String storeId,
             @PathVariable String categoryId) {
         try {
-            categoryService.setCurrentStore(storeId);
             categoryService.deleteCategory(categoryId);
             return ResponseEntity.ok(ApiResponse.success("Category deleted successfully", null));
         } catch (Exception e) {
@@ -23,7 +23,6 @@ public class PricesController {
     @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
     public ResponseEntity<ApiResponse<List<Price>>> getPrices(@PathVariable String storeId) {
         try {
-            priceService.setCurrentStore(storeId);
             List<Price> prices = priceService.getPrices();
             return ResponseEntity.ok(ApiResponse.success("Prices retrieved successfully", prices));
         } catch (Exception e) {
@@ -38,7 +37,6 @@ public class PricesController {
             @PathVariable String storeId,
             @RequestBody Price price) {
         try {
-            priceService.setCurrentStore(storeId);
             price.setStoreId(storeId);
             Price created = priceService.createPrice(price);
             return ResponseEntity.ok(ApiResponse.success("Price created successfully", created));
@@ -55,7 +53,6 @@ public class PricesController {
             @PathVariable String priceId,
             @RequestBody Price price) {
         try {
-            priceService.setCurrentStore(storeId);
             price.setId(priceId);
             price.setStoreId(storeId);
             Price updated = priceService.updatePrice(price);
@@ -72,7 +69,6 @@ public class PricesController {
             @PathVariable String storeId,
             @PathVariable String priceId) {
         try {
-            priceService.setCurrentStore(storeId);
             priceService.deletePrice(priceId);
             return ResponseEntity.ok(ApiResponse.success("Price deleted successfully", null));
         } catch (Exception e) {
@@ -87,7 +83,6 @@ public class PricesController {
             @PathVariable String storeId,
             @PathVariable String priceId) {
         try {
-            priceService.setCurrentStore(storeId);
             Price price = priceService.getPrice(priceId);
             return ResponseEntity.ok(ApiResponse.success("Price retrieved successfully", price));
         } catch (Exception e) {
@@ -103,7 +98,6 @@ public class PricesController {
             @PathVariable String priceId,
             @RequestBody Map<String, Object> discountInfo) {
         try {
-            priceService.setCurrentStore(storeId);
             Price price = priceService.getPrice(priceId);
             
             String currencyCode = (String) discountInfo.get("currencyCode");
@@ -128,7 +122,6 @@ public class PricesController {
             @PathVariable String priceId,
             @PathVariable String currencyCode) {
         try {
-            priceService.setCurrentStore(storeId);
             Price price = priceService.getPrice(priceId);
             price.removeDiscount(currencyCode);
             Price updated = priceService.updatePrice(price);
@@ -145,7 +138,6 @@ public class PricesController {
             @PathVariable String storeId,
             @PathVariable String productId) {
         try {
-            priceService.setCurrentStore(storeId);
             List<Price> prices = priceService.getPricesByProduct(productId);
             return ResponseEntity.ok(ApiResponse.success("Product prices retrieved successfully", prices));
         } catch (Exception e) {
@@ -158,7 +150,6 @@ public class PricesController {
     @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
     public ResponseEntity<ApiResponse<List<Price>>> getActivePrices(@PathVariable String storeId) {
         try {
-            priceService.setCurrentStore(storeId);
             List<Price> prices = priceService.getActivePrices();
             return ResponseEntity.ok(ApiResponse.success("Active prices retrieved successfully", prices));
         } catch (Exception e) {
@@ -171,7 +162,6 @@ public class PricesController {
     @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
     public ResponseEntity<ApiResponse<List<Price>>> getDiscountedPrices(@PathVariable String storeId) {
         try {
-            priceService.setCurrentStore(storeId);
             List<Price> prices = priceService.getDiscountedPrices();
             return ResponseEntity.ok(ApiResponse.success("Discounted prices retrieved successfully", prices));
         } catch (Exception e) {
@@ -6,48 +6,43 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 
+import com.server.dto.common.CursorPage;
+import com.server.dto.store.ProductCatalogQuery;
+import com.server.exception.common.ResourceNotFoundException;
 import com.server.model.store.products.Product;
+import com.server.security.StoreContext;
+import com.server.security.StoreSecurityService;
+import com.server.security.UserPrincipal;
 import com.server.service.store.settings.ProductService;
 import com.server.util.ApiResponse;
 import com.server.exception.store.StoreRequirementException;
 
 import java.util.List;
+import java.util.Map;
 import java.time.LocalDateTime;
-import java.util.stream.Collectors;
 
-import com.server.model.store.products.ProductColor;
-import com.server.model.store.products.ProductSize;
-import com.server.model.store.Billboard;
-import com.server.model.store.Category;
-import com.server.model.store.Price;
-import com.server.service.store.settings.ColorService;
-import com.server.service.store.settings.SizeService;
-import com.server.service.store.settings.CategoryService;
-import com.server.service.store.settings.BillboardService;
-import com.server.service.store.settings.PriceService;
+import com.server.service.store.settings.ProductCatalogService;
+import com.server.service.store.settings.ProductReferenceValidator;
 
 @RestController
 @RequestMapping("/api")
 @RequiredArgsConstructor
 public class ProductsController {
+    private static final int MAX_BULK_PRODUCTS = 500;
+
     @Autowired
     private final ProductService productService;
 
-    @Autowired
-    private ColorService colorService;
+    private final StoreContext storeContext;
+    private final StoreSecurityService storeSecurityService;
 
     @Autowired
-    private SizeService sizeService;
+    private ProductCatalogService productCatalogService;
 
     @Autowired
-    private CategoryService categoryService;
-
-    @Autowired
-    private BillboardService billboardService;
-
-    @Autowired
-    private PriceService priceService;
+    private ProductReferenceValidator productReferenceValidator;
 
     // Get all products (no store filter)
     @GetMapping("/products")
@@ -61,27 +56,19 @@ public class ProductsController {
         }
     }
 
-    // Create a product (no store specified)
+    // Create a product in the store named by the body's storeId, with the same ownership check as the store path
     @PostMapping("/products")
-    @PreAuthorize("isAuthenticated()")
+    @PreAuthorize("#product.storeId != null and @storeSecurityService.isStoreOwner(#product.storeId, principal)")
     public ResponseEntity<ApiResponse<Product>> createProduct(@RequestBody Product product) {
-        try {
-            return ResponseEntity.ok(ApiResponse.success("Product created successfully",
-                productService.createProduct(product)));
-        } catch (StoreRequirementException e) {
-            return ResponseEntity.badRequest()
-                .body(ApiResponse.error("Store requirements not met: " + e.getMessage(), null));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ApiResponse.error("Failed to create product: " + e.getMessage(), null));
-        }
+        // The body may name the store by its business id; products are always saved under the _id
+        storeContext.bind(product.getStoreId());
+        return createStoreProduct(storeContext.getStoreId(), product);
     }
 
     // Get products by store
     @GetMapping("/stores/{storeId}/products")
     public ResponseEntity<ApiResponse<List<Product>>> getProductsByStore(@PathVariable String storeId) {
         try {
-            productService.setCurrentStore(storeId);
             List<Product> products = productService.getProductsByStore(storeId);
             return ResponseEntity.ok(ApiResponse.success("Store products retrieved successfully", products));
         } catch (Exception e) {
@@ -90,6 +77,23 @@ public class ProductsController {
         }
     }
 
+    // Catalogue page of a store: filters, sort, sparse fields and a continuation cursor
+    @GetMapping("/stores/{storeId}/products/catalog")
+    public ResponseEntity<ApiResponse<CursorPage<Map<String, Object>>>> getProductCatalog(
+            @PathVariable String storeId,
+            @ModelAttribute ProductCatalogQuery query) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Store products retrieved successfully",
+                productCatalogService.findCatalogPage(storeId, query)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid catalogue request: " + e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to retrieve store products: " + e.getMessage(), null));
+        }
+    }
+
     // Create product for specific store
     @PostMapping("/stores/{storeId}/products")
     @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
@@ -97,28 +101,59 @@ public class ProductsController {
             @PathVariable String storeId,
             @RequestBody Product product) {
         try {
-            // Set store ID and current store context
+            // Set store ID
             product.setStoreId(storeId);
-            productService.setCurrentStore(storeId);
             
             // Set creation timestamp
             product.setCreatedAt(LocalDateTime.now());
             product.setUpdatedAt(LocalDateTime.now());
             
             // Validate references exist in the store
-            validateProductReferences(product, storeId);
+            productReferenceValidator.validate(product, storeId);
             
             Product createdProduct = productService.createProduct(product);
             return ResponseEntity.ok(ApiResponse.success("Product created successfully", createdProduct));
         } catch (StoreRequirementException e) {
             return ResponseEntity.badRequest()
                 .body(ApiResponse.error("Store requirements not met: " + e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid product references: " + e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("Failed to create product: " + e.getMessage(), null));
         }
     }
 
+    // Bulk import for a store; references of the whole batch are validated together
+    @PostMapping("/stores/{storeId}/products/bulk")
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<ApiResponse<List<Product>>> createStoreProducts(
+            @PathVariable String storeId,
+            @RequestBody List<Product> products) {
+        try {
+            if (products.isEmpty() || products.size() > MAX_BULK_PRODUCTS) {
+                return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("A bulk import takes 1 to " + MAX_BULK_PRODUCTS + " products", null));
+            }
+
+            products.forEach(product -> product.setStoreId(storeId));
+            productReferenceValidator.validateAll(products, storeId);
+
+            List<Product> createdProducts = productService.createProducts(products);
+            return ResponseEntity.ok(ApiResponse.success("Products created successfully", createdProducts));
+        } catch (StoreRequirementException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Store requirements not met: " + e.getMessage(), null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid product references: " + e.getMessage(), null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResponse.error("Failed to create products: " + e.getMessage(), null));
+        }
+    }
+
     // Get single product
     @GetMapping("/products/{id}")
     public ResponseEntity<ApiResponse<Product>> getProduct(@PathVariable String id) {
@@ -138,9 +173,6 @@ public class ProductsController {
             @PathVariable String storeId,
             @PathVariable String productId) {
         try {
-            // Set current store context
-            productService.setCurrentStore(storeId);
-            
             // Verify product belongs to store
             Product product = productService.getProduct(productId);
             if (!product.getStoreId().equals(storeId)) {
@@ -166,9 +198,6 @@ public class ProductsController {
             @PathVariable String productId,
             @RequestBody Product product) {
         try {
-            // Set current store context
-            productService.setCurrentStore(storeId);
-            
             // Verify product belongs to store
             Product existingProduct = productService.getProduct(productId);
             if (!existingProduct.getStoreId().equals(storeId)) {
@@ -183,116 +212,73 @@ public class ProductsController {
             product.setCreatedAt(existingProduct.getCreatedAt());
             
             // Validate references exist in the store
-            validateProductReferences(product, storeId);
+            productReferenceValidator.validate(product, storeId);
             
             // Update the product
             Product updatedProduct = productService.updateProduct(product);
             
             return ResponseEntity.ok(ApiResponse.success("Product updated successfully", updatedProduct));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                .body(ApiResponse.error("Invalid product references: " + e.getMessage(), null));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(ApiResponse.error("Failed to update product: " + e.getMessage(), null));
         }
     }
 
-    // Delete product (generic)
+    // Delete product (generic); the product's own store is checked and bound like a {storeId} path
     @DeleteMapping("/products/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<Void>> deleteProduct(@PathVariable String id) {
+    public ResponseEntity<ApiResponse<Void>> deleteProduct(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        String storeId;
         try {
-            // Get product to verify ownership
-            Product product = productService.getProduct(id);
-            
-            // Delete the product
-            productService.deleteProduct(id);
-            
-            return ResponseEntity.ok(ApiResponse.success("Product deleted successfully", null));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ApiResponse.error("Failed to delete product: " + e.getMessage(), null));
+            storeId = bindOwnedStore(id, principal);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
+        }
+        if (storeId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("Product does not belong to your store", null));
         }
+        return deleteStoreProduct(storeId, id);
     }
 
-    // Update product (generic)
+    // Update product (generic); the product's own store is checked and bound like a {storeId} path
     @PutMapping("/products/{id}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<Product>> updateProduct(
             @PathVariable String id,
-            @RequestBody Product product) {
+            @RequestBody Product product,
+            @AuthenticationPrincipal UserPrincipal principal) {
+        String storeId;
         try {
-            product.setId(id);
-            Product updated = productService.updateProduct(product);
-            return ResponseEntity.ok(ApiResponse.success("Product updated successfully", updated));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ApiResponse.error("Failed to update product: " + e.getMessage(), null));
-        }
-    }
-
-    private void validateProductReferences(Product product, String storeId) {
-        // Validate colors
-        if (product.getColors() != null && !product.getColors().isEmpty()) {
-            List<ProductColor> validatedColors = product.getColors().stream()
-                .map(color -> colorService.findById(color.getId())
-                    .orElseThrow(() -> new IllegalArgumentException("Color not found: " + color.getId())))
-                .peek(color -> {
-                    if (!storeId.equals(color.getStoreId())) {
-                        throw new IllegalArgumentException("Color " + color.getId() + " does not belong to store " + storeId);
-                    }
-                })
-                .collect(Collectors.toList());
-            product.setColors(validatedColors);
-        }
-
-        // Validate sizes
-        if (product.getSizes() != null && !product.getSizes().isEmpty()) {
-            List<ProductSize> validatedSizes = product.getSizes().stream()
-                .map(size -> sizeService.findById(size.getId())
-                    .orElseThrow(() -> new IllegalArgumentException("Size not found: " + size.getId())))
-                .peek(size -> {
-                    if (!storeId.equals(size.getStoreId())) {
-                        throw new IllegalArgumentException("Size " + size.getId() + " does not belong to store " + storeId);
-                    }
-                })
-                .collect(Collectors.toList());
-            product.setSizes(validatedSizes);
-        }
-
-        // Validate category
-        if (product.getCategory() != null) {
-            Category category = categoryService.findById(product.getCategory().getId())
-                .orElseThrow(() -> new IllegalArgumentException("Category not found: " + product.getCategory().getId()));
-            if (!storeId.equals(category.getStoreId())) {
-                throw new IllegalArgumentException("Category " + category.getId() + " does not belong to store " + storeId);
-            }
-            product.setCategory(category);
+            storeId = bindOwnedStore(id, principal);
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage(), null));
         }
-
-        // Validate billboards
-        if (product.getBillboards() != null && !product.getBillboards().isEmpty()) {
-            List<Billboard> validatedBillboards = product.getBillboards().stream()
-                .map(billboard -> billboardService.findById(billboard.getId())
-                    .orElseThrow(() -> new IllegalArgumentException("Billboard not found: " + billboard.getId())))
-                .peek(billboard -> {
-                    if (!storeId.equals(billboard.getStoreId())) {
-                        throw new IllegalArgumentException("Billboard " + billboard.getId() + " does not belong to store " + storeId);
-                    }
-                })
-                .collect(Collectors.toList());
-            product.setBillboards(validatedBillboards);
+        if (storeId == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("Product does not belong to your store", null));
         }
+        return updateStoreProduct(storeId, id, product);
+    }
 
-        // Validate prices
-        if (product.getPrices() != null && !product.getPrices().isEmpty()) {
-            List<Price> validatedPrices = product.getPrices().stream()
-                .map(price -> priceService.getPrice(price.getId()))
-                .peek(price -> {
-                    if (!storeId.equals(price.getStoreId())) {
-                        throw new IllegalArgumentException("Price " + price.getId() + " does not belong to store " + storeId);
-                    }
-                })
-                .collect(Collectors.toList());
-            product.setPrices(validatedPrices);
+    /**
+     * Binds the store of a product to the request, as a {@code {storeId}}
+     * path would, so the store-scoped services accept it.
+     *
+     * @return the store's _id, or null when the caller does not own it
+     * @throws ResourceNotFoundException when the product does not exist
+     */
+    private String bindOwnedStore(String productId, UserPrincipal principal) {
+        String storeId = productService.getProduct(productId).getStoreId();
+        if (storeId == null || !storeSecurityService.isStoreOwner(storeId, principal)) {
+            return null;
         }
+        storeContext.bind(storeId);
+        return storeContext.getStoreId();
     }
-}
\ No newline at end of file
+}
@@ -1,12 +1,17 @@
 package com.server.controller.store.settings.dashboard;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.server.service.analytics.AnalyticsService;
+import com.server.service.analytics.DashboardFeed;
+import com.server.service.analytics.SalesReportService;
 import com.server.exception.ResourceNotFoundException;
 
 import lombok.RequiredArgsConstructor;
@@ -21,9 +26,9 @@ import java.util.HashMap;
 public class DashboardController {
 
     private final AnalyticsService analyticsService;
+    private final DashboardFeed dashboardFeed;
 
     @GetMapping("/stats")
-    @Cacheable(value = "storeStats", key = "#storeId")
     public ResponseEntity<Map<String, Object>> getStoreStats(@PathVariable String storeId) {
         try {
             Map<String, Object> stats = analyticsService.getStoreAnalytics(storeId);
@@ -37,19 +42,20 @@ public class DashboardController {
     }
 
     @GetMapping("/sales")
-    @Cacheable(value = "salesReport", key = "#storeId + #start + #end")
     public ResponseEntity<Map<String, Object>> getSalesReport(
         @PathVariable String storeId,
         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+        @RequestParam(defaultValue = "day") String granularity
     ) {
         try {
             validateDateRange(start, end);
-            Map<String, Object> salesData = analyticsService.getSalesReport(start, end);
+            Map<String, Object> salesData = analyticsService.getSalesReport(
+                storeId, start, end, SalesReportService.Granularity.parse(granularity));
             return ResponseEntity.ok(createSuccessResponse(salesData));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
-                .body(createErrorResponse("Invalid date range", e.getMessage()));
+                .body(createErrorResponse("Invalid sales report request", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                 .body(createErrorResponse("Failed to fetch sales report", e.getMessage()));
@@ -57,7 +63,6 @@ public class DashboardController {
     }
 
     @GetMapping("/product-stock")
-    @Cacheable(value = "productStock", key = "#storeId")
     public ResponseEntity<Map<String, Object>> getProductStockAnalytics(@PathVariable String storeId) {
         try {
             Map<String, Object> stockData = analyticsService.getProductStockAnalytics(storeId);
@@ -71,7 +76,6 @@ public class DashboardController {
     }
 
     @GetMapping("/sales-trend")
-    @Cacheable(value = "salesTrend", key = "#storeId + #start + #end")
     public ResponseEntity<Map<String, Object>> getSalesTrend(
         @PathVariable String storeId,
         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
@@ -91,7 +95,6 @@ public class DashboardController {
     }
 
     @GetMapping("/category-analytics")
-    @Cacheable(value = "categoryAnalytics", key = "#storeId")
     public ResponseEntity<Map<String, Object>> getCategoryAnalytics(@PathVariable String storeId) {
         try {
             Map<String, Object> categoryData = analyticsService.getCategoryAnalytics(storeId);
@@ -104,6 +107,23 @@ public class DashboardController {
         }
     }
 
+    // Server-sent order, revenue and low-stock deltas; see DashboardFeed
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("@storeSecurityService.isStoreOwner(#storeId, principal)")
+    public ResponseEntity<SseEmitter> getLiveFeed(
+        @PathVariable String storeId,
+        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        try {
+            return ResponseEntity.ok()
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(dashboardFeed.subscribe(storeId, lastEventId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
     private void validateDateRange(LocalDateTime start, LocalDateTime end) {
         if (start.isAfter(end)) {
             throw new IllegalArgumentException("Start date must be before end date");
@@ -0,0 +1,32 @@
+package com.server.dto.common;
+
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class ImageUploadResult {
+
+    private String fileName;
+    private boolean uploaded;
+    // publicId, url, format, width and height as returned by the provider
+    private Map<String, String> image;
+    private String error;
+
+    public static ImageUploadResult uploaded(String fileName, Map<String, String> image) {
+        return of(fileName, true, image, null);
+    }
+
+    public static ImageUploadResult failed(String fileName, String error) {
+        return of(fileName, false, null, error);
+    }
+
+    private static ImageUploadResult of(String fileName, boolean uploaded, Map<String, String> image, String error) {
+        ImageUploadResult result = new ImageUploadResult();
+        result.setFileName(fileName);
+        result.setUploaded(uploaded);
+        result.setImage(image);
+        result.setError(error);
+        return result;
+    }
+}
@@ -0,0 +1,11 @@
+package com.server.dto.common;
+
+import lombok.Data;
+
+// What the browser got back from Cloudinary for a signed upload
+@Data
+public class SignedUploadCallback {
+    private String publicId;
+    private String version;
+    private String signature;
+}
@@ -0,0 +1,11 @@
+package com.server.dto.common;
+
+import lombok.Data;
+
+@Data
+public class UploadSessionRequest {
+    private String fileName;
+    private String contentType;
+    // Total size in bytes
+    private long size;
+}
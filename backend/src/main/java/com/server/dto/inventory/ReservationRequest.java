@@ -0,0 +1,15 @@
+package com.server.dto.inventory;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class ReservationRequest {
+    // Optional; repeating a request with the same reference returns the original reservation
+    private String reference;
+
+    // Product id -> units to hold
+    private Map<String, Integer> quantities = new LinkedHashMap<>();
+}
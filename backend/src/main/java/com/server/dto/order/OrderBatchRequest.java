@@ -0,0 +1,11 @@
+package com.server.dto.order;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OrderBatchRequest {
+    private List<OrderRequest> orders = new ArrayList<>();
+}
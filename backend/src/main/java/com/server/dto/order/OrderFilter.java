@@ -0,0 +1,17 @@
+package com.server.dto.order;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * Optional filters for order listings; null fields are ignored.
+ */
+@Data
+public class OrderFilter {
+    private String storeId;
+    private String customerId;
+    private String status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+}
@@ -0,0 +1,42 @@
+package com.server.dto.order;
+
+import lombok.Data;
+
+import com.server.model.order.Order;
+
+@Data
+public class OrderPlacementResult {
+
+    public enum Outcome {
+        CREATED,
+        // The idempotency key was already used; order is the one placed first
+        DUPLICATE,
+        REJECTED
+    }
+
+    private String idempotencyKey;
+    private Outcome outcome;
+    private Order order;
+    private String error;
+
+    public static OrderPlacementResult created(String idempotencyKey, Order order) {
+        return of(idempotencyKey, Outcome.CREATED, order, null);
+    }
+
+    public static OrderPlacementResult duplicate(String idempotencyKey, Order order) {
+        return of(idempotencyKey, Outcome.DUPLICATE, order, null);
+    }
+
+    public static OrderPlacementResult rejected(String idempotencyKey, String error) {
+        return of(idempotencyKey, Outcome.REJECTED, null, error);
+    }
+
+    private static OrderPlacementResult of(String idempotencyKey, Outcome outcome, Order order, String error) {
+        OrderPlacementResult result = new OrderPlacementResult();
+        result.setIdempotencyKey(idempotencyKey);
+        result.setOutcome(outcome);
+        result.setOrder(order);
+        result.setError(error);
+        return result;
+    }
+}
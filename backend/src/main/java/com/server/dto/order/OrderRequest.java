@@ -0,0 +1,29 @@
+package com.server.dto.order;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OrderRequest {
+    // Optional; repeating an order with the same key returns the order placed first
+    private String idempotencyKey;
+
+    private String customerId;
+
+    // Currency of the store's prices to charge in; defaults to each price's own default
+    private String currency;
+
+    private List<Line> items = new ArrayList<>();
+
+    @Data
+    public static class Line {
+        private String productId;
+        private int quantity;
+
+        // Optional; the line is rejected when the current price differs
+        private BigDecimal unitPrice;
+    }
+}
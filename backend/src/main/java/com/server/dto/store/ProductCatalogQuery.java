@@ -0,0 +1,28 @@
+package com.server.dto.store;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Filters, sort and projection of a product catalogue page. Null filters
+ * are ignored; an empty field list returns whole products.
+ */
+@Data
+public class ProductCatalogQuery {
+    private String categoryId;
+    private Boolean active;
+    private Boolean featured;
+    private Boolean inStock;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+
+    // createdAt | updatedAt | name | basePrice
+    private String sort = "createdAt";
+    // asc | desc
+    private String direction = "desc";
+
+    private List<String> fields;
+    private String cursor;
+    private Integer limit;
+}
@@ -0,0 +1,53 @@
+package com.server.dto.store;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.server.model.store.Store;
+
+import java.util.Map;
+
+/**
+ * The scalar fields of a store, read with the {@link #FIELDS} projection so
+ * the child reference lists on {@link Store} are never loaded. Listings
+ * also fill {@code counts}, the number of children per child field (see
+ * StoreReadinessService).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoreSummary {
+    public static final String[] FIELDS = {
+        "_id", "storeId", "name", "ownerEmail", "isActive", "description", "address", "location", "phone", "email"
+    };
+
+    private String id;
+    private String storeId;
+    private String name;
+    private String ownerEmail;
+    private boolean isActive;
+    private String description;
+    private String address;
+    private String location;
+    private String phone;
+    private String email;
+    private Map<String, Long> counts;
+
+    public static StoreSummary from(Store store) {
+        return StoreSummary.builder()
+            .id(store.getId())
+            .storeId(store.getStoreId())
+            .name(store.getName())
+            .ownerEmail(store.getOwnerEmail())
+            .isActive(store.isActive())
+            .description(store.getDescription())
+            .address(store.getAddress())
+            .location(store.getLocation())
+            .phone(store.getPhone())
+            .email(store.getEmail())
+            .build();
+    }
+}
@@ -62,6 +62,8 @@ public class Owner {
 
     // Auth fields
     private String refreshToken;
+    // "ADMIN" for platform administrators, null for store owners; granted in the database only
+    private String role;
     private LocalDateTime lastLogin;
     
     // Profile fields
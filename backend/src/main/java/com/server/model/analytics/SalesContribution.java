@@ -0,0 +1,44 @@
+package com.server.model.analytics;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * What a single order last added to the sales rollups, keyed by order id.
+ * Re-saving an order subtracts this snapshot before adding the new one,
+ * and deleting it subtracts it, so rollups stay exact across updates.
+ * {@code pendingSince} is set while the buckets are being written; a
+ * contribution left pending means the write may or may not have landed,
+ * and the store's rollups are rebuilt.
+ */
+@Data
+@Document(collection = "sales_rollup_contributions")
+public class SalesContribution {
+    @Id
+    private String orderId;
+    @Indexed
+    private String storeId;
+    private LocalDateTime createdAt;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal revenue = BigDecimal.ZERO;
+    private long units;
+
+    private Map<String, SalesTotals> categories = new HashMap<>();
+    private Map<String, SalesTotals> products = new HashMap<>();
+
+    // Bumped on every change, so a writer only replaces the snapshot it started from
+    private Long version;
+
+    @Indexed(sparse = true)
+    private LocalDateTime pendingSince;
+}
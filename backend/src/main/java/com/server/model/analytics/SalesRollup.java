@@ -0,0 +1,52 @@
+package com.server.model.analytics;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Pre-aggregated sales of one store for one hour, one day or its whole
+ * history (TOTAL, bucketStart null). Documents are only ever written with
+ * $inc upserts, so the id is derived from store, granularity and bucket.
+ *
+ * Category and product keys are encoded with
+ * {@code SalesRollupService.encodeKey} because Mongo field names cannot
+ * contain dots.
+ */
+@Data
+@Document(collection = "sales_rollups")
+@CompoundIndex(name = "store_granularity_bucket", def = "{'storeId': 1, 'granularity': 1, 'bucketStart': 1}")
+public class SalesRollup {
+
+    public enum Granularity {
+        HOUR,
+        DAY,
+        TOTAL
+    }
+
+    @Id
+    private String id;
+    private String storeId;
+    private Granularity granularity;
+    private LocalDateTime bucketStart;
+
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal revenue = BigDecimal.ZERO;
+    private long orderCount;
+    private long units;
+
+    private Map<String, SalesTotals> categories = new HashMap<>();
+    private Map<String, SalesTotals> products = new HashMap<>();
+
+    public static String bucketId(String storeId, Granularity granularity, LocalDateTime bucketStart) {
+        return storeId + ":" + granularity + ":" + (bucketStart == null ? "all" : bucketStart.toString());
+    }
+}
@@ -0,0 +1,23 @@
+package com.server.model.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+
+/**
+ * Revenue, units and order count of one category or product inside a
+ * {@link SalesRollup} bucket or a {@link SalesContribution}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesTotals {
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal revenue = BigDecimal.ZERO;
+    private long units;
+    private long orderCount;
+}
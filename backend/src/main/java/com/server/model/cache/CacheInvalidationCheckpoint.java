@@ -0,0 +1,24 @@
+package com.server.model.cache;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Where one node's cache invalidation change stream left off, so a restart
+ * resumes instead of missing the changes made while it was down.
+ */
+@Data
+@Document(collection = "cache_invalidation_checkpoints")
+public class CacheInvalidationCheckpoint {
+    // Node id, see app.cache.invalidation.node-id
+    @Id
+    private String id;
+
+    // The _data field of the change stream resume token
+    private String resumeToken;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,89 @@
+package com.server.model.event;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A change to an order, product, price or store, recorded next to the
+ * change itself and published by the outbox relay. Events are pending
+ * until every consumer took them, then kept until {@code purgeAt} for
+ * inspection and removed by a TTL index.
+ */
+@Data
+@Document(collection = "outbox_events")
+@CompoundIndexes({
+    // The relay reads pending events oldest first
+    @CompoundIndex(name = "status_created", def = "{'status': 1, 'createdAt': 1}"),
+    // Dashboard feeds on other nodes read recent events of the stores they watch
+    @CompoundIndex(name = "store_created", def = "{'storeId': 1, 'createdAt': 1}")
+})
+public class OutboxEvent {
+
+    public enum Status { PENDING, PUBLISHED, FAILED }
+
+    public enum Action { CREATED, SAVED, DELETED }
+
+    public static final String ORDER = "order";
+    public static final String PRODUCT = "product";
+    public static final String PRICE = "price";
+    public static final String STORE = "store";
+
+    @Id
+    private String id;
+    private String aggregateType;
+    private String aggregateId;
+    // Null when the change only carried an id, e.g. repository deletes
+    private String storeId;
+    private Action action;
+
+    private Status status;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime publishedAt;
+
+    // Consumers that took the event, recorded when another one failed so redelivery skips them
+    private List<String> consumedBy;
+
+    // Relay node holding the event and until when
+    private String claimedBy;
+    private LocalDateTime claimedUntil;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime purgeAt;
+
+    public static OutboxEvent of(String aggregateType, String aggregateId, String storeId, Action action) {
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setStoreId(storeId);
+        event.setAction(action);
+        event.setStatus(Status.PENDING);
+        event.setCreatedAt(now);
+        event.setNextAttemptAt(now);
+        return event;
+    }
+
+    /**
+     * The CREATED event of an order, with an id derived from the order so
+     * that recording it again is a no-op.
+     */
+    public static OutboxEvent orderCreated(String orderId, String storeId) {
+        OutboxEvent event = of(ORDER, orderId, storeId, Action.CREATED);
+        event.setId("order-created:" + orderId);
+        return event;
+    }
+
+    public boolean is(String aggregateType) {
+        return aggregateType.equals(this.aggregateType);
+    }
+}
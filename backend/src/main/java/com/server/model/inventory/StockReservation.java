@@ -0,0 +1,63 @@
+package com.server.model.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stock held for one checkout. While HELD its units are already taken off
+ * the products' {@code availableQuantity}; committing also takes them off
+ * {@code quantity}, releasing or expiring gives them back. Settled
+ * reservations are purged by a TTL index once {@code purgeAt} passes.
+ */
+@Data
+@Document(collection = "stock_reservations")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_expires", def = "{'status': 1, 'expiresAt': 1}"),
+    // References are unique per store; reservations without one are left out of the index
+    @CompoundIndex(name = "store_reference", def = "{'storeId': 1, 'reference': 1}", unique = true,
+        partialFilter = "{'reference': {'$type': 'string'}}")
+})
+public class StockReservation {
+
+    public enum Status { HELD, COMMITTED, RELEASED, EXPIRED }
+
+    @Id
+    private String id;
+    private String storeId;
+
+    // Caller-supplied key, e.g. an order's idempotency key; reserving twice with it in one store
+    // returns the first reservation while it still holds or has sold the stock
+    private String reference;
+
+    // Reference of a released or expired reservation whose key was reserved again
+    private String supersededReference;
+
+    private List<Line> lines = new ArrayList<>();
+    private Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+    private LocalDateTime settledAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime purgeAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        private String productId;
+        private int quantity;
+        // Taken from this node's hot-SKU allotment rather than from the product document
+        private boolean hot;
+    }
+}
@@ -2,13 +2,28 @@ package com.server.model.order;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Data
 @Document(collection = "orders")
+// Keyset listings sort by (createdAt, _id) descending after an equality prefix
+@CompoundIndexes({
+    @CompoundIndex(name = "store_created", def = "{'storeId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "store_status_created", def = "{'storeId': 1, 'status': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "customer_created", def = "{'customerId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "status_created", def = "{'status': 1, 'createdAt': -1, '_id': -1}"),
+    // Keys are unique per store; orders without a key are left out of the index
+    @CompoundIndex(name = "store_idempotency_key", def = "{'storeId': 1, 'idempotencyKey': 1}", unique = true,
+        partialFilter = "{'idempotencyKey': {'$type': 'string'}}")
+})
 public class Order {
     @Id
     private String id;
@@ -16,6 +31,18 @@ public class Order {
     private String storeId;
     private String status;
     private BigDecimal totalAmount;
+    private List<OrderItem> items = new ArrayList<>();
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-} 
\ No newline at end of file
+
+    // Client-supplied key of placed orders; replays to the same store return the stored order
+    private String idempotencyKey;
+
+    // Stock reservation committed when the order was placed; the expiry sweep commits it if that was missed
+    @Indexed(sparse = true)
+    private String reservationId;
+
+    // Written with the order and unset once its CREATED event is recorded
+    @Indexed(sparse = true)
+    private Boolean createdEventPending;
+}
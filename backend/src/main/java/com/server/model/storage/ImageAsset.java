@@ -0,0 +1,71 @@
+package com.server.model.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An uploaded image we keep track of.
+ *
+ * Direct uploads to the storage provider are created PENDING when the
+ * upload is signed and become REGISTERED once the browser reports the
+ * upload and its signature checks out; pending uploads that never report
+ * back are purged by a TTL index once {@code expiresAt} passes.
+ *
+ * Images stored locally are content addressed: the id is
+ * {@code images/<sha-256>}, so the same bytes are stored once however often
+ * they are uploaded. They are PROCESSING until their resized variants have
+ * been written, then READY, or FAILED when the image cannot be decoded.
+ */
+@Data
+@Document(collection = "image_assets")
+@CompoundIndex(name = "status_created", def = "{'status': 1, 'createdAt': 1}")
+public class ImageAsset {
+
+    public enum Status { PENDING, REGISTERED, PROCESSING, READY, FAILED }
+
+    // Provider public id including the folder, or images/<sha-256> for local images
+    @Id
+    private String id;
+
+    private String ownerEmail;
+    private String folder;
+    private Status status;
+    private String version;
+    private String url;
+    private LocalDateTime createdAt;
+    private LocalDateTime registeredAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+
+    // Local images only
+    private String contentHash;
+    private String contentType;
+    private long bytes;
+    private Integer width;
+    private Integer height;
+    private List<Variant> variants = new ArrayList<>();
+    private String error;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Variant {
+        // thumbnail, card or full
+        private String name;
+        private String url;
+        private int width;
+        private int height;
+        private long bytes;
+        private String contentType;
+    }
+}
@@ -0,0 +1,56 @@
+package com.server.model.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A resumable upload. The file is split into chunks of {@code chunkSize}
+ * bytes, the last one shorter; chunks are written at their offsets into a
+ * file named after the session on the node that holds it, and the index of
+ * every chunk written is recorded here, so a client can ask what is missing
+ * and carry on after a dropped connection. Sessions left idle past {@code expiresAt}
+ * are purged by a TTL index and their files by the upload sweep.
+ */
+@Data
+@Document(collection = "upload_sessions")
+public class UploadSession {
+
+    public enum Status { UPLOADING, COMPLETING, COMPLETED }
+
+    @Id
+    private String id;
+    // Per-owner limits on open sessions
+    @Indexed
+    private String ownerEmail;
+    private String fileName;
+    private String contentType;
+    private long size;
+    private long chunkSize;
+    private Status status;
+    // Indexes of the chunks written, each once
+    private List<Integer> received = new ArrayList<>();
+    // Set once completed
+    private String url;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+
+    // A byte range, as reported to clients
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chunk {
+        private long offset;
+        private long length;
+    }
+}
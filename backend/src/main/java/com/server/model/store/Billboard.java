@@ -3,6 +3,7 @@ package com.server.model.store;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
 import java.time.LocalDateTime;
 
 @Data
@@ -13,6 +14,7 @@ public class Billboard {
     private String label;
     private String imageUrl;
     private String description;
+    @Indexed
     private String storeId;
     private boolean isActive;
     private LocalDateTime createdAt;
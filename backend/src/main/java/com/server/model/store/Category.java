@@ -3,6 +3,7 @@ package com.server.model.store;
 import java.util.List;
 import java.time.LocalDateTime;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.annotation.Id;
 import lombok.Data;
 
@@ -19,6 +20,7 @@ public class Category {
     private String rank;
     private String status;
     private String type;
+    @Indexed
     private String storeId;
     private boolean isEdited;
     private List<String> editedList;
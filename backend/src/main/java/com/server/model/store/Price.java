@@ -3,6 +3,7 @@ package com.server.model.store;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -15,6 +16,7 @@ import java.util.HashMap;
 public class Price {
     @Id
     private String id;
+    @Indexed
     private String storeId;
     private List<String> productIds = new ArrayList<>();
     
@@ -47,6 +47,8 @@ public class Store {
     @Indexed
     private String ownerEmail;
     
+    // Child references are only kept when store.references.mode=embedded;
+    // in detached mode these stay empty and children are paged via StoreChildLoader
     @Builder.Default
     @DBRef(lazy = false)
     private List<Product> products = new ArrayList<>();
@@ -0,0 +1,25 @@
+package com.server.model.store;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Number of children a store has per child field (colors, sizes, ...),
+ * keyed by the store's {@code _id}. Counts are moved with {@code $inc} as
+ * children are attached and detached, so readiness checks never have to
+ * scan the child collections.
+ */
+@Data
+@Document(collection = "store_readiness")
+public class StoreReadiness {
+    @Id
+    private String id;
+    private Map<String, Long> counts = new HashMap<>();
+    private LocalDateTime updatedAt;
+    private LocalDateTime rebuiltAt;
+}
@@ -2,8 +2,12 @@ package com.server.model.store.products;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import com.server.model.store.Billboard;
 import com.server.model.store.Category;
@@ -15,6 +19,14 @@ import java.util.List;
 
 @Data
 @Document(collection = "products")
+// Catalogue pages sort by (field, _id) after the store and filter prefix
+@CompoundIndexes({
+    @CompoundIndex(name = "store_created", def = "{'storeId': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "store_name", def = "{'storeId': 1, 'name': 1, '_id': 1}"),
+    @CompoundIndex(name = "store_price", def = "{'storeId': 1, 'basePrice': 1, '_id': 1}"),
+    @CompoundIndex(name = "store_category_created", def = "{'storeId': 1, 'category.$id': 1, 'createdAt': -1, '_id': -1}"),
+    @CompoundIndex(name = "store_active_created", def = "{'storeId': 1, 'isActive': 1, 'createdAt': -1, '_id': -1}")
+})
 public class Product {
     @Id
     private String id;
@@ -37,7 +49,10 @@ public class Product {
     @DBRef(lazy = true)
     private List<Billboard> billboards;
     
+    // Decimal128 so price filters and sorting compare numerically
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal basePrice;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal salePrice;
     private Integer quantity;
     private Integer availableQuantity;
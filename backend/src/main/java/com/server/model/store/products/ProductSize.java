@@ -3,6 +3,7 @@ package com.server.model.store.products;
 import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.Indexed;
 import java.time.LocalDateTime;
 
 @Data
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 public class ProductSize {
     @Id
     private String id;
+    @Indexed
     private String storeId;
     private String name;
     private String value;
@@ -0,0 +1,11 @@
+package com.server.repository.analytics;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.server.model.analytics.SalesContribution;
+
+@Repository
+public interface SalesContributionRepository extends MongoRepository<SalesContribution, String> {
+    void deleteByStoreId(String storeId);
+}
@@ -0,0 +1,21 @@
+package com.server.repository.analytics;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.server.model.analytics.SalesRollup;
+import com.server.model.analytics.SalesRollup.Granularity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesRollupRepository extends MongoRepository<SalesRollup, String> {
+
+    @Query("{ 'storeId': ?0, 'granularity': ?1, 'bucketStart': { $gte: ?2, $lte: ?3 } }")
+    List<SalesRollup> findBuckets(String storeId, Granularity granularity, LocalDateTime from, LocalDateTime to, Sort sort);
+
+    void deleteByStoreId(String storeId);
+}
@@ -16,6 +16,11 @@ public interface StoreRepository extends BaseRepository<Store, String> {
     @Query("{ 'ownerEmail': ?0, 'isActive': true }")
     List<Store> findActiveStoresByOwnerEmail(String email);
     
+    // Scalar fields only, see StoreSummary.FIELDS
+    @Query(value = "{ 'ownerEmail': ?0 }", sort = "{ '_id': 1 }",
+           fields = "{ '_id': 1, 'storeId': 1, 'name': 1, 'ownerEmail': 1, 'isActive': 1, 'description': 1, 'address': 1, 'location': 1, 'phone': 1, 'email': 1 }")
+    List<Store> findSummariesByOwnerEmail(String ownerEmail);
+    
     @Query(value = "{ '_id': ?0 }", fields = "{ 'products': 1, 'colors': 1, 'sizes': 1, 'billboards': 1, 'storeCategories': 1 }")
     Store findStoreWithChildEntities(String storeId);
     
@@ -1,5 +1,7 @@
 package com.server.repository.store.base;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.NoRepositoryBean;
 import com.server.repository.base.BaseRepository;
 import java.util.List;
@@ -7,4 +9,5 @@ import java.util.List;
 @NoRepositoryBean
 public interface StoreBaseRepository<T, ID> extends BaseRepository<T, ID> {
     List<T> findByStoreId(String storeId);
+    Page<T> findByStoreId(String storeId, Pageable pageable);
 } 
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.server.repository.store.products;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import com.server.model.store.products.ProductColor;
 import java.util.List;
@@ -7,5 +9,6 @@ import java.util.Optional;
 
 public interface ProductColorRepository extends MongoRepository<ProductColor, String> {
     List<ProductColor> findByStoreId(String storeId);
+    Page<ProductColor> findByStoreId(String storeId, Pageable pageable);
     Optional<ProductColor> findByIdAndStoreId(String id, String storeId);
 } 
\ No newline at end of file
@@ -1,9 +1,12 @@
 package com.server.repository.store.products;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import com.server.model.store.products.ProductSize;
 import java.util.List;
 
 public interface ProductSizeRepository extends MongoRepository<ProductSize, String> {
     List<ProductSize> findByStoreId(String storeId);
+    Page<ProductSize> findByStoreId(String storeId, Pageable pageable);
 } 
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.server.repository.store.settings;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -9,6 +11,7 @@ import java.util.List;
 @Repository
 public interface PriceRepository extends MongoRepository<Price, String> {
     List<Price> findByStoreId(String storeId);
+    Page<Price> findByStoreId(String storeId, Pageable pageable);
     
     @Query("{ 'storeId': ?0, 'isActive': true }")
     List<Price> findActiveByStoreId(String storeId);
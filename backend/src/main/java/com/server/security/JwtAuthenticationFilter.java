@@ -9,8 +9,6 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.lang.NonNull;
 
-import com.server.util.TokenUtil;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,7 +21,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final TokenUtil tokenUtil;
+    private final JwtClaimsCache jwtClaimsCache;
 
     @Override
     protected void doFilterInternal(
@@ -41,9 +39,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
 
             String token = authHeader.substring(7);
-            Claims claims = tokenUtil.getClaimsFromToken(token);
+            Claims claims = jwtClaimsCache.verify(token);
             
-            if (claims != null && tokenUtil.validateToken(token)) {
+            if (claims != null) {
                 String userId = claims.get("userId", String.class);
                 String email = claims.getSubject();
                 String fullName = claims.get("fullName", String.class);
@@ -0,0 +1,157 @@
+package com.server.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.server.util.TokenUtil;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Verifies access tokens once and keeps the verified claims, keyed by the
+ * SHA-256 of the token, until the token's own {@code exp}. Revoked tokens are
+ * remembered (also until {@code exp}) and rejected without re-verification.
+ * Revocations have no size bound: evicting one would accept a logged-out
+ * token again, and they only live as long as an access token anyway.
+ *
+ * Revocation is local to this node.
+ */
+@Component
+public class JwtClaimsCache {
+    private static final Logger logger = LoggerFactory.getLogger(JwtClaimsCache.class);
+
+    static final String CACHE_NAME = "jwtClaims";
+
+    private final TokenUtil tokenUtil;
+    private final Cache<String, Claims> verified;
+    private final Cache<String, Date> revoked;
+    private final Timer verificationTimer;
+    private final Counter verificationFailures;
+
+    public JwtClaimsCache(
+            TokenUtil tokenUtil,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.claims-cache.max-size:50000}") long maxSize,
+            @Value("${jwt.claims-cache.max-ttl:PT1H}") Duration maxTtl) {
+        this.tokenUtil = tokenUtil;
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new UntilTokenExpiry<Claims>(Claims::getExpiration, maxTtl.toNanos()))
+            .recordStats()
+            .build();
+        this.revoked = Caffeine.newBuilder()
+            .expireAfter(new UntilTokenExpiry<Date>(Function.identity(), Long.MAX_VALUE))
+            .build();
+        this.verificationTimer = Timer.builder("jwt.verification")
+            .description("Time spent verifying JWT signatures on a claims cache miss")
+            .register(meterRegistry);
+        this.verificationFailures = Counter.builder("jwt.verification.failures")
+            .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, CACHE_NAME);
+    }
+
+    /**
+     * Returns the verified claims for an access token, or {@code null} when
+     * the token is invalid, expired or revoked.
+     */
+    public Claims verify(String token) {
+        String key = hash(token);
+        if (revoked.getIfPresent(key) != null) {
+            return null;
+        }
+
+        Claims claims = verified.getIfPresent(key);
+        if (claims != null) {
+            // Entries expire with the token, this only guards against clock jitter at the boundary
+            return isExpired(claims) ? null : claims;
+        }
+
+        try {
+            claims = verificationTimer.recordCallable(() -> tokenUtil.verifyAccessToken(token));
+        } catch (Exception e) {
+            verificationFailures.increment();
+            logger.debug("Token verification failed: {}", e.getMessage());
+            return null;
+        }
+
+        verified.put(key, claims);
+        return claims;
+    }
+
+    public void revoke(String token) {
+        Claims claims = verify(token);
+        if (claims == null) {
+            // Already invalid, expired or revoked
+            return;
+        }
+
+        String key = hash(token);
+        verified.invalidate(key);
+        revoked.put(key, claims.getExpiration() != null ? claims.getExpiration() : new Date(Long.MAX_VALUE));
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= System.currentTimeMillis();
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class UntilTokenExpiry<V> implements Expiry<String, V> {
+        private final Function<V, Date> expiration;
+        private final long maxTtlNanos;
+
+        UntilTokenExpiry(Function<V, Date> expiration, long maxTtlNanos) {
+            this.expiration = expiration;
+            this.maxTtlNanos = maxTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String key, V value, long currentTime) {
+            Date expiration = this.expiration.apply(value);
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            if (remainingMillis <= 0) {
+                return 0;
+            }
+            return Math.min(TimeUnit.MILLISECONDS.toNanos(remainingMillis), maxTtlNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.server.security;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.dto.store.StoreSummary;
+import com.server.exception.common.ResourceNotFoundException;
+import com.server.service.store.StoreIdentityResolver;
+
+/**
+ * The store a request operates on. {@link StoreContextInterceptor} binds
+ * the {@code {storeId}} path variable, which may be either the store's
+ * {@code _id} or its business id (swapped for the {@code _id} before the
+ * handler runs), and the store is resolved through
+ * {@link StoreIdentityResolver} the first time anything asks for it: the
+ * {@code @PreAuthorize} ownership check and every service in the request
+ * then share that one result.
+ *
+ * Being request scoped, each request gets its own instance, so services
+ * reading it stay safe under concurrent requests for different stores.
+ */
+@Component
+@RequestScope
+public class StoreContext {
+    private static final Logger logger = LoggerFactory.getLogger(StoreContext.class);
+
+    private final StoreIdentityResolver storeIdentityResolver;
+
+    private String requestedStoreId;
+    private StoreSummary summary;
+    private boolean resolved;
+
+    public StoreContext(StoreIdentityResolver storeIdentityResolver) {
+        this.storeIdentityResolver = storeIdentityResolver;
+    }
+
+    public void bind(String storeId) {
+        this.requestedStoreId = storeId;
+        this.summary = null;
+        this.resolved = false;
+    }
+
+    public boolean isBound() {
+        return requestedStoreId != null;
+    }
+
+    public String getRequestedStoreId() {
+        return requestedStoreId;
+    }
+
+    public Optional<StoreSummary> findSummary() {
+        if (!resolved && requestedStoreId != null) {
+            summary = storeIdentityResolver.resolve(requestedStoreId).orElse(null);
+            resolved = true;
+            logger.debug("Resolved store context {}: {}", requestedStoreId, summary != null ? "found" : "not found");
+        }
+        return Optional.ofNullable(summary);
+    }
+
+    /**
+     * @throws ResourceNotFoundException when no store is bound or the bound
+     *         store does not exist
+     */
+    public StoreSummary getSummary() {
+        if (!isBound()) {
+            throw new ResourceNotFoundException("No store selected for this request");
+        }
+        return findSummary()
+            .orElseThrow(() -> new ResourceNotFoundException("Store not found with id: " + requestedStoreId));
+    }
+
+    /**
+     * The canonical {@code _id} of the bound store.
+     */
+    public String getStoreId() {
+        return getSummary().getId();
+    }
+
+    public boolean isOwnedBy(String email) {
+        return email != null && findSummary()
+            .map(store -> email.equals(store.getOwnerEmail()))
+            .orElse(false);
+    }
+}
@@ -0,0 +1,58 @@
+package com.server.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Binds the {@code {storeId}} path variable of the matched handler to the
+ * request's {@link StoreContext}. A path holding the store's {@code _id}
+ * reads nothing from Mongo here; the store is only looked up once
+ * something in the request needs it.
+ *
+ * A path holding the business id is resolved right away and the variable
+ * is replaced with the store's {@code _id} before the handler's arguments
+ * are bound, so controllers, ownership checks and services only ever see
+ * the canonical id. An unknown business id is left as it is and fails the
+ * ownership check.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreContextInterceptor implements HandlerInterceptor {
+    static final String STORE_ID_VARIABLE = "storeId";
+
+    private final StoreContext storeContext;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        Map<String, String> variables =
+            (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || !variables.containsKey(STORE_ID_VARIABLE)) {
+            return true;
+        }
+
+        String storeId = variables.get(STORE_ID_VARIABLE);
+        storeContext.bind(storeId);
+        if (storeId != null && !ObjectId.isValid(storeId)) {
+            storeContext.findSummary()
+                .filter(store -> !store.getId().equals(storeId))
+                .ifPresent(store -> {
+                    Map<String, String> canonical = new LinkedHashMap<>(variables);
+                    canonical.put(STORE_ID_VARIABLE, store.getId());
+                    request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, canonical);
+                });
+        }
+        return true;
+    }
+}
@@ -3,13 +3,18 @@ package com.server.security;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
-import com.server.repository.store.StoreRepository;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.server.service.store.StoreIdentityResolver;
 
 @Service("storeSecurityService")
 public class StoreSecurityService {
 
     @Autowired
-    private StoreRepository storeRepository;
+    private StoreIdentityResolver storeIdentityResolver;
+
+    @Autowired
+    private StoreContext storeContext;
 
     public boolean isStoreOwner(String storeId, Object principal) {
         if (!(principal instanceof UserPrincipal)) {
@@ -19,9 +24,13 @@ public class StoreSecurityService {
         UserPrincipal userPrincipal = (UserPrincipal) principal;
         String userEmail = userPrincipal.getEmail();
 
-        return storeRepository.findById(storeId)
-            .map(store -> store.getOwnerEmail().equals(userEmail))
-            .orElse(false);
+        // Inside a request for this store, reuse the store the request already resolved
+        if (RequestContextHolder.getRequestAttributes() != null
+                && storeId != null && storeId.equals(storeContext.getRequestedStoreId())) {
+            return storeContext.isOwnedBy(userEmail);
+        }
+
+        return storeIdentityResolver.isOwnedBy(storeId, userEmail);
     }
 
     public boolean hasStoreAccess(String storeId, Object principal) {
@@ -35,16 +44,9 @@ public class StoreSecurityService {
             return false;
         }
 
-        UserPrincipal userPrincipal = (UserPrincipal) principal;
-        String userEmail = userPrincipal.getEmail();
-
-        return storeRepository.findById(storeId)
-            .map(store -> {
-                // Add additional access checks here if needed
-                // For example, check if user is store staff or has specific role
-                return store.getOwnerEmail().equals(userEmail); // For now, same as isStoreOwner
-            })
-            .orElse(false);
+        // Add additional access checks here if needed
+        // For example, check if user is store staff or has specific role
+        return false; // For now, same as isStoreOwner
     }
 
     // Helper method to check if user is authenticated and has access
@@ -54,4 +56,4 @@ public class StoreSecurityService {
         }
         return hasStoreAccess(storeId, authentication.getPrincipal());
     }
-} 
\ No newline at end of file
+}
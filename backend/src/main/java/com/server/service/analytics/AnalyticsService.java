@@ -1,19 +1,30 @@
 package com.server.service.analytics;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
+import com.server.model.analytics.SalesRollup;
+import com.server.model.analytics.SalesRollup.Granularity;
+import com.server.model.analytics.SalesTotals;
 import com.server.model.order.Order;
 import com.server.repository.order.OrderRepository;
+import com.server.service.cache.CacheNames;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,84 +32,72 @@ import org.slf4j.LoggerFactory;
 public class AnalyticsService {
     private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
     
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private static final Duration HOURLY_TREND_MAX_RANGE = Duration.ofHours(48);
+    private static final int GROWTH_WINDOW_DAYS = 30;
+
     @Autowired
     private OrderRepository orderRepository;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private SectionFanOut sectionFanOut;
+
+    @Autowired
+    private SalesReportService salesReportService;
     
+    /**
+     * Computes the independent dashboard sections through {@link SectionFanOut},
+     * concurrently unless fan-out is disabled. Sections that fail or time out
+     * leave their defaults in place and keep the result out of the cache.
+     */
+    @Cacheable(value = CacheNames.STORE_STATS, key = "#storeId", unless = "!#result['meta']['complete']")
     public Map<String, Object> getStoreAnalytics(String storeId) {
         Map<String, Object> analytics = new HashMap<>();
-        try {
-            // Add default values for stats
-            analytics.put("totalSales", BigDecimal.ZERO);
-            analytics.put("totalOrders", 0);
-            analytics.put("totalProducts", 0);
-            analytics.put("totalCustomers", 0);
-            analytics.put("revenue", BigDecimal.ZERO);
-            analytics.put("topProducts", Collections.emptyList());
-            
-            // Try to get actual values if available
-            try {
-                BigDecimal revenue = orderRepository.calculateTotalRevenue(storeId);
-                if (revenue != null) {
-                    analytics.put("revenue", revenue);
-                }
-            } catch (Exception e) {
-                logger.error("Error calculating revenue for store {}: {}", storeId, e.getMessage());
-            }
-            
-            try {
-                List<Order> topOrders = orderRepository.findTopSellingProducts(storeId);
-                if (topOrders != null && !topOrders.isEmpty()) {
-                    List<Map<String, Object>> topOrdersData = topOrders.stream()
-                        .map(order -> {
-                            Map<String, Object> orderData = new HashMap<>();
-                            orderData.put("id", order.getId());
-                            orderData.put("totalAmount", order.getTotalAmount());
-                            orderData.put("status", order.getStatus());
-                            orderData.put("createdAt", order.getCreatedAt());
-                            return orderData;
-                        })
-                        .collect(Collectors.toList());
-                    analytics.put("topOrders", topOrdersData);
-                }
-            } catch (Exception e) {
-                logger.error("Error fetching top orders for store {}: {}", storeId, e.getMessage());
-            }
-
-            // Get customer analytics
-            try {
-                Map<String, Object> customerStats = getStoreCustomersAnalytics(storeId);
-                analytics.put("customers", customerStats);
-            } catch (Exception e) {
-                logger.error("Error fetching customer analytics for store {}: {}", storeId, e.getMessage());
-            }
 
-            // Get product analytics
-            try {
-                Map<String, Object> productStats = getStoreProductsAnalytics(storeId);
-                analytics.put("products", productStats);
-            } catch (Exception e) {
-                logger.error("Error fetching product analytics for store {}: {}", storeId, e.getMessage());
-            }
+        // Add default values for stats
+        analytics.put("totalSales", BigDecimal.ZERO);
+        analytics.put("totalOrders", 0);
+        analytics.put("totalProducts", 0);
+        analytics.put("totalCustomers", 0);
+        analytics.put("revenue", BigDecimal.ZERO);
+        analytics.put("topProducts", Collections.emptyList());
 
-            // Get inventory analytics
-            try {
-                Map<String, Object> inventoryStats = getStoreInventoryAnalytics(storeId);
-                analytics.put("inventory", inventoryStats);
-            } catch (Exception e) {
-                logger.error("Error fetching inventory analytics for store {}: {}", storeId, e.getMessage());
+        Map<String, Supplier<Map<String, Object>>> sections = new LinkedHashMap<>();
+        sections.put("revenue", () -> {
+            SalesRollup totals = salesRollupService.getTotals(storeId);
+            Map<String, Object> revenue = new HashMap<>();
+            revenue.put("revenue", totals.getRevenue());
+            revenue.put("totalSales", totals.getRevenue());
+            revenue.put("totalOrders", totals.getOrderCount());
+            revenue.put("unitsSold", totals.getUnits());
+            return revenue;
+        });
+        sections.put("topOrders", () -> {
+            List<Order> topOrders = orderRepository.findTopSellingProducts(storeId);
+            if (topOrders == null || topOrders.isEmpty()) {
+                return Collections.emptyMap();
             }
+            List<Map<String, Object>> topOrdersData = topOrders.stream()
+                .map(order -> {
+                    Map<String, Object> orderData = new HashMap<>();
+                    orderData.put("id", order.getId());
+                    orderData.put("totalAmount", order.getTotalAmount());
+                    orderData.put("status", order.getStatus());
+                    orderData.put("createdAt", order.getCreatedAt());
+                    return orderData;
+                })
+                .collect(Collectors.toList());
+            return Map.of("topOrders", topOrdersData);
+        });
+        sections.put("customers", () -> Map.of("customers", getStoreCustomersAnalytics(storeId)));
+        sections.put("products", () -> Map.of("products", getStoreProductsAnalytics(storeId)));
+        sections.put("inventory", () -> Map.of("inventory", getStoreInventoryAnalytics(storeId)));
+        sections.put("reviews", () -> Map.of("reviews", getStoreReviewsAnalytics(storeId)));
 
-            // Get review analytics
-            try {
-                Map<String, Object> reviewStats = getStoreReviewsAnalytics(storeId);
-                analytics.put("reviews", reviewStats);
-            } catch (Exception e) {
-                logger.error("Error fetching review analytics for store {}: {}", storeId, e.getMessage());
-            }
-            
-        } catch (Exception e) {
-            logger.error("Error getting store analytics for store {}: {}", storeId, e.getMessage());
-        }
+        analytics.putAll(sectionFanOut.run(storeId, sections));
         return analytics;
     }
 
@@ -171,41 +170,20 @@ public class AnalyticsService {
         return analytics;
     }
 
-    public Map<String, Object> getSalesReport(LocalDateTime start, LocalDateTime end) {
-        Map<String, Object> report = new HashMap<>();
+    @Cacheable(value = CacheNames.SALES_REPORT, key = "#storeId + ':' + #start + ':' + #end + ':' + #granularity")
+    public Map<String, Object> getSalesReport(String storeId, LocalDateTime start, LocalDateTime end,
+            SalesReportService.Granularity granularity) {
         try {
-            // Get orders between dates
-            List<Order> orders = orderRepository.findByCreatedAtBetween(start, end);
-            
-            // Process orders for sales data
-            List<Map<String, Object>> salesData = new ArrayList<>();
-            Map<String, Integer> orderStatusCount = new HashMap<>();
-            
-            for (Order order : orders) {
-                // Add to sales data
-                Map<String, Object> salePoint = new HashMap<>();
-                salePoint.put("date", order.getCreatedAt());
-                salePoint.put("amount", order.getTotalAmount());
-                salesData.add(salePoint);
-                
-                // Count order statuses
-                orderStatusCount.merge(order.getStatus(), 1, Integer::sum);
-            }
-            
-            // Add data to report
-            report.put("salesData", salesData);
-            report.put("pendingOrders", orderStatusCount.getOrDefault("pending", 0));
-            report.put("processingOrders", orderStatusCount.getOrDefault("processing", 0));
-            report.put("completedOrders", orderStatusCount.getOrDefault("completed", 0));
-            report.put("cancelledOrders", orderStatusCount.getOrDefault("cancelled", 0));
-            
+            return salesReportService.build(storeId, start, end, granularity);
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
-            logger.error("Error generating sales report: {}", e.getMessage());
+            logger.error("Error generating sales report for store {}: {}", storeId, e.getMessage());
             throw new RuntimeException("Failed to generate sales report", e);
         }
-        return report;
     }
 
+    @Cacheable(value = CacheNames.PRODUCT_STOCK, key = "#storeId", unless = "#result.isEmpty()")
     public Map<String, Object> getProductStockAnalytics(String storeId) {
         Map<String, Object> stockData = new HashMap<>();
         try {
@@ -228,24 +206,40 @@ public class AnalyticsService {
         }
     }
 
+    @Cacheable(value = CacheNames.SALES_TREND, key = "#storeId + ':' + #start + ':' + #end", unless = "#result.isEmpty()")
     public Map<String, Object> getSalesTrend(String storeId, LocalDateTime start, LocalDateTime end) {
         Map<String, Object> trendData = new HashMap<>();
         try {
+            List<SalesRollup> days = salesRollupService.findBuckets(storeId, Granularity.DAY, start, end);
+
             // Get daily sales trend
-            List<Map<String, Object>> dailySales = orderRepository.getDailySalesTrend(storeId, start, end);
+            List<Map<String, Object>> dailySales = days.stream()
+                .map(this::toTrendPoint)
+                .collect(Collectors.toList());
             trendData.put("dailySales", dailySales);
 
+            // Short ranges also get an hourly breakdown
+            if (Duration.between(start, end).compareTo(HOURLY_TREND_MAX_RANGE) <= 0) {
+                trendData.put("hourlySales", salesRollupService.findBuckets(storeId, Granularity.HOUR, start, end).stream()
+                    .map(this::toTrendPoint)
+                    .collect(Collectors.toList()));
+            }
+
             // Get sales by product category
-            Map<String, BigDecimal> salesByCategory = orderRepository.getSalesByCategory(storeId, start, end);
+            Map<String, SalesTotals> categories = sumTotals(days, SalesRollup::getCategories);
+            Map<String, BigDecimal> salesByCategory = new HashMap<>();
+            categories.forEach((category, totals) -> salesByCategory.put(category, totals.getRevenue()));
             trendData.put("salesByCategory", salesByCategory);
 
             // Get top selling products
-            List<Map<String, Object>> topProducts = orderRepository.getTopSellingProducts(storeId, start, end);
-            trendData.put("topProducts", topProducts);
+            trendData.put("topProducts", top(sumTotals(days, SalesRollup::getProducts), 10, "quantity"));
 
-            // Get sales growth rate
-            BigDecimal growthRate = orderRepository.calculateSalesGrowthRate(storeId, start, end);
-            trendData.put("growthRate", growthRate);
+            // Get sales growth rate against the preceding period of the same length
+            BigDecimal current = sumRevenue(days);
+            Duration range = Duration.between(start, end);
+            BigDecimal previous = sumRevenue(salesRollupService.findBuckets(
+                storeId, Granularity.DAY, start.minus(range), start.truncatedTo(ChronoUnit.DAYS).minusNanos(1)));
+            trendData.put("growthRate", growthRate(current, previous));
 
             return trendData;
         } catch (Exception e) {
@@ -254,20 +248,40 @@ public class AnalyticsService {
         }
     }
 
+    @Cacheable(value = CacheNames.CATEGORY_ANALYTICS, key = "#storeId", unless = "#result.isEmpty()")
     public Map<String, Object> getCategoryAnalytics(String storeId) {
         Map<String, Object> categoryData = new HashMap<>();
         try {
+            Map<String, SalesTotals> allTime = decodeKeys(salesRollupService.getTotals(storeId).getCategories());
+            BigDecimal totalRevenue = allTime.values().stream()
+                .map(SalesTotals::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
             // Get sales distribution by category
-            Map<String, BigDecimal> categoryDistribution = orderRepository.getCategorySalesDistribution(storeId);
+            Map<String, BigDecimal> categoryDistribution = new HashMap<>();
+            if (totalRevenue.signum() != 0) {
+                allTime.forEach((category, totals) -> categoryDistribution.put(category,
+                    totals.getRevenue().multiply(HUNDRED).divide(totalRevenue, 2, RoundingMode.HALF_UP)));
+            }
             categoryData.put("salesDistribution", categoryDistribution);
 
-            // Get category growth rates
-            Map<String, BigDecimal> categoryGrowth = orderRepository.getCategoryGrowthRates(storeId);
+            // Get category growth rates: last 30 days against everything before
+            LocalDateTime now = LocalDateTime.now();
+            Map<String, SalesTotals> recent = sumTotals(
+                salesRollupService.findBuckets(storeId, Granularity.DAY, now.minusDays(GROWTH_WINDOW_DAYS), now),
+                SalesRollup::getCategories);
+            Map<String, BigDecimal> categoryGrowth = new HashMap<>();
+            allTime.forEach((category, totals) -> {
+                BigDecimal current = recent.containsKey(category) ? recent.get(category).getRevenue() : BigDecimal.ZERO;
+                BigDecimal growth = growthRate(current, totals.getRevenue().subtract(current));
+                if (growth != null) {
+                    categoryGrowth.put(category, growth);
+                }
+            });
             categoryData.put("growthRates", categoryGrowth);
 
             // Get top performing categories
-            List<Map<String, Object>> topCategories = orderRepository.getTopPerformingCategories(storeId);
-            categoryData.put("topCategories", topCategories);
+            categoryData.put("topCategories", top(allTime, 5, "totalOrders"));
 
             return categoryData;
         } catch (Exception e) {
@@ -275,4 +289,60 @@ public class AnalyticsService {
             return Collections.emptyMap();
         }
     }
-} 
\ No newline at end of file
+
+    private Map<String, Object> toTrendPoint(SalesRollup bucket) {
+        Map<String, Object> point = new HashMap<>();
+        point.put("_id", bucket.getGranularity() == Granularity.DAY
+            ? bucket.getBucketStart().toLocalDate().toString()
+            : bucket.getBucketStart().toString());
+        point.put("totalSales", bucket.getRevenue());
+        point.put("orderCount", bucket.getOrderCount());
+        point.put("units", bucket.getUnits());
+        return point;
+    }
+
+    private static BigDecimal sumRevenue(List<SalesRollup> buckets) {
+        return buckets.stream().map(SalesRollup::getRevenue).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static Map<String, SalesTotals> sumTotals(
+            List<SalesRollup> buckets, Function<SalesRollup, Map<String, SalesTotals>> totals) {
+        Map<String, SalesTotals> sums = new HashMap<>();
+        for (SalesRollup bucket : buckets) {
+            totals.apply(bucket).forEach((key, value) -> sums.merge(SalesRollupService.decodeKey(key), value,
+                (a, b) -> new SalesTotals(a.getRevenue().add(b.getRevenue()),
+                    a.getUnits() + b.getUnits(), a.getOrderCount() + b.getOrderCount())));
+        }
+        return sums;
+    }
+
+    private static Map<String, SalesTotals> decodeKeys(Map<String, SalesTotals> totals) {
+        Map<String, SalesTotals> decoded = new HashMap<>();
+        totals.forEach((key, value) -> decoded.put(SalesRollupService.decodeKey(key), value));
+        return decoded;
+    }
+
+    private static List<Map<String, Object>> top(Map<String, SalesTotals> totals, int limit, String countField) {
+        return totals.entrySet().stream()
+            .sorted(Map.Entry.<String, SalesTotals>comparingByValue(
+                Comparator.comparing(SalesTotals::getRevenue)).reversed())
+            .limit(limit)
+            .map(entry -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("_id", entry.getKey());
+                row.put("totalSales", entry.getValue().getRevenue());
+                row.put(countField, "quantity".equals(countField)
+                    ? entry.getValue().getUnits()
+                    : entry.getValue().getOrderCount());
+                return row;
+            })
+            .collect(Collectors.toList());
+    }
+
+    private static BigDecimal growthRate(BigDecimal current, BigDecimal previous) {
+        if (previous.signum() == 0) {
+            return null;
+        }
+        return current.subtract(previous).multiply(HUNDRED).divide(previous, 2, RoundingMode.HALF_UP);
+    }
+}
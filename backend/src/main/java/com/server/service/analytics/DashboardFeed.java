@@ -0,0 +1,434 @@
+package com.server.service.analytics;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.config.DashboardFeedProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Live dashboard updates over server-sent events. Each store has one
+ * channel; a delta is serialized once when published and queued for every
+ * connection watching the store. Event ids are {@code <node>-<sequence>}
+ * and the last {@code replay-buffer} events are kept, so a browser that
+ * reconnects with {@code Last-Event-ID} gets what it missed. When that is
+ * not possible it gets a {@code resync} event and reloads the dashboard.
+ *
+ * Every connection has its own bounded queue written by the sender pool,
+ * one send at a time. A connection that falls {@code queue-capacity}
+ * events behind has its queue dropped and is told to resync, so a slow
+ * browser never holds up the others.
+ *
+ * Channels live on the node holding the connections. The node that
+ * dispatches an order event publishes it right away, and every other node
+ * with someone watching the store picks it up from the outbox, see
+ * {@link DashboardFeedConsumer#fanOut}; events are published once per node
+ * whichever way they arrive. A channel left without subscribers for a
+ * heartbeat interval is dropped, so browsers reconnecting right away still
+ * get their replay.
+ */
+@Service
+public class DashboardFeed {
+    private static final Logger logger = LoggerFactory.getLogger(DashboardFeed.class);
+
+    public static final String ORDER = "order";
+    public static final String REVENUE = "revenue";
+    public static final String LOW_STOCK = "low-stock";
+    static final String READY = "ready";
+    static final String RESYNC = "resync";
+    private static final FeedEvent HEARTBEAT = new FeedEvent(null, null, null);
+
+    public static final class Delta {
+        private final String type;
+        private final Object data;
+
+        private Delta(String type, Object data) {
+            this.type = type;
+            this.data = data;
+        }
+
+        public static Delta of(String type, Object data) {
+            return new Delta(type, data);
+        }
+    }
+
+    private final DashboardFeedProperties properties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService sender;
+    private final AtomicInteger connections;
+    // Ids from an earlier run, or another node, never replay
+    private final String node = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+
+    public DashboardFeed(DashboardFeedProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.connections = meterRegistry.gauge("dashboard.feed.connections", new AtomicInteger());
+
+        AtomicInteger counter = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(
+            properties.getSenderThreads(), properties.getSenderThreads(),
+            30, TimeUnit.SECONDS,
+            // At most one queued drain per connection
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "dashboard-feed-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Opens a feed for the store, replaying what followed lastEventId.
+     *
+     * @throws IllegalStateException when the store already has
+     *         {@code max-subscribers-per-store} open feeds
+     */
+    public SseEmitter subscribe(String storeId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = join(storeId, emitter, lastEventId);
+        connections.incrementAndGet();
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    private Subscriber join(String storeId, SseEmitter emitter, String lastEventId) {
+        while (true) {
+            Channel channel = channels.computeIfAbsent(storeId, Channel::new);
+            synchronized (channel) {
+                // A channel dropped by the heartbeat since it was looked up is replaced
+                if (!channel.retired) {
+                    Subscriber subscriber = new Subscriber(channel, emitter);
+                    open(channel, subscriber, lastEventId);
+                    return subscriber;
+                }
+            }
+        }
+    }
+
+    // Called under the channel monitor
+    private void open(Channel channel, Subscriber subscriber, String lastEventId) {
+        if (channel.subscribers.size() >= properties.getMaxSubscribersPerStore()) {
+            throw new IllegalStateException("Too many live dashboard feeds open for store " + channel.storeId);
+        }
+
+        List<FeedEvent> missed = lastEventId == null ? null : channel.since(lastEventId);
+        if (lastEventId == null) {
+            subscriber.offer(channel.control(READY));
+        } else if (missed == null || missed.size() >= properties.getQueueCapacity()) {
+            meterRegistry.counter("dashboard.feed.resyncs", "reason", "replay").increment();
+            subscriber.offer(channel.control(RESYNC));
+        } else {
+            // No id, the browser keeps lastEventId until the replay arrives
+            subscriber.offer(new FeedEvent(null, READY, channel.controlData()));
+            missed.forEach(subscriber::offer);
+        }
+        channel.subscribers.add(subscriber);
+        channel.idle = false;
+    }
+
+    /**
+     * Stores someone on this node is watching.
+     */
+    public Set<String> watchedStores() {
+        Set<String> stores = new LinkedHashSet<>();
+        channels.forEach((storeId, channel) -> {
+            if (!channel.subscribers.isEmpty()) {
+                stores.add(storeId);
+            }
+        });
+        return stores;
+    }
+
+    /**
+     * Publishes the deltas of one domain event to everyone watching the
+     * store. The deltas are only computed when someone is watching, and a
+     * source already published, e.g. a redelivered outbox event, is skipped.
+     */
+    public void publish(String storeId, String sourceId, Supplier<List<Delta>> deltas) {
+        Channel channel = channels.get(storeId);
+        if (channel == null || channel.seen(sourceId)) {
+            return;
+        }
+        if (channel.subscribers.isEmpty()) {
+            synchronized (channel) {
+                channel.skip(sourceId);
+            }
+            return;
+        }
+
+        List<FeedEvent> events = new ArrayList<>();
+        for (Delta delta : deltas.get()) {
+            events.add(new FeedEvent(null, delta.type, json(delta.data)));
+        }
+
+        synchronized (channel) {
+            if (!channel.remember(sourceId)) {
+                return;
+            }
+            for (FeedEvent event : events) {
+                FeedEvent numbered = channel.append(event);
+                channel.subscribers.forEach(subscriber -> subscriber.offer(numbered));
+                meterRegistry.counter("dashboard.feed.events", "type", event.type).increment();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.feed.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> {
+            channel.subscribers.forEach(Subscriber::ping);
+            retireIfIdle(channel);
+        });
+    }
+
+    // Empty at two heartbeats in a row
+    private void retireIfIdle(Channel channel) {
+        synchronized (channel) {
+            if (!channel.subscribers.isEmpty()) {
+                channel.idle = false;
+            } else if (!channel.idle) {
+                channel.idle = true;
+            } else {
+                channel.retired = true;
+                channels.remove(channel.storeId, channel);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private String json(Object data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize dashboard feed event", e);
+        }
+    }
+
+    private static final class FeedEvent {
+        final String id;
+        final String type;
+        final String data;
+        final long sequence;
+
+        FeedEvent(String id, String type, String data) {
+            this(id, type, data, 0);
+        }
+
+        FeedEvent(String id, String type, String data, long sequence) {
+            this.id = id;
+            this.type = type;
+            this.data = data;
+            this.sequence = sequence;
+        }
+
+        // A null type is a heartbeat comment
+        SseEmitter.SseEventBuilder toSse() {
+            if (type == null) {
+                return SseEmitter.event().comment("");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(type).data(data);
+            return id == null ? event : event.id(id);
+        }
+    }
+
+    // Guarded by its own monitor except for the subscriber list
+    private final class Channel {
+        final String storeId;
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        final ArrayDeque<FeedEvent> recent = new ArrayDeque<>();
+        final Set<String> sources = new LinkedHashSet<>();
+        long sequence;
+        boolean idle;
+        boolean retired;
+
+        Channel(String storeId) {
+            this.storeId = storeId;
+        }
+
+        FeedEvent append(FeedEvent event) {
+            sequence++;
+            FeedEvent numbered = new FeedEvent(node + "-" + sequence, event.type, event.data, sequence);
+            recent.addLast(numbered);
+            if (recent.size() > properties.getReplayBuffer()) {
+                recent.removeFirst();
+            }
+            return numbered;
+        }
+
+        // Nobody saw this event, so no id before it can be replayed
+        void skip(String sourceId) {
+            remember(sourceId);
+            sequence++;
+            recent.clear();
+        }
+
+        synchronized boolean seen(String sourceId) {
+            return sourceId != null && sources.contains(sourceId);
+        }
+
+        boolean remember(String sourceId) {
+            if (sourceId == null) {
+                return true;
+            }
+            if (!sources.add(sourceId)) {
+                return false;
+            }
+            if (sources.size() > properties.getReplayBuffer()) {
+                sources.remove(sources.iterator().next());
+            }
+            return true;
+        }
+
+        // Events after lastEventId, or null when some of them are gone
+        List<FeedEvent> since(String lastEventId) {
+            String prefix = node + "-";
+            if (!lastEventId.startsWith(prefix)) {
+                return null;
+            }
+            long last;
+            try {
+                last = Long.parseLong(lastEventId.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (last == sequence) {
+                return List.of();
+            }
+            if (last > sequence || recent.isEmpty() || recent.peekFirst().sequence > last + 1) {
+                return null;
+            }
+
+            List<FeedEvent> missed = new ArrayList<>();
+            for (FeedEvent event : recent) {
+                if (event.sequence > last) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+
+        FeedEvent control(String type) {
+            return new FeedEvent(node + "-" + sequence, type, controlData(), sequence);
+        }
+
+        String controlData() {
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("storeId", storeId);
+            data.put("lastEventId", node + "-" + sequence);
+            return json(data);
+        }
+    }
+
+    private final class Subscriber {
+        final Channel channel;
+        final SseEmitter emitter;
+        final BlockingQueue<FeedEvent> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Channel channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        }
+
+        // Called under the channel monitor, except for heartbeats
+        void offer(FeedEvent event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                logger.debug("Dashboard feed for store {} fell behind, asking it to resync", channel.storeId);
+                meterRegistry.counter("dashboard.feed.resyncs", "reason", "overflow").increment();
+                queue.clear();
+                queue.offer(channel.control(RESYNC));
+            }
+            schedule();
+        }
+
+        void ping() {
+            if (queue.isEmpty()) {
+                offer(HEARTBEAT);
+            }
+        }
+
+        void schedule() {
+            if (!closed.get() && draining.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this::drain);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        void drain() {
+            try {
+                FeedEvent event;
+                while (!closed.get() && (event = queue.poll()) != null) {
+                    SseEmitter.SseEventBuilder sse = event.toSse();
+                    if (READY.equals(event.type) || RESYNC.equals(event.type)) {
+                        sse.reconnectTime(properties.getReconnectDelay().toMillis());
+                    }
+                    emitter.send(sse);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Browser went away or the emitter already completed
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                channel.subscribers.remove(this);
+                queue.clear();
+                connections.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.server.service.analytics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.server.config.DashboardFeedProperties;
+import com.server.model.event.OutboxEvent;
+import com.server.model.order.Order;
+import com.server.model.order.OrderItem;
+import com.server.model.store.products.Product;
+import com.server.service.event.DomainEventConsumer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns each newly placed order into dashboard deltas: the order itself,
+ * the revenue it adds and the products it took below the low-stock
+ * threshold. The deltas are computed once, with one read of the order and
+ * one {@code $in} read of its products, and only while someone watches the
+ * store's feed.
+ *
+ * A crossing compares the current available quantity with what it was
+ * before this order's units were taken, so two orders settling close
+ * together can report the same product once or not at all; the next
+ * dashboard load shows the exact figures.
+ *
+ * Only one node dispatches each event, so every node also reads the
+ * recent order events of the stores watched on it from the outbox every
+ * {@code fanout-interval} and publishes those it has not seen.
+ */
+@Component
+@RequiredArgsConstructor
+public class DashboardFeedConsumer implements DomainEventConsumer {
+
+    private final DashboardFeed dashboardFeed;
+    private final MongoTemplate mongoTemplate;
+    private final DashboardFeedProperties properties;
+
+    // Start of the last fan-out read; only touched by the scheduler
+    private LocalDateTime fannedOutUntil;
+
+    @Override
+    public boolean accepts(OutboxEvent event) {
+        return event.is(OutboxEvent.ORDER) && event.getAction() == OutboxEvent.Action.CREATED
+            && event.getStoreId() != null;
+    }
+
+    @Override
+    public void consume(OutboxEvent event) {
+        dashboardFeed.publish(event.getStoreId(), event.getId(), () -> deltas(event));
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.feed.fanout-interval:PT1S}")
+    public void fanOut() {
+        Set<String> stores = dashboardFeed.watchedStores();
+        LocalDateTime now = LocalDateTime.now();
+        if (stores.isEmpty()) {
+            fannedOutUntil = null;
+            return;
+        }
+
+        // Nothing was watched before, so only events from now on
+        LocalDateTime since = fannedOutUntil == null ? now : fannedOutUntil.minus(properties.getFanoutOverlap());
+        Query query = new Query(Criteria.where("storeId").in(stores)
+            .and("createdAt").gt(since)
+            .and("aggregateType").is(OutboxEvent.ORDER)
+            .and("action").is(OutboxEvent.Action.CREATED))
+            .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        query.fields().include("aggregateType", "aggregateId", "storeId", "action", "createdAt");
+        for (OutboxEvent event : mongoTemplate.find(query, OutboxEvent.class)) {
+            consume(event);
+        }
+        fannedOutUntil = now;
+    }
+
+    private List<DashboardFeed.Delta> deltas(OutboxEvent event) {
+        Query query = new Query(Criteria.where("_id").is(event.getAggregateId()));
+        query.fields().include("customerId", "status", "totalAmount", "createdAt", "items.productId", "items.quantity");
+        Order order = mongoTemplate.findOne(query, Order.class);
+        if (order == null) {
+            return List.of();
+        }
+
+        Map<String, Integer> units = new LinkedHashMap<>();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                if (item.getProductId() != null) {
+                    units.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+                }
+            }
+        }
+
+        List<DashboardFeed.Delta> deltas = new ArrayList<>();
+
+        Map<String, Object> placed = new LinkedHashMap<>();
+        placed.put("orderId", order.getId());
+        placed.put("customerId", order.getCustomerId());
+        placed.put("status", order.getStatus());
+        placed.put("totalAmount", order.getTotalAmount());
+        placed.put("units", units.values().stream().mapToInt(Integer::intValue).sum());
+        placed.put("createdAt", order.getCreatedAt());
+        deltas.add(DashboardFeed.Delta.of(DashboardFeed.ORDER, placed));
+
+        Map<String, Object> revenue = new LinkedHashMap<>();
+        revenue.put("increment", order.getTotalAmount());
+        revenue.put("orders", 1);
+        revenue.put("at", order.getCreatedAt());
+        deltas.add(DashboardFeed.Delta.of(DashboardFeed.REVENUE, revenue));
+
+        deltas.addAll(lowStockCrossings(event.getStoreId(), units));
+        return deltas;
+    }
+
+    private List<DashboardFeed.Delta> lowStockCrossings(String storeId, Map<String, Integer> units) {
+        if (units.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = new Query(Criteria.where("_id").in(units.keySet()).and("storeId").is(storeId));
+        query.fields().include("name", "availableQuantity");
+
+        int threshold = properties.getLowStockThreshold();
+        List<DashboardFeed.Delta> crossings = new ArrayList<>();
+        for (Product product : mongoTemplate.find(query, Product.class)) {
+            Integer available = product.getAvailableQuantity();
+            Integer taken = units.get(product.getId());
+            if (available == null || taken == null || available >= threshold || available + taken < threshold) {
+                continue;
+            }
+
+            Map<String, Object> crossing = new LinkedHashMap<>();
+            crossing.put("productId", product.getId());
+            crossing.put("name", product.getName());
+            crossing.put("availableQuantity", available);
+            crossing.put("threshold", threshold);
+            crossings.add(DashboardFeed.Delta.of(DashboardFeed.LOW_STOCK, crossing));
+        }
+        return crossings;
+    }
+}
@@ -0,0 +1,124 @@
+package com.server.service.analytics;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.server.model.order.Order;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Builds a store's sales report by streaming its orders in the range
+ * through a cursor and adding each one to a fixed array of buckets.
+ * Only createdAt, totalAmount and status are read, and memory depends on
+ * the number of buckets rather than the number of orders.
+ *
+ * The result is columnar: {@code bucketStart}, {@code revenue} and
+ * {@code orders} are parallel arrays with one entry per bucket, including
+ * empty ones.
+ */
+@Service
+public class SalesReportService {
+
+    public enum Granularity {
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS),
+        WEEK(ChronoUnit.WEEKS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public static Granularity parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Granularity must be one of hour, day or week");
+            }
+        }
+
+        LocalDateTime truncate(LocalDateTime time) {
+            switch (this) {
+                case HOUR:
+                    return time.truncatedTo(ChronoUnit.HOURS);
+                case DAY:
+                    return time.truncatedTo(ChronoUnit.DAYS);
+                default:
+                    return time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            }
+        }
+    }
+
+    static final int MAX_BUCKETS = 10_000;
+    private static final int CURSOR_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public SalesReportService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public Map<String, Object> build(String storeId, LocalDateTime start, LocalDateTime end, Granularity granularity) {
+        LocalDateTime first = granularity.truncate(start);
+        long span = granularity.unit.between(first, granularity.truncate(end)) + 1;
+        if (span > MAX_BUCKETS) {
+            throw new IllegalArgumentException(
+                "Range has " + span + " " + granularity.name().toLowerCase(Locale.ROOT)
+                    + " buckets, the limit is " + MAX_BUCKETS);
+        }
+
+        int buckets = (int) span;
+        BigDecimal[] revenue = new BigDecimal[buckets];
+        Arrays.fill(revenue, BigDecimal.ZERO);
+        long[] orders = new long[buckets];
+        Map<String, Integer> orderStatusCount = new HashMap<>();
+
+        Query query = new Query(Criteria.where("storeId").is(storeId).and("createdAt").gte(start).lte(end))
+            .cursorBatchSize(CURSOR_BATCH_SIZE);
+        query.fields().include("createdAt", "totalAmount", "status");
+
+        try (Stream<Order> stream = mongoTemplate.stream(query, Order.class)) {
+            stream.forEach(order -> {
+                int index = (int) granularity.unit.between(first, granularity.truncate(order.getCreatedAt()));
+                orders[index]++;
+                if (order.getTotalAmount() != null) {
+                    revenue[index] = revenue[index].add(order.getTotalAmount());
+                }
+                if (order.getStatus() != null) {
+                    orderStatusCount.merge(order.getStatus(), 1, Integer::sum);
+                }
+            });
+        }
+
+        String[] bucketStart = new String[buckets];
+        for (int i = 0; i < buckets; i++) {
+            bucketStart[i] = first.plus(i, granularity.unit).toString();
+        }
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("granularity", granularity.name().toLowerCase(Locale.ROOT));
+        report.put("bucketStart", bucketStart);
+        report.put("revenue", revenue);
+        report.put("orders", orders);
+        report.put("totalRevenue", Arrays.stream(revenue).reduce(BigDecimal.ZERO, BigDecimal::add));
+        report.put("totalOrders", Arrays.stream(orders).sum());
+        report.put("pendingOrders", orderStatusCount.getOrDefault("pending", 0));
+        report.put("processingOrders", orderStatusCount.getOrDefault("processing", 0));
+        report.put("completedOrders", orderStatusCount.getOrDefault("completed", 0));
+        report.put("cancelledOrders", orderStatusCount.getOrDefault("cancelled", 0));
+        return report;
+    }
+}
@@ -0,0 +1,191 @@
+package com.server.service.analytics;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.model.analytics.SalesContribution;
+import com.server.model.analytics.SalesRollup;
+import com.server.model.order.Order;
+import com.server.service.analytics.SalesRollupService.BucketDelta;
+import com.server.service.cache.StoreCacheEvictor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilds sales rollups from the {@code orders} collection, one store at
+ * a time. Buckets are summed in memory and then written over the existing
+ * ones with replace upserts, after which buckets and contributions the
+ * rebuild did not produce are removed, so dashboards keep reading the old
+ * figures until the new ones are in place instead of zeros. Orders written
+ * to a store while it is being rebuilt may be missed, so run it when the
+ * store is quiet. Runs on startup when
+ * {@code analytics.rollups.backfill-on-startup=true}, and on a schedule for
+ * stores with contributions left pending by an interrupted rollup write.
+ */
+@Service
+public class SalesRollupBackfill implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupBackfill.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final SalesRollupService salesRollupService;
+    private final StoreCacheEvictor storeCacheEvictor;
+    private final boolean backfillOnStartup;
+    private final Duration recoveryDelay;
+
+    public SalesRollupBackfill(
+            MongoTemplate mongoTemplate,
+            SalesRollupService salesRollupService,
+            StoreCacheEvictor storeCacheEvictor,
+            @Value("${analytics.rollups.backfill-on-startup:false}") boolean backfillOnStartup,
+            @Value("${analytics.rollups.recovery-delay:PT1M}") Duration recoveryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.salesRollupService = salesRollupService;
+        this.storeCacheEvictor = storeCacheEvictor;
+        this.backfillOnStartup = backfillOnStartup;
+        this.recoveryDelay = recoveryDelay;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            rebuildAll();
+        }
+    }
+
+    /**
+     * Rebuilds stores whose contributions stayed pending for longer than a
+     * rollup write takes, which means their buckets may be off by one order.
+     */
+    @Scheduled(fixedDelayString = "${analytics.rollups.recovery-interval:PT1M}")
+    public void rebuildInterrupted() {
+        Query stale = new Query(Criteria.where("pendingSince").lt(LocalDateTime.now().minus(recoveryDelay)));
+        for (String storeId : mongoTemplate.findDistinct(stale, "storeId", SalesContribution.class, String.class)) {
+            rebuild(storeId);
+        }
+    }
+
+    public long rebuildAll() {
+        List<String> storeIds = mongoTemplate.findDistinct(new Query(), "storeId", Order.class, String.class);
+
+        long orders = 0;
+        for (String storeId : storeIds) {
+            orders += rebuildStore(storeId);
+        }
+
+        // Stores whose orders are all gone
+        Criteria orphaned = Criteria.where("storeId").nin(storeIds);
+        for (String storeId : mongoTemplate.findDistinct(
+                new Query(orphaned), "storeId", SalesRollup.class, String.class)) {
+            storeCacheEvictor.evictStore(storeId);
+        }
+        mongoTemplate.remove(new Query(orphaned), SalesRollup.class);
+        mongoTemplate.remove(new Query(orphaned), SalesContribution.class);
+
+        logger.info("Rebuilt sales rollups from {} orders", orders);
+        return orders;
+    }
+
+    public long rebuild(String storeId) {
+        long orders = rebuildStore(storeId);
+        logger.info("Rebuilt sales rollups for store {} from {} orders", storeId, orders);
+        return orders;
+    }
+
+    private long rebuildStore(String storeId) {
+        Map<String, BucketDelta> deltas = new LinkedHashMap<>();
+        Set<String> orderIds = new HashSet<>();
+        List<SalesContribution> batch = new ArrayList<>(BATCH_SIZE);
+
+        try (Stream<Order> stream = mongoTemplate.stream(
+                new Query(Criteria.where("storeId").is(storeId)), Order.class)) {
+            for (Order order : (Iterable<Order>) stream::iterator) {
+                SalesContribution contribution = salesRollupService.toContribution(order);
+                if (contribution == null) {
+                    continue;
+                }
+                SalesRollupService.add(deltas, contribution, 1);
+                orderIds.add(contribution.getOrderId());
+                batch.add(contribution);
+
+                if (batch.size() == BATCH_SIZE) {
+                    replace(batch, SalesContribution.class, SalesContribution::getOrderId);
+                    batch.clear();
+                }
+            }
+        }
+        replace(batch, SalesContribution.class, SalesContribution::getOrderId);
+
+        List<SalesRollup> buckets = new ArrayList<>(deltas.size());
+        for (BucketDelta delta : deltas.values()) {
+            buckets.add(delta.toRollup());
+        }
+        for (int from = 0; from < buckets.size(); from += BATCH_SIZE) {
+            replace(buckets.subList(from, Math.min(from + BATCH_SIZE, buckets.size())),
+                SalesRollup.class, SalesRollup::getId);
+        }
+
+        removeStale(storeId, SalesRollup.class, deltas.keySet());
+        removeStale(storeId, SalesContribution.class, orderIds);
+        storeCacheEvictor.evictStore(storeId);
+        return orderIds.size();
+    }
+
+    private <T> void replace(List<T> documents, Class<T> type, Function<T, String> id) {
+        if (documents.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        for (T document : documents) {
+            bulk.replaceOne(new Query(Criteria.where("_id").is(id.apply(document))), document,
+                FindAndReplaceOptions.options().upsert());
+        }
+        bulk.execute();
+    }
+
+    // Ids of the store's documents the rebuild did not write, removed in batches
+    private void removeStale(String storeId, Class<?> type, Set<String> keep) {
+        Query query = new Query(Criteria.where("storeId").is(storeId));
+        query.fields().include("_id");
+
+        List<String> stale = new ArrayList<>();
+        try (Stream<Document> stream = mongoTemplate.stream(query, Document.class,
+                mongoTemplate.getCollectionName(type))) {
+            for (Document document : (Iterable<Document>) stream::iterator) {
+                String id = document.get("_id").toString();
+                if (keep.contains(id)) {
+                    continue;
+                }
+                stale.add(id);
+                if (stale.size() == BATCH_SIZE) {
+                    mongoTemplate.remove(new Query(Criteria.where("_id").in(stale)), type);
+                    stale.clear();
+                }
+            }
+        }
+        if (!stale.isEmpty()) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(stale)), type);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.server.service.analytics;
+
+import org.springframework.core.Ordered;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.server.model.event.OutboxEvent;
+import com.server.model.order.Order;
+import com.server.service.event.DomainEventConsumer;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Feeds order events into the sales rollups. The order is read back rather
+ * than taken from the event, so a late or repeated event applies the
+ * current state and an order deleted in the meantime is retracted. Ordered
+ * ahead of the cache eviction consumer so evicted analytics are recomputed
+ * from buckets that already include the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollupEventConsumer implements DomainEventConsumer, Ordered {
+
+    private final SalesRollupService salesRollupService;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public boolean accepts(OutboxEvent event) {
+        return event.is(OutboxEvent.ORDER) && event.getAggregateId() != null;
+    }
+
+    @Override
+    public void consume(OutboxEvent event) {
+        Order order = event.getAction() == OutboxEvent.Action.DELETED
+            ? null
+            : mongoTemplate.findById(event.getAggregateId(), Order.class);
+        if (order == null) {
+            salesRollupService.retract(event.getAggregateId());
+        } else {
+            salesRollupService.apply(order);
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.server.service.analytics;
+
+import org.bson.types.Decimal128;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.model.analytics.SalesContribution;
+import com.server.model.analytics.SalesRollup;
+import com.server.model.analytics.SalesRollup.Granularity;
+import com.server.model.analytics.SalesTotals;
+import com.server.model.order.Order;
+import com.server.model.order.OrderItem;
+import com.server.repository.analytics.SalesRollupRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps per-store hourly, daily and all-time sales buckets up to date as
+ * orders are written, so analytics read O(buckets) instead of aggregating
+ * the whole order history.
+ *
+ * Each order's last contribution is stored in
+ * {@code sales_rollup_contributions}; a re-save applies the difference and
+ * a delete subtracts it. All buckets touched by one order are written in a
+ * single unordered bulk of $inc upserts.
+ *
+ * The contribution is marked pending before the buckets are written and
+ * swapped for the new one after, guarded by its version. If the write
+ * fails or another writer gets in between, it stays pending and
+ * {@link SalesRollupBackfill} rebuilds the store, so a delta is never lost
+ * or counted twice. Orders of a pending contribution are left to that
+ * rebuild.
+ */
+@Service
+public class SalesRollupService {
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    static final String UNCATEGORIZED = "uncategorized";
+
+    private static final Granularity[] GRANULARITIES = Granularity.values();
+
+    private final MongoTemplate mongoTemplate;
+    private final SalesRollupRepository salesRollupRepository;
+
+    public SalesRollupService(MongoTemplate mongoTemplate, SalesRollupRepository salesRollupRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.salesRollupRepository = salesRollupRepository;
+    }
+
+    public void apply(Order order) {
+        SalesContribution current = toContribution(order);
+        if (current == null) {
+            return;
+        }
+
+        SalesContribution previous = mongoTemplate.findById(current.getOrderId(), SalesContribution.class);
+        if (isPending(previous)) {
+            return;
+        }
+        if (previous != null) {
+            current.setVersion(previous.getVersion());
+            if (current.equals(previous)) {
+                return;
+            }
+        }
+        if (!markPending(previous, current)) {
+            return;
+        }
+
+        Map<String, BucketDelta> deltas = new LinkedHashMap<>();
+        add(deltas, previous, -1);
+        add(deltas, current, 1);
+        write(deltas.values());
+
+        Long version = previous == null ? null : previous.getVersion();
+        current.setVersion(version == null ? 1 : version + 1);
+        if (mongoTemplate.replace(sameVersion(current.getOrderId(), version), current).getMatchedCount() == 0) {
+            markForRebuild(current.getOrderId(), current.getStoreId());
+        }
+    }
+
+    public void retract(String orderId) {
+        SalesContribution previous = mongoTemplate.findById(orderId, SalesContribution.class);
+        if (previous == null || isPending(previous) || !markPending(previous, previous)) {
+            return;
+        }
+
+        Map<String, BucketDelta> deltas = new LinkedHashMap<>();
+        add(deltas, previous, -1);
+        write(deltas.values());
+
+        if (mongoTemplate.remove(sameVersion(orderId, previous.getVersion()), SalesContribution.class)
+                .getDeletedCount() == 0) {
+            markForRebuild(orderId, previous.getStoreId());
+        }
+    }
+
+    public List<SalesRollup> findBuckets(String storeId, Granularity granularity, LocalDateTime from, LocalDateTime to) {
+        return salesRollupRepository.findBuckets(
+            storeId, granularity, truncate(from, granularity), to, Sort.by("bucketStart"));
+    }
+
+    public SalesRollup getTotals(String storeId) {
+        return salesRollupRepository.findById(SalesRollup.bucketId(storeId, Granularity.TOTAL, null))
+            .orElseGet(() -> {
+                SalesRollup empty = new SalesRollup();
+                empty.setStoreId(storeId);
+                empty.setGranularity(Granularity.TOTAL);
+                return empty;
+            });
+    }
+
+    /**
+     * Builds the contribution of an order, or null when it cannot be bucketed.
+     * Revenue is the order total when set, otherwise the sum of its items.
+     */
+    public SalesContribution toContribution(Order order) {
+        if (order.getId() == null || order.getStoreId() == null || order.getCreatedAt() == null) {
+            logger.debug("Skipping rollup of order {} without store or creation time", order.getId());
+            return null;
+        }
+
+        SalesContribution contribution = new SalesContribution();
+        contribution.setOrderId(order.getId());
+        contribution.setStoreId(order.getStoreId());
+        contribution.setCreatedAt(order.getCreatedAt());
+
+        BigDecimal itemsRevenue = BigDecimal.ZERO;
+        long units = 0;
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                BigDecimal revenue = itemRevenue(item);
+                itemsRevenue = itemsRevenue.add(revenue);
+                units += item.getQuantity();
+
+                String category = item.getCategory() == null || item.getCategory().isBlank()
+                    ? UNCATEGORIZED : item.getCategory();
+                addItem(contribution.getCategories(), encodeKey(category), revenue, item.getQuantity());
+                if (item.getProductId() != null) {
+                    addItem(contribution.getProducts(), encodeKey(item.getProductId()), revenue, item.getQuantity());
+                }
+            }
+        }
+
+        contribution.setRevenue(order.getTotalAmount() != null ? order.getTotalAmount() : itemsRevenue);
+        contribution.setUnits(units);
+        return contribution;
+    }
+
+    private boolean isPending(SalesContribution contribution) {
+        if (contribution == null || contribution.getPendingSince() == null) {
+            return false;
+        }
+        logger.debug("Leaving order {} to the rollup rebuild of store {}",
+            contribution.getOrderId(), contribution.getStoreId());
+        return true;
+    }
+
+    /**
+     * Marks the order's contribution pending, provided it is still the
+     * snapshot that was read. A first contribution is marked by inserting an
+     * empty placeholder. Returns false, after flagging the store for a
+     * rebuild, when another writer got there first.
+     */
+    private boolean markPending(SalesContribution previous, SalesContribution current) {
+        LocalDateTime now = LocalDateTime.now();
+        if (previous == null) {
+            SalesContribution placeholder = new SalesContribution();
+            placeholder.setOrderId(current.getOrderId());
+            placeholder.setStoreId(current.getStoreId());
+            placeholder.setPendingSince(now);
+            try {
+                mongoTemplate.insert(placeholder);
+                return true;
+            } catch (DuplicateKeyException e) {
+                markForRebuild(current.getOrderId(), current.getStoreId());
+                return false;
+            }
+        }
+
+        Query unchanged = sameVersion(previous.getOrderId(), previous.getVersion())
+            .addCriteria(Criteria.where("pendingSince").exists(false));
+        if (mongoTemplate.updateFirst(unchanged, new Update().set("pendingSince", now), SalesContribution.class)
+                .getModifiedCount() == 1) {
+            return true;
+        }
+        markForRebuild(previous.getOrderId(), previous.getStoreId());
+        return false;
+    }
+
+    // Bumps the version too, so a writer still in flight cannot clear the mark
+    private void markForRebuild(String orderId, String storeId) {
+        logger.warn("Concurrent rollup writes for order {}; store {} will be rebuilt", orderId, storeId);
+        mongoTemplate.upsert(
+            new Query(Criteria.where("_id").is(orderId)),
+            new Update()
+                .set("pendingSince", LocalDateTime.now())
+                .inc("version", 1)
+                .setOnInsert("storeId", storeId),
+            SalesContribution.class);
+    }
+
+    // A null version also matches contributions written before versions were kept
+    private static Query sameVersion(String orderId, Long version) {
+        return new Query(Criteria.where("_id").is(orderId).and("version").is(version));
+    }
+
+    void write(Collection<BucketDelta> deltas) {
+        BulkOperations bulk = null;
+        for (BucketDelta delta : deltas) {
+            if (delta.isEmpty()) {
+                continue;
+            }
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SalesRollup.class);
+            }
+            bulk.upsert(new Query(Criteria.where("_id").is(delta.id)), delta.toUpdate());
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+    }
+
+    static void add(Map<String, BucketDelta> deltas, SalesContribution contribution, int sign) {
+        if (contribution == null) {
+            return;
+        }
+
+        for (Granularity granularity : GRANULARITIES) {
+            LocalDateTime bucketStart = truncate(contribution.getCreatedAt(), granularity);
+            String id = SalesRollup.bucketId(contribution.getStoreId(), granularity, bucketStart);
+            BucketDelta delta = deltas.computeIfAbsent(id,
+                key -> new BucketDelta(key, contribution.getStoreId(), granularity, bucketStart));
+
+            delta.addDecimal("revenue", contribution.getRevenue(), sign);
+            delta.addCount("orderCount", sign);
+            delta.addCount("units", sign * contribution.getUnits());
+            contribution.getCategories().forEach((key, totals) -> delta.addTotals("categories." + key, totals, sign));
+            contribution.getProducts().forEach((key, totals) -> delta.addTotals("products." + key, totals, sign));
+        }
+    }
+
+    static LocalDateTime truncate(LocalDateTime time, Granularity granularity) {
+        if (time == null) {
+            return null;
+        }
+        switch (granularity) {
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return null;
+        }
+    }
+
+    // Mongo field names cannot contain '.' or start with '$'
+    public static String encodeKey(String key) {
+        return key.replace("%", "%25").replace(".", "%2E").replace("$", "%24");
+    }
+
+    public static String decodeKey(String key) {
+        return key.replace("%24", "$").replace("%2E", ".").replace("%25", "%");
+    }
+
+    private static BigDecimal itemRevenue(OrderItem item) {
+        if (item.getTotalPrice() != null) {
+            return item.getTotalPrice();
+        }
+        if (item.getPrice() != null) {
+            return item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private static void addItem(Map<String, SalesTotals> totals, String key, BigDecimal revenue, int quantity) {
+        SalesTotals entry = totals.computeIfAbsent(key, k -> new SalesTotals(BigDecimal.ZERO, 0, 1));
+        entry.setRevenue(entry.getRevenue().add(revenue));
+        entry.setUnits(entry.getUnits() + quantity);
+    }
+
+    /**
+     * Net increments for one bucket. Increments to the same field from the
+     * old and new contribution are summed here, since {@link Update#inc}
+     * keeps only the last value per field.
+     */
+    static class BucketDelta {
+        final String id;
+        final String storeId;
+        final Granularity granularity;
+        final LocalDateTime bucketStart;
+        final Map<String, BigDecimal> decimals = new HashMap<>();
+        final Map<String, Long> counts = new HashMap<>();
+
+        BucketDelta(String id, String storeId, Granularity granularity, LocalDateTime bucketStart) {
+            this.id = id;
+            this.storeId = storeId;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+        }
+
+        void addDecimal(String field, BigDecimal value, int sign) {
+            if (value != null) {
+                decimals.merge(field, sign < 0 ? value.negate() : value, BigDecimal::add);
+            }
+        }
+
+        void addCount(String field, long value) {
+            counts.merge(field, value, Long::sum);
+        }
+
+        void addTotals(String prefix, SalesTotals totals, int sign) {
+            addDecimal(prefix + ".revenue", totals.getRevenue(), sign);
+            addCount(prefix + ".units", sign * totals.getUnits());
+            addCount(prefix + ".orderCount", sign * totals.getOrderCount());
+        }
+
+        boolean isEmpty() {
+            return decimals.values().stream().allMatch(value -> value.signum() == 0)
+                && counts.values().stream().allMatch(value -> value == 0);
+        }
+
+        /**
+         * The bucket as a whole document, for rebuilds where every delta
+         * was added with a positive sign and so holds absolute totals.
+         */
+        SalesRollup toRollup() {
+            SalesRollup rollup = new SalesRollup();
+            rollup.setId(id);
+            rollup.setStoreId(storeId);
+            rollup.setGranularity(granularity);
+            rollup.setBucketStart(bucketStart);
+            decimals.forEach((field, value) -> {
+                String[] path = field.split("\\.");
+                if (path.length == 1) {
+                    rollup.setRevenue(value);
+                } else {
+                    totals(rollup, path).setRevenue(value);
+                }
+            });
+            counts.forEach((field, value) -> {
+                String[] path = field.split("\\.");
+                String metric = path[path.length - 1];
+                if (path.length == 1) {
+                    if ("orderCount".equals(metric)) {
+                        rollup.setOrderCount(value);
+                    } else {
+                        rollup.setUnits(value);
+                    }
+                } else if ("orderCount".equals(metric)) {
+                    totals(rollup, path).setOrderCount(value);
+                } else {
+                    totals(rollup, path).setUnits(value);
+                }
+            });
+            return rollup;
+        }
+
+        // Keys are encoded, so a path is always <categories|products>.<key>.<metric>
+        private static SalesTotals totals(SalesRollup rollup, String[] path) {
+            Map<String, SalesTotals> entries = "categories".equals(path[0])
+                ? rollup.getCategories() : rollup.getProducts();
+            return entries.computeIfAbsent(path[1], key -> new SalesTotals());
+        }
+
+        Update toUpdate() {
+            Update update = new Update()
+                .setOnInsert("storeId", storeId)
+                .setOnInsert("granularity", granularity.name())
+                .setOnInsert("bucketStart", bucketStart);
+            decimals.forEach((field, value) -> {
+                if (value.signum() != 0) {
+                    update.inc(field, new Decimal128(value));
+                }
+            });
+            counts.forEach((field, value) -> {
+                if (value != 0) {
+                    update.inc(field, value);
+                }
+            });
+            return update;
+        }
+    }
+}
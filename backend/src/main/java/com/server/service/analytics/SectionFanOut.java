@@ -0,0 +1,143 @@
+package com.server.service.analytics;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.config.AnalyticsFanOutProperties;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent analytics sections and merges their entries into one
+ * result. With {@code analytics.fan-out.enabled} the sections run
+ * concurrently on the analytics executor, so the total wait is the slowest
+ * section rather than the sum; otherwise they run in order on the caller.
+ *
+ * A section that fails, misses {@code analytics.fan-out.section-timeout}
+ * or is rejected by a saturated executor contributes nothing and the remaining sections are still returned. The
+ * outcome and duration of every section is reported under {@code meta},
+ * with {@code meta.complete} false when any section was left out.
+ */
+@Component
+public class SectionFanOut {
+    private static final Logger logger = LoggerFactory.getLogger(SectionFanOut.class);
+
+    public static final String META = "meta";
+
+    private final ExecutorService executor;
+    private final AnalyticsFanOutProperties properties;
+
+    public SectionFanOut(
+            @Qualifier("analyticsExecutor") ExecutorService executor,
+            AnalyticsFanOutProperties properties) {
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    public Map<String, Object> run(String storeId, Map<String, Supplier<Map<String, Object>>> sections) {
+        long started = System.nanoTime();
+        Map<String, Object> result = new HashMap<>();
+        Map<String, Map<String, Object>> timings = new LinkedHashMap<>();
+
+        if (properties.isEnabled()) {
+            Map<String, Future<SectionResult>> futures = new LinkedHashMap<>();
+            sections.forEach((name, section) -> {
+                try {
+                    futures.put(name, executor.submit(() -> SectionResult.of(section)));
+                } catch (RejectedExecutionException e) {
+                    futures.put(name, null);
+                }
+            });
+
+            long deadline = started + properties.getSectionTimeout().toNanos();
+            futures.forEach((name, future) -> {
+                SectionResult outcome = future == null
+                    ? rejected(storeId, name)
+                    : await(storeId, name, future, deadline);
+                collect(result, timings, name, outcome);
+            });
+        } else {
+            sections.forEach((name, section) -> {
+                SectionResult outcome;
+                try {
+                    outcome = SectionResult.of(section);
+                } catch (Exception e) {
+                    logger.error("Error computing {} analytics for store {}: {}", name, storeId, e.getMessage());
+                    outcome = SectionResult.failed("error", 0);
+                }
+                collect(result, timings, name, outcome);
+            });
+        }
+
+        Map<String, Object> meta = new HashMap<>();
+        meta.put("mode", properties.isEnabled() ? "parallel" : "sequential");
+        meta.put("totalMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        meta.put("sections", timings);
+        meta.put("complete", timings.values().stream().allMatch(timing -> "ok".equals(timing.get("status"))));
+        result.put(META, meta);
+        return result;
+    }
+
+    private SectionResult await(String storeId, String name, Future<SectionResult> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("{} analytics for store {} timed out after {}", name, storeId, properties.getSectionTimeout());
+            return SectionResult.failed("timeout", properties.getSectionTimeout().toMillis());
+        } catch (ExecutionException e) {
+            logger.error("Error computing {} analytics for store {}: {}", name, storeId, e.getCause().getMessage());
+            return SectionResult.failed("error", 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return SectionResult.failed("interrupted", 0);
+        }
+    }
+
+    private SectionResult rejected(String storeId, String name) {
+        logger.warn("{} analytics for store {} skipped, analytics executor is saturated", name, storeId);
+        return SectionResult.failed("rejected", 0);
+    }
+
+    private static void collect(Map<String, Object> result, Map<String, Map<String, Object>> timings,
+            String name, SectionResult outcome) {
+        if (outcome.entries != null) {
+            result.putAll(outcome.entries);
+        }
+        timings.put(name, Map.of("status", outcome.status, "durationMs", outcome.durationMs));
+    }
+
+    private static final class SectionResult {
+        final Map<String, Object> entries;
+        final String status;
+        final long durationMs;
+
+        private SectionResult(Map<String, Object> entries, String status, long durationMs) {
+            this.entries = entries;
+            this.status = status;
+            this.durationMs = durationMs;
+        }
+
+        static SectionResult of(Supplier<Map<String, Object>> section) {
+            long started = System.nanoTime();
+            Map<String, Object> entries = section.get();
+            return new SectionResult(entries, "ok", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        }
+
+        static SectionResult failed(String status, long durationMs) {
+            return new SectionResult(null, status, durationMs);
+        }
+    }
+}
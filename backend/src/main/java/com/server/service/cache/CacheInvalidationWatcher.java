@@ -0,0 +1,354 @@
+package com.server.service.cache;
+
+import jakarta.annotation.PreDestroy;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.server.config.CacheInvalidationProperties;
+import com.server.model.cache.CacheInvalidationCheckpoint;
+import com.server.service.store.StoreIdentityResolver;
+import com.server.service.store.StoreReadinessService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this node's caches in step with writes made by any node. A single
+ * change stream on the database watches the collections in
+ * {@link #COLLECTIONS} and every change evicts the affected store from the
+ * local caches: the analytics tiers, store identities and readiness checks.
+ * The shared analytics tier was already evicted by the writing node.
+ *
+ * The resume token is saved every {@code checkpoint-interval} under this
+ * node's id, so a restart or a dropped connection picks up where the stream
+ * left off. When the token is too old to resume, everything is evicted and
+ * the stream starts from now.
+ *
+ * Deployments without change streams, such as a standalone local server,
+ * fall back to polling {@code updatedAt} on the same collections. Polling
+ * cannot see deletes, and writes that do not set {@code updatedAt} are
+ * missed; the cache TTLs bound how long those stay stale.
+ */
+@Component
+public class CacheInvalidationWatcher {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationWatcher.class);
+
+    static final String STORES = "stores";
+    static final String OWNERS = "storeOwners";
+    // Every store-owned collection whose writes the local caches reflect
+    static final List<String> COLLECTIONS = List.of(
+        STORES, OWNERS, "products", "prices", "categories", "billboards", "colors", "sizes");
+
+    private static final int CHANGE_STREAM_UNSUPPORTED = 40573;
+    // InvalidResumeToken, ChangeStreamFatalError, ChangeStreamHistoryLost
+    private static final Set<Integer> HISTORY_LOST = Set.of(260, 280, 286);
+    private static final int POLL_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final StoreCacheEvictor storeCacheEvictor;
+    private final StoreIdentityResolver storeIdentityResolver;
+    private final StoreReadinessService storeReadinessService;
+    private final CacheInvalidationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+
+    private volatile boolean running;
+    private Thread thread;
+    private BsonDocument resumeToken;
+    private Instant lastCheckpoint = Instant.EPOCH;
+    private final Map<String, Date> polledUntil = new HashMap<>();
+
+    public CacheInvalidationWatcher(
+            MongoTemplate mongoTemplate,
+            StoreCacheEvictor storeCacheEvictor,
+            StoreIdentityResolver storeIdentityResolver,
+            StoreReadinessService storeReadinessService,
+            CacheInvalidationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.storeCacheEvictor = storeCacheEvictor;
+        this.storeIdentityResolver = storeIdentityResolver;
+        this.storeReadinessService = storeReadinessService;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = properties.getNodeId() != null && !properties.getNodeId().isBlank()
+            ? properties.getNodeId()
+            : hostName();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if ("off".equalsIgnoreCase(properties.getMode())) {
+            logger.info("Cross-node cache invalidation is off");
+            return;
+        }
+
+        running = true;
+        thread = new Thread(this::run, "cache-invalidation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        boolean streams = !"polling".equalsIgnoreCase(properties.getMode());
+        if (!streams) {
+            startPolling();
+        }
+
+        while (running) {
+            try {
+                if (streams) {
+                    watch();
+                } else {
+                    while (poll()) {
+                        // Full batch, more changes may be waiting
+                    }
+                    Thread.sleep(properties.getPollInterval().toMillis());
+                }
+            } catch (MongoCommandException e) {
+                if (streams && e.getErrorCode() == CHANGE_STREAM_UNSUPPORTED
+                        && "auto".equalsIgnoreCase(properties.getMode())) {
+                    logger.warn("Change streams are not available, polling updatedAt every {}",
+                        properties.getPollInterval());
+                    streams = false;
+                    startPolling();
+                } else if (HISTORY_LOST.contains(e.getErrorCode())) {
+                    logger.warn("Cache invalidation cannot resume ({}), evicting all cached stores", e.getErrorCodeName());
+                    resumeToken = null;
+                    mongoTemplate.remove(new Query(Criteria.where("_id").is(nodeId)), CacheInvalidationCheckpoint.class);
+                    evictEverything();
+                } else if (!pause(e)) {
+                    return;
+                }
+            } catch (MongoException e) {
+                if (!pause(e)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                if (!pause(e)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void watch() {
+        if (resumeToken == null) {
+            resumeToken = loadCheckpoint();
+        }
+
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+            .watch(List.of(
+                Aggregates.match(Filters.in("ns.coll", COLLECTIONS)),
+                Aggregates.project(Projections.include(
+                    "operationType", "ns", "documentKey", "fullDocument.storeId", "fullDocument.email"))))
+            .fullDocument(FullDocument.UPDATE_LOOKUP)
+            .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (resumeToken != null) {
+            stream = stream.resumeAfter(resumeToken);
+        }
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            logger.info("Watching {} for cache invalidation{}", COLLECTIONS, resumeToken != null ? " (resumed)" : "");
+            while (running) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    handle(change);
+                }
+                // Advances on idle batches too, so a quiet stream still checkpoints
+                BsonDocument token = cursor.getResumeToken();
+                if (token != null) {
+                    resumeToken = token;
+                }
+                checkpoint();
+            }
+        }
+    }
+
+    private void handle(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null) {
+            // Database dropped or renamed; the stream is invalidated and reopened
+            evictEverything();
+            return;
+        }
+
+        Document full = change.getFullDocument();
+        invalidate(change.getNamespace().getCollectionName(),
+            idOf(change.getDocumentKey()),
+            full == null ? null : string(full.get("storeId")),
+            full == null ? null : string(full.get("email")));
+    }
+
+    /**
+     * Evicts what a change to one document of the collection can make
+     * stale. A null store, e.g. for a delete, evicts every store.
+     */
+    void invalidate(String collection, String documentId, String storeId, String email) {
+        meterRegistry.counter("cache.invalidations", "collection", collection).increment();
+
+        if (STORES.equals(collection)) {
+            if (documentId == null) {
+                evictEverything();
+                return;
+            }
+            // Caches key stores by _id or by business storeId
+            for (String id : new String[] { documentId, storeId }) {
+                if (id != null) {
+                    storeIdentityResolver.evict(id);
+                    storeReadinessService.evict(id);
+                    storeCacheEvictor.evictStoreLocally(id);
+                }
+            }
+        } else if (OWNERS.equals(collection)) {
+            if (email == null) {
+                storeIdentityResolver.evictAll();
+            } else {
+                storeIdentityResolver.evictOwner(email);
+            }
+        } else if (storeId == null) {
+            storeReadinessService.evictAll();
+            storeCacheEvictor.evictAllLocally();
+        } else {
+            storeReadinessService.evict(storeId);
+            storeCacheEvictor.evictStoreLocally(storeId);
+        }
+    }
+
+    private void startPolling() {
+        Date now = new Date();
+        COLLECTIONS.forEach(collection -> polledUntil.put(collection, now));
+    }
+
+    // Returns true when a collection filled a whole batch
+    private boolean poll() {
+        boolean more = false;
+        for (String collection : COLLECTIONS) {
+            Query changed = new Query(Criteria.where("updatedAt").gt(polledUntil.get(collection)))
+                .with(Sort.by(Sort.Direction.ASC, "updatedAt"))
+                .limit(POLL_BATCH_SIZE);
+            changed.fields().include("storeId", "email", "updatedAt");
+
+            List<Document> documents = mongoTemplate.find(changed, Document.class, collection);
+            for (Document document : documents) {
+                invalidate(collection, string(document.get("_id")), string(document.get("storeId")),
+                    string(document.get("email")));
+                if (document.get("updatedAt") instanceof Date) {
+                    polledUntil.put(collection, (Date) document.get("updatedAt"));
+                }
+            }
+            more |= documents.size() == POLL_BATCH_SIZE;
+        }
+        return more;
+    }
+
+    private void checkpoint() {
+        Instant now = Instant.now();
+        if (resumeToken == null || now.isBefore(lastCheckpoint.plus(properties.getCheckpointInterval()))) {
+            return;
+        }
+
+        mongoTemplate.upsert(
+            new Query(Criteria.where("_id").is(nodeId)),
+            new Update()
+                .set("resumeToken", resumeToken.getString("_data").getValue())
+                .set("updatedAt", LocalDateTime.now()),
+            CacheInvalidationCheckpoint.class);
+        lastCheckpoint = now;
+    }
+
+    private BsonDocument loadCheckpoint() {
+        CacheInvalidationCheckpoint checkpoint = mongoTemplate.findById(nodeId, CacheInvalidationCheckpoint.class);
+        if (checkpoint == null || checkpoint.getResumeToken() == null) {
+            return null;
+        }
+        return new BsonDocument("_data", new BsonString(checkpoint.getResumeToken()));
+    }
+
+    private void evictEverything() {
+        storeIdentityResolver.evictAll();
+        storeReadinessService.evictAll();
+        storeCacheEvictor.evictAllLocally();
+    }
+
+    // Logs and waits before the stream is reopened; false when stopping
+    private boolean pause(Exception e) {
+        if (!running) {
+            return false;
+        }
+        logger.warn("Cache invalidation stream failed, retrying in {}: {}", properties.getRetryDelay(), e.getMessage());
+        try {
+            Thread.sleep(properties.getRetryDelay().toMillis());
+            return true;
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static String idOf(BsonDocument documentKey) {
+        if (documentKey == null || !documentKey.containsKey("_id")) {
+            return null;
+        }
+        BsonValue id = documentKey.get("_id");
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    private static String string(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.server.service.cache;
+
+import java.util.List;
+
+/**
+ * Cache names used with {@code @Cacheable}. Store-scoped caches must use
+ * keys of the form {@code storeId} or {@code storeId:...} so that
+ * {@link StoreCacheEvictor} can drop every entry of one store.
+ */
+public final class CacheNames {
+    public static final String STORE_STATS = "storeStats";
+    public static final String SALES_REPORT = "salesReport";
+    public static final String PRODUCT_STOCK = "productStock";
+    public static final String SALES_TREND = "salesTrend";
+    public static final String CATEGORY_ANALYTICS = "categoryAnalytics";
+
+    public static final List<String> STORE_SCOPED = List.of(
+        STORE_STATS, SALES_REPORT, PRODUCT_STOCK, SALES_TREND, CATEGORY_ANALYTICS);
+
+    private CacheNames() {
+    }
+}
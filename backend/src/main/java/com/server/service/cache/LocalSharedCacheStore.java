@@ -0,0 +1,90 @@
+package com.server.service.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * In-memory {@link SharedCacheStore} with per-entry TTL. It behaves like a
+ * shared cache for a single node and lets {@code app.cache.type=shared} run
+ * without external infrastructure. Each cache is a Caffeine cache bounded by
+ * {@code app.cache.shared-maximum-size} and expiring after
+ * {@code app.cache.shared-ttl}, so entries that are never read again are
+ * still dropped.
+ */
+public class LocalSharedCacheStore implements SharedCacheStore {
+
+    private static final class Entry {
+        final Object value;
+        final long expiresAt;
+
+        Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, Cache<Object, Entry>> caches = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final long maximumSize;
+
+    public LocalSharedCacheStore(Duration ttl, long maximumSize) {
+        this.ttl = ttl;
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public Object get(String cacheName, Object key) {
+        Cache<Object, Entry> cache = caches.get(cacheName);
+        if (cache == null) {
+            return null;
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        // A shorter TTL than the cache-wide one is enforced here
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    public void put(String cacheName, Object key, Object value, Duration ttl) {
+        caches.computeIfAbsent(cacheName, name -> newCache())
+            .put(key, new Entry(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    @Override
+    public void evict(String cacheName, Object key) {
+        Cache<Object, Entry> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    @Override
+    public void evictByPrefix(String cacheName, String keyPrefix) {
+        Cache<Object, Entry> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.asMap().keySet().removeIf(key -> key.toString().startsWith(keyPrefix));
+        }
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        caches.remove(cacheName);
+    }
+
+    private Cache<Object, Entry> newCache() {
+        return Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(ttl)
+            .build();
+    }
+}
@@ -0,0 +1,16 @@
+package com.server.service.cache;
+
+import java.time.Duration;
+
+/**
+ * Second-level cache shared between backend nodes (e.g. Redis or Memcached).
+ * {@link LocalSharedCacheStore} is the in-process stand-in used for local
+ * runs and tests; register another bean of this type to use a real one.
+ */
+public interface SharedCacheStore {
+    Object get(String cacheName, Object key);
+    void put(String cacheName, Object key, Object value, Duration ttl);
+    void evict(String cacheName, Object key);
+    void evictByPrefix(String cacheName, String keyPrefix);
+    void clear(String cacheName);
+}
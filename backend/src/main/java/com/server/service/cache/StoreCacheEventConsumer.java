@@ -0,0 +1,41 @@
+package com.server.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import com.server.model.event.OutboxEvent;
+import com.server.service.event.DomainEventConsumer;
+
+/**
+ * Evicts a store's cached analytics once the other consumers have handled
+ * a change to its orders, products or prices. The save itself already
+ * evicts through {@link StoreCacheEvictionListener}; this second eviction
+ * drops anything cached while the rollups were still catching up. Events
+ * without a store evict every store.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreCacheEventConsumer implements DomainEventConsumer, Ordered {
+
+    private final StoreCacheEvictor storeCacheEvictor;
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    public boolean accepts(OutboxEvent event) {
+        return event.is(OutboxEvent.ORDER) || event.is(OutboxEvent.PRODUCT) || event.is(OutboxEvent.PRICE);
+    }
+
+    @Override
+    public void consume(OutboxEvent event) {
+        if (event.getStoreId() == null) {
+            storeCacheEvictor.evictAll();
+        } else {
+            storeCacheEvictor.evictStore(event.getStoreId());
+        }
+    }
+}
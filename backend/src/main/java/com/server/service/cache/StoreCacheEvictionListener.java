@@ -0,0 +1,47 @@
+package com.server.service.cache;
+
+import java.util.Set;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.server.model.order.Order;
+import com.server.model.store.Price;
+import com.server.model.store.products.Product;
+
+/**
+ * Evicts a store's cached analytics whenever one of its orders, products
+ * or prices is saved. Repository deletes only carry the id filter, so they
+ * evict every store.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreCacheEvictionListener extends AbstractMongoEventListener<Object> {
+
+    private static final Set<String> WATCHED_COLLECTIONS = Set.of("orders", "products", "prices");
+
+    private final StoreCacheEvictor storeCacheEvictor;
+
+    @Override
+    public void onAfterSave(@NonNull AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof Order) {
+            storeCacheEvictor.evictStore(((Order) source).getStoreId());
+        } else if (source instanceof Product) {
+            storeCacheEvictor.evictStore(((Product) source).getStoreId());
+        } else if (source instanceof Price) {
+            storeCacheEvictor.evictStore(((Price) source).getStoreId());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(@NonNull AfterDeleteEvent<Object> event) {
+        if (WATCHED_COLLECTIONS.contains(event.getCollectionName())) {
+            storeCacheEvictor.evictAll();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.server.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evicts the cached dashboard data of a single store after its orders,
+ * products or prices change.
+ */
+@Service
+@RequiredArgsConstructor
+public class StoreCacheEvictor {
+    private static final Logger logger = LoggerFactory.getLogger(StoreCacheEvictor.class);
+
+    private final CacheManager cacheManager;
+
+    public void evictStore(String storeId) {
+        if (storeId == null) {
+            return;
+        }
+
+        logger.debug("Evicting cached analytics for store: {}", storeId);
+        for (String name : CacheNames.STORE_SCOPED) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TieredCache) {
+                ((TieredCache) cache).evictStore(storeId);
+            } else if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    public void evictAll() {
+        logger.debug("Evicting cached analytics for all stores");
+        for (String name : CacheNames.STORE_SCOPED) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    // Local tiers only; used for changes made on other nodes
+    public void evictStoreLocally(String storeId) {
+        if (storeId == null) {
+            return;
+        }
+
+        for (String name : CacheNames.STORE_SCOPED) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TieredCache) {
+                ((TieredCache) cache).evictStoreLocally(storeId);
+            } else if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    public void evictAllLocally() {
+        for (String name : CacheNames.STORE_SCOPED) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TieredCache) {
+                ((TieredCache) cache).clearLocally();
+            } else if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.server.service.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.NonNull;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} backed by a bounded Caffeine
+ * cache, optionally in front of a {@link SharedCacheStore}. Reads check the
+ * local tier first and promote shared hits; writes and evictions go to both.
+ */
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final SharedCacheStore shared;
+    private final Duration sharedTtl;
+
+    public TieredCache(String name, Cache<Object, Object> local, SharedCacheStore shared, Duration sharedTtl) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.shared = shared;
+        this.sharedTtl = sharedTtl;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    @NonNull
+    public Cache<Object, Object> getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(@NonNull Object key) {
+        Object value = local.getIfPresent(key);
+        if (value == null && shared != null) {
+            value = shared.get(name, key);
+            if (value != null) {
+                local.put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, Object value) {
+        Object stored = toStoreValue(value);
+        local.put(key, stored);
+        if (shared != null) {
+            shared.put(name, key, stored, sharedTtl);
+        }
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        local.invalidate(key);
+        if (shared != null) {
+            shared.evict(name, key);
+        }
+    }
+
+    /**
+     * Drops the entries keyed {@code storeId} or {@code storeId:...}.
+     */
+    public void evictStore(String storeId) {
+        evictStoreLocally(storeId);
+        if (shared != null) {
+            shared.evict(name, storeId);
+            shared.evictByPrefix(name, storeId + ":");
+        }
+    }
+
+    /**
+     * Drops the store's entries from this node's tier only, for changes
+     * another node already evicted from the shared tier.
+     */
+    public void evictStoreLocally(String storeId) {
+        String prefix = storeId + ":";
+        local.asMap().keySet().removeIf(key -> {
+            String k = key.toString();
+            return k.equals(storeId) || k.startsWith(prefix);
+        });
+    }
+
+    public void clearLocally() {
+        local.invalidateAll();
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        if (shared != null) {
+            shared.clear(name);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.server.service.cache;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractCacheManager;
+import org.springframework.lang.NonNull;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import com.server.config.AppCacheProperties;
+
+/**
+ * Creates a {@link TieredCache} per cache name, each with its own Caffeine
+ * spec (size and TTL) from {@code app.cache.specs}. Names that are not
+ * configured are created on first use with {@code app.cache.default-spec}.
+ */
+public class TieredCacheManager extends AbstractCacheManager {
+
+    private final AppCacheProperties properties;
+    private final SharedCacheStore shared;
+
+    public TieredCacheManager(AppCacheProperties properties, SharedCacheStore shared) {
+        this.properties = properties;
+        this.shared = shared;
+    }
+
+    @Override
+    @NonNull
+    protected Collection<? extends Cache> loadCaches() {
+        Set<String> names = new LinkedHashSet<>(CacheNames.STORE_SCOPED);
+        names.addAll(properties.getSpecs().keySet());
+        return names.stream().map(this::createCache).collect(Collectors.toList());
+    }
+
+    @Override
+    protected Cache getMissingCache(@NonNull String name) {
+        return createCache(name);
+    }
+
+    private TieredCache createCache(String name) {
+        String spec = properties.getSpecs().getOrDefault(name, properties.getDefaultSpec());
+        return new TieredCache(
+            name,
+            Caffeine.from(CaffeineSpec.parse(spec)).recordStats().build(),
+            properties.isShared() ? shared : null,
+            properties.getSharedTtl());
+    }
+}
@@ -0,0 +1,17 @@
+package com.server.service.event;
+
+import com.server.model.event.OutboxEvent;
+
+/**
+ * Receives outbox events from the event bus, in the order given by
+ * {@code @Order}/{@link org.springframework.core.Ordered}. Delivery is at
+ * least once: when a consumer fails, the event is redelivered only to the
+ * consumers that have not taken it yet, but a node dying mid-dispatch still
+ * redelivers it to every consumer.
+ */
+public interface DomainEventConsumer {
+
+    boolean accepts(OutboxEvent event);
+
+    void consume(OutboxEvent event);
+}
@@ -0,0 +1,12 @@
+package com.server.service.event;
+
+import com.server.model.event.OutboxEvent;
+
+/**
+ * Hands outbox events to their consumers. Returning normally means the
+ * event was delivered; any exception leaves it pending for a retry.
+ */
+public interface EventBus {
+
+    void publish(OutboxEvent event);
+}
@@ -0,0 +1,93 @@
+package com.server.service.event;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.model.event.OutboxEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs every interested consumer for an event. A failing consumer does not
+ * stop the others; the first failure is rethrown afterwards so the event
+ * is delivered again. Before rethrowing, the consumers that succeeded are
+ * added to the event's {@code consumedBy} in the outbox, and a redelivered
+ * event skips them, so only the failed consumers run again.
+ */
+@Component
+public class EventDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(EventDispatcher.class);
+
+    private final List<DomainEventConsumer> consumers;
+    private final MongoTemplate mongoTemplate;
+
+    public EventDispatcher(List<DomainEventConsumer> consumers, MongoTemplate mongoTemplate) {
+        this.consumers = consumers;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void dispatch(OutboxEvent event) {
+        Set<String> done = consumedBy(event);
+        List<String> succeeded = new ArrayList<>();
+        RuntimeException failure = null;
+        for (DomainEventConsumer consumer : consumers) {
+            String name = nameOf(consumer);
+            if (done.contains(name) || !consumer.accepts(event)) {
+                continue;
+            }
+            try {
+                consumer.consume(event);
+                succeeded.add(name);
+            } catch (RuntimeException e) {
+                logger.warn("{} failed on {} {} {}: {}", name,
+                    event.getAggregateType(), event.getAggregateId(), event.getAction(), e.getMessage());
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            markConsumed(event, succeeded);
+            throw failure;
+        }
+    }
+
+    // Read from the outbox rather than the event, which may be a copy taken before an earlier delivery
+    private Set<String> consumedBy(OutboxEvent event) {
+        if (event.getId() == null) {
+            return Set.of();
+        }
+        Query query = new Query(Criteria.where("_id").is(event.getId()));
+        query.fields().include("consumedBy");
+        OutboxEvent stored = mongoTemplate.findOne(query, OutboxEvent.class);
+        return stored == null || stored.getConsumedBy() == null ? Set.of() : new HashSet<>(stored.getConsumedBy());
+    }
+
+    private void markConsumed(OutboxEvent event, List<String> succeeded) {
+        if (event.getId() == null || succeeded.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(event.getId())),
+                new Update().addToSet("consumedBy").each(succeeded.toArray()), OutboxEvent.class);
+        } catch (RuntimeException e) {
+            // Redelivery then runs these consumers again, as it did before
+            logger.warn("Failed to record consumers of outbox event {}: {}", event.getId(), e.getMessage());
+        }
+    }
+
+    private static String nameOf(DomainEventConsumer consumer) {
+        return ClassUtils.getUserClass(consumer).getSimpleName();
+    }
+}
@@ -0,0 +1,25 @@
+package com.server.service.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.server.model.event.OutboxEvent;
+
+/**
+ * Delivers events to the consumers of this node on the relay thread. The
+ * default bus, and the local stand-in for Kafka on a single node or in
+ * tests.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.bus", havingValue = "in-process", matchIfMissing = true)
+@RequiredArgsConstructor
+public class InProcessEventBus implements EventBus {
+
+    private final EventDispatcher dispatcher;
+
+    @Override
+    public void publish(OutboxEvent event) {
+        dispatcher.dispatch(event);
+    }
+}
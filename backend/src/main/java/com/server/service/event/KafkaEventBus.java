@@ -0,0 +1,170 @@
+package com.server.service.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.listener.KafkaMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.FixedBackOff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.server.config.OutboxProperties;
+import com.server.model.event.OutboxEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes events as JSON to {@code outbox.kafka.topic}, keyed by store so
+ * one store's events stay in order, and consumes the topic with group
+ * {@code outbox.kafka.group-id}, so each event reaches the consumers of one
+ * node. Kafka auto-configuration is excluded by the application, so the
+ * producer and listener container are built here from
+ * {@code outbox.kafka.*}.
+ *
+ * A record whose consumers still fail after {@code outbox.max-attempts}
+ * is not skipped silently: its outbox event is set back to FAILED with the
+ * error, as the relay does for events it cannot publish, and counted under
+ * {@code outbox.events{outcome=consumer-failed}}.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.bus", havingValue = "kafka")
+public class KafkaEventBus implements EventBus {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaEventBus.class);
+
+    private final EventDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private KafkaMessageListenerContainer<String, String> container;
+
+    public KafkaEventBus(
+            EventDispatcher dispatcher,
+            ObjectMapper objectMapper,
+            OutboxProperties properties,
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry) {
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+
+        Map<String, Object> producer = new HashMap<>();
+        producer.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getKafka().getBootstrapServers());
+        producer.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producer.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producer.put(ProducerConfig.ACKS_CONFIG, "all");
+        producer.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        this.producerFactory = new DefaultKafkaProducerFactory<>(producer);
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    @PostConstruct
+    public void start() {
+        Map<String, Object> consumer = new HashMap<>();
+        consumer.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, properties.getKafka().getBootstrapServers());
+        consumer.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumer.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        consumer.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        ContainerProperties containerProperties = new ContainerProperties(properties.getKafka().getTopic());
+        containerProperties.setGroupId(properties.getKafka().getGroupId());
+        containerProperties.setMessageListener((MessageListener<String, String>) record ->
+            dispatcher.dispatch(read(record.value())));
+
+        container = new KafkaMessageListenerContainer<>(new DefaultKafkaConsumerFactory<>(consumer), containerProperties);
+        // Same retry budget as the relay; an event that still fails is parked as FAILED
+        container.setCommonErrorHandler(new DefaultErrorHandler(this::park,
+            new FixedBackOff(properties.getBackoff().toMillis(), Math.max(0, properties.getMaxAttempts() - 1))));
+        container.start();
+        logger.info("Consuming outbox events from topic {}", properties.getKafka().getTopic());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (container != null) {
+            container.stop();
+        }
+        producerFactory.destroy();
+    }
+
+    @Override
+    public void publish(OutboxEvent event) {
+        String key = event.getStoreId() != null ? event.getStoreId() : event.getAggregateId();
+        try {
+            kafkaTemplate.send(properties.getKafka().getTopic(), key, objectMapper.writeValueAsString(event))
+                .get(properties.getKafka().getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox event " + event.getId(), e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Failed to send outbox event " + event.getId() + " to Kafka", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending outbox event " + event.getId(), e);
+        }
+    }
+
+    private void park(ConsumerRecord<?, ?> record, Exception e) {
+        meterRegistry.counter("outbox.events", "outcome", "consumer-failed").increment();
+        String error = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+        OutboxEvent event;
+        try {
+            event = read(String.valueOf(record.value()));
+        } catch (IllegalArgumentException unreadable) {
+            logger.error("Skipping unreadable record at {}-{}@{}: {}",
+                record.topic(), record.partition(), record.offset(), error);
+            return;
+        }
+
+        logger.error("Giving up on outbox event {} ({} {} {}) after {} deliveries: {}", event.getId(),
+            event.getAggregateType(), event.getAggregateId(), event.getAction(), properties.getMaxAttempts(), error);
+        if (event.getId() == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(event.getId())),
+            new Update()
+                .set("status", OutboxEvent.Status.FAILED)
+                .set("lastError", error)
+                .set("purgeAt", now.plus(properties.getRetention())),
+            OutboxEvent.class);
+    }
+
+    private OutboxEvent read(String value) {
+        try {
+            return objectMapper.readValue(value, OutboxEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable outbox event: " + e.getOriginalMessage(), e);
+        }
+    }
+}
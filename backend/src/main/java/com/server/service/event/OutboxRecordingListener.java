@@ -0,0 +1,74 @@
+package com.server.service.event;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.model.event.OutboxEvent;
+import com.server.model.order.Order;
+import com.server.model.store.Price;
+import com.server.model.store.Store;
+import com.server.model.store.products.Product;
+
+import java.util.Map;
+
+/**
+ * Records an outbox event for every saved or deleted order, product, price
+ * and store. Raw updates and bulk writes fire no mapping events and record
+ * their own, see {@link OutboxService}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxRecordingListener extends AbstractMongoEventListener<Object> {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRecordingListener.class);
+
+    private static final Map<String, String> AGGREGATES = Map.of(
+        "orders", OutboxEvent.ORDER,
+        "products", OutboxEvent.PRODUCT,
+        "prices", OutboxEvent.PRICE,
+        "stores", OutboxEvent.STORE);
+
+    private final OutboxService outboxService;
+
+    @Override
+    public void onAfterSave(@NonNull AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof Order) {
+            Order order = (Order) source;
+            outboxService.record(OutboxEvent.ORDER, order.getId(), order.getStoreId(), OutboxEvent.Action.SAVED);
+        } else if (source instanceof Product) {
+            Product product = (Product) source;
+            outboxService.record(OutboxEvent.PRODUCT, product.getId(), product.getStoreId(), OutboxEvent.Action.SAVED);
+        } else if (source instanceof Price) {
+            Price price = (Price) source;
+            outboxService.record(OutboxEvent.PRICE, price.getId(), price.getStoreId(), OutboxEvent.Action.SAVED);
+        } else if (source instanceof Store) {
+            Store store = (Store) source;
+            outboxService.record(OutboxEvent.STORE, store.getId(), store.getId(), OutboxEvent.Action.SAVED);
+        }
+    }
+
+    // Deletes only carry the filter, so the store is unknown
+    @Override
+    public void onAfterDelete(@NonNull AfterDeleteEvent<Object> event) {
+        String aggregateType = AGGREGATES.get(event.getCollectionName());
+        if (aggregateType == null) {
+            return;
+        }
+
+        Document filter = event.getSource();
+        Object id = filter.get("_id");
+        if (id instanceof String || id instanceof ObjectId) {
+            outboxService.record(aggregateType, id.toString(), null, OutboxEvent.Action.DELETED);
+        } else {
+            logger.warn("Delete from {} by criteria {} recorded no outbox event", event.getCollectionName(), filter.toJson());
+        }
+    }
+}
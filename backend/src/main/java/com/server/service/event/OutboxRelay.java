@@ -0,0 +1,195 @@
+package com.server.service.event;
+
+import jakarta.annotation.PreDestroy;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.config.OutboxProperties;
+import com.server.model.event.OutboxEvent;
+import com.server.model.event.OutboxEvent.Status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes pending outbox events to the event bus, oldest first. Runs
+ * every {@code outbox.relay-interval} and right after events are recorded.
+ *
+ * Several nodes can relay at once: a node claims a batch by stamping it
+ * with its id and a lease, and only publishes what it claimed; a node that
+ * dies mid-batch leaves events that become claimable again once the lease
+ * runs out. Failed events are retried with doubling delays and parked as
+ * FAILED after {@code outbox.max-attempts}. A retried event may reach the
+ * consumers after newer events of the same aggregate.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final EventBus eventBus;
+    private final OutboxProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // One drain at a time; a wake-up during a drain makes it go round once more
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean again = new AtomicBoolean();
+    private final ThreadPoolExecutor wakeExecutor;
+
+    public OutboxRelay(
+            MongoTemplate mongoTemplate,
+            EventBus eventBus,
+            OutboxProperties properties,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.eventBus = eventBus;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        // At most one queued wake-up; further ones are covered by it
+        this.wakeExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1),
+            runnable -> {
+                Thread thread = new Thread(runnable, "outbox-relay");
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public void wake() {
+        again.set(true);
+        if (!draining.get()) {
+            wakeExecutor.execute(this::drain);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay-interval:PT1S}")
+    public void drain() {
+        while (draining.compareAndSet(false, true)) {
+            try {
+                again.set(false);
+                while (relayBatch() == properties.getBatchSize()) {
+                    // Full batch, more may be waiting
+                }
+            } catch (Exception e) {
+                logger.error("Outbox relay failed: {}", e.getMessage());
+                return;
+            } finally {
+                draining.set(false);
+            }
+            if (!again.get()) {
+                return;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wakeExecutor.shutdownNow();
+    }
+
+    /**
+     * Claims and publishes one batch.
+     *
+     * @return the number of due events found, claimed or not
+     */
+    int relayBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        Query due = new Query(unclaimed(now).and("nextAttemptAt").lte(now))
+            .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+            .limit(properties.getBatchSize());
+        due.fields().include("_id");
+        List<String> ids = new ArrayList<>();
+        mongoTemplate.find(due, OutboxEvent.class).forEach(event -> ids.add(event.getId()));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        mongoTemplate.updateMulti(
+            new Query(unclaimed(now).and("_id").in(ids)),
+            new Update().set("claimedBy", nodeId).set("claimedUntil", now.plus(properties.getLease())),
+            OutboxEvent.class);
+        List<OutboxEvent> claimed = mongoTemplate.find(
+            new Query(Criteria.where("_id").in(ids).and("claimedBy").is(nodeId).and("status").is(Status.PENDING))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt")),
+            OutboxEvent.class);
+
+        List<String> published = new ArrayList<>();
+        BulkOperations failures = null;
+        for (OutboxEvent event : claimed) {
+            try {
+                eventBus.publish(event);
+                published.add(event.getId());
+            } catch (Exception e) {
+                if (failures == null) {
+                    failures = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEvent.class);
+                }
+                failures.updateOne(new Query(Criteria.where("_id").is(event.getId())), failed(event, e));
+            }
+        }
+
+        if (!published.isEmpty()) {
+            LocalDateTime publishedAt = LocalDateTime.now();
+            mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(published)),
+                new Update()
+                    .set("status", Status.PUBLISHED)
+                    .set("publishedAt", publishedAt)
+                    .set("purgeAt", publishedAt.plus(properties.getRetention()))
+                    .unset("claimedBy")
+                    .unset("claimedUntil"),
+                OutboxEvent.class);
+            meterRegistry.counter("outbox.events", "outcome", "published").increment(published.size());
+        }
+        if (failures != null) {
+            failures.execute();
+            meterRegistry.counter("outbox.events", "outcome", "failed").increment(claimed.size() - published.size());
+        }
+        return ids.size();
+    }
+
+    private Update failed(OutboxEvent event, Exception e) {
+        int attempts = event.getAttempts() + 1;
+        Update update = new Update()
+            .set("attempts", attempts)
+            .set("lastError", e.getMessage())
+            .unset("claimedBy")
+            .unset("claimedUntil");
+        if (attempts >= properties.getMaxAttempts()) {
+            logger.error("Giving up on outbox event {} ({} {} {}) after {} attempts: {}", event.getId(),
+                event.getAggregateType(), event.getAggregateId(), event.getAction(), attempts, e.getMessage());
+            LocalDateTime now = LocalDateTime.now();
+            return update.set("status", Status.FAILED).set("purgeAt", now.plus(properties.getRetention()));
+        }
+        return update.set("nextAttemptAt", LocalDateTime.now().plus(backoff(attempts)));
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private static Criteria unclaimed(LocalDateTime now) {
+        return Criteria.where("status").is(Status.PENDING)
+            .orOperator(Criteria.where("claimedUntil").is(null), Criteria.where("claimedUntil").lt(now));
+    }
+}
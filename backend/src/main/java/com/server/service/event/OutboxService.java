@@ -0,0 +1,77 @@
+package com.server.service.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.server.model.event.OutboxEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records outbox events and wakes the relay. Inside a Mongo transaction
+ * (see {@code outbox.transactions.enabled}) the events are written in the
+ * same transaction as the change and the relay is woken after commit;
+ * otherwise they are written right after the change, and a crash in
+ * between loses the event. Callers that must not lose one give their
+ * events fixed ids and record them again through {@link #recordOnce}.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final OutboxRelay relay;
+
+    public void record(String aggregateType, String aggregateId, String storeId, OutboxEvent.Action action) {
+        recordAll(List.of(OutboxEvent.of(aggregateType, aggregateId, storeId, action)));
+    }
+
+    public void recordAll(Collection<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        mongoTemplate.insert(events, OutboxEvent.class);
+        wakeRelay();
+    }
+
+    /**
+     * Records events that carry their own ids, skipping those already
+     * recorded under the same id.
+     */
+    public void recordOnce(Collection<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEvent.class);
+        bulk.insert(List.copyOf(events));
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+        wakeRelay();
+    }
+
+    private void wakeRelay() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    relay.wake();
+                }
+            });
+        } else {
+            relay.wake();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.server.service.inventory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.Fields;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.model.store.products.Product;
+
+/**
+ * Sets {@code availableQuantity} to {@code quantity} on products created
+ * before stock reservations, which only ever take from availableQuantity
+ * and so could not reserve those products at all. Nothing was reserved
+ * from them yet, so all of their stock is available.
+ *
+ * Runs on startup unless {@code inventory.backfill-on-startup=false}; it
+ * only matches products still missing the field. Until it has finished,
+ * reservations that find the field missing initialise their product
+ * through {@link #backfill(String)} and try again.
+ */
+@Service
+public class AvailableStockBackfill implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(AvailableStockBackfill.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean backfillOnStartup;
+
+    public AvailableStockBackfill(
+            MongoTemplate mongoTemplate,
+            @Value("${inventory.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (backfillOnStartup) {
+            backfillAll();
+        }
+    }
+
+    public long backfillAll() {
+        long modified = mongoTemplate.updateMulti(new Query(missing()), copyQuantity(), Product.class)
+            .getModifiedCount();
+        logger.info("Initialised available stock of {} products", modified);
+        return modified;
+    }
+
+    /**
+     * @return whether the product was missing its available stock and now has it
+     */
+    public boolean backfill(String productId) {
+        return mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(productId).andOperator(missing())),
+            copyQuantity(),
+            Product.class).getModifiedCount() == 1;
+    }
+
+    // Null or absent, on products with a quantity to copy
+    private static Criteria missing() {
+        return Criteria.where("availableQuantity").is(null).and("quantity").ne(null);
+    }
+
+    private static AggregationUpdate copyQuantity() {
+        return AggregationUpdate.update().set("availableQuantity").toValueOf(Fields.field("quantity"));
+    }
+}
@@ -0,0 +1,240 @@
+package com.server.service.inventory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.config.InventoryProperties;
+import com.server.model.store.products.Product;
+import com.server.service.cache.StoreCacheEvictor;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * In-memory front for flash-sale products. Instead of every checkout
+ * contending on the same product document, this node claims units from
+ * {@code availableQuantity} in batches of {@code inventory.hot-skus.batch-size}
+ * and hands them out from a {@link StripedStock}. Committed units are
+ * summed locally and taken off {@code quantity} by one $inc per flush.
+ *
+ * Units claimed by a node stay unavailable to other nodes until they are
+ * sold or handed back: on {@link #disable(String)} and on shutdown any
+ * left-over allotment is returned to the product.
+ *
+ * Claims are filtered on the caller's store like the cold path, and the
+ * first successful claim pins the allotment to that store, so callers
+ * from any other store are refused without touching it.
+ */
+@Component
+public class HotStockFront {
+    private static final Logger logger = LoggerFactory.getLogger(HotStockFront.class);
+
+    private static final int CLAIM_ATTEMPTS = 3;
+
+    private final MongoTemplate mongoTemplate;
+    private final AvailableStockBackfill availableStockBackfill;
+    private final StoreCacheEvictor storeCacheEvictor;
+    private final int batchSize;
+    private final int stripes;
+    private final Map<String, HotSku> skus = new ConcurrentHashMap<>();
+
+    public HotStockFront(MongoTemplate mongoTemplate, AvailableStockBackfill availableStockBackfill,
+            StoreCacheEvictor storeCacheEvictor, InventoryProperties properties) {
+        this.mongoTemplate = mongoTemplate;
+        this.availableStockBackfill = availableStockBackfill;
+        this.storeCacheEvictor = storeCacheEvictor;
+        this.batchSize = Math.max(1, properties.getHotSkus().getBatchSize());
+        this.stripes = properties.getHotSkus().getStripes() > 0
+            ? properties.getHotSkus().getStripes()
+            : Runtime.getRuntime().availableProcessors();
+        if (properties.getHotSkus().isEnabled()) {
+            properties.getHotSkus().getProductIds().forEach(this::enable);
+        }
+    }
+
+    private static final class HotSku {
+        final StripedStock stock;
+        final LongAdder committed = new LongAdder();
+        // Set by the first claim; the stock stays empty until then
+        volatile String storeId;
+
+        HotSku(int stripes) {
+            this.stock = new StripedStock(stripes);
+        }
+    }
+
+    public boolean isHot(String productId) {
+        return skus.containsKey(productId);
+    }
+
+    public Set<String> getHotProductIds() {
+        return skus.keySet();
+    }
+
+    public void enable(String productId) {
+        skus.computeIfAbsent(productId, id -> {
+            logger.info("Serving product {} from the in-memory stock front", id);
+            return new HotSku(stripes);
+        });
+    }
+
+    public void disable(String productId) {
+        HotSku sku = skus.remove(productId);
+        if (sku != null) {
+            retire(productId, sku);
+        }
+    }
+
+    /**
+     * Takes n units of a product of the given store from the local
+     * allotment, claiming another batch from the product when it runs short.
+     */
+    public boolean tryTake(String storeId, String productId, int n) {
+        HotSku sku = skus.get(productId);
+        if (sku == null || !belongsTo(sku, storeId)) {
+            return false;
+        }
+        if (sku.stock.tryTake(n)) {
+            return true;
+        }
+
+        // Slow path: one refill per product at a time
+        synchronized (sku) {
+            if (!belongsTo(sku, storeId)) {
+                return false;
+            }
+            if (sku.stock.tryTake(n)) {
+                return true;
+            }
+            long claimed = claim(storeId, productId, Math.max(n, batchSize));
+            if (claimed > 0) {
+                sku.storeId = storeId;
+                sku.stock.add(claimed);
+            }
+            if (sku.stock.tryTake(n)) {
+                return true;
+            }
+            sku.stock.consolidate();
+            return sku.stock.tryTake(n);
+        }
+    }
+
+    public void giveBack(String storeId, String productId, int n) {
+        HotSku sku = skus.get(productId);
+        if (sku != null && storeId.equals(sku.storeId)) {
+            sku.stock.add(n);
+        } else {
+            returnToProduct(storeId, productId, n);
+        }
+    }
+
+    public void recordCommit(String productId, String storeId, int n) {
+        HotSku sku = skus.get(productId);
+        if (sku == null) {
+            mongoTemplate.updateFirst(byId(productId), new Update().inc("quantity", -n), Product.class);
+            storeCacheEvictor.evictStore(storeId);
+            return;
+        }
+        if (sku.storeId == null) {
+            // Re-enabled since the units were claimed
+            sku.storeId = storeId;
+        }
+        sku.committed.add(n);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hot-skus.flush-interval:PT1S}")
+    public void flush() {
+        skus.forEach(this::flushCommits);
+    }
+
+    public Map<String, Map<String, Long>> getStats() {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        skus.forEach((productId, sku) -> stats.put(productId,
+            Map.of("localUnits", sku.stock.total(), "pendingCommits", sku.committed.sum())));
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        skus.forEach(this::retire);
+        skus.clear();
+    }
+
+    private void flushCommits(String productId, HotSku sku) {
+        long committed = sku.committed.sumThenReset();
+        if (committed == 0) {
+            return;
+        }
+        try {
+            mongoTemplate.updateFirst(byId(productId), new Update().inc("quantity", -Math.toIntExact(committed)), Product.class);
+            storeCacheEvictor.evictStore(sku.storeId);
+        } catch (RuntimeException e) {
+            sku.committed.add(committed);
+            logger.error("Failed to flush {} committed units of product {}: {}", committed, productId, e.getMessage());
+        }
+    }
+
+    private void retire(String productId, HotSku sku) {
+        flushCommits(productId, sku);
+        long unsold = sku.stock.drain();
+        if (unsold > 0) {
+            returnToProduct(sku.storeId, productId, unsold);
+        }
+        logger.info("Stopped serving product {} from memory, returned {} units", productId, unsold);
+    }
+
+    private static boolean belongsTo(HotSku sku, String storeId) {
+        String owner = sku.storeId;
+        return owner == null || owner.equals(storeId);
+    }
+
+    // Claims up to wanted units of the store's product; less when it has fewer left
+    private int claim(String storeId, String productId, int wanted) {
+        int take = wanted;
+        for (int attempt = 0; attempt < CLAIM_ATTEMPTS && take > 0; attempt++) {
+            long modified = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(productId).and("storeId").is(storeId).and("availableQuantity").gte(take)),
+                new Update().inc("availableQuantity", -take),
+                Product.class).getModifiedCount();
+            if (modified == 1) {
+                return take;
+            }
+
+            Query current = new Query(Criteria.where("_id").is(productId).and("storeId").is(storeId));
+            current.fields().include("availableQuantity").include("quantity");
+            Product product = mongoTemplate.findOne(current, Product.class);
+            int available = 0;
+            if (product != null && product.getAvailableQuantity() != null) {
+                available = product.getAvailableQuantity();
+            } else if (product != null && product.getQuantity() != null && availableStockBackfill.backfill(productId)) {
+                // Older than reservations: all of its stock was available
+                available = product.getQuantity();
+            }
+            take = Math.min(wanted, available);
+        }
+        return 0;
+    }
+
+    private void returnToProduct(String storeId, String productId, long n) {
+        Query query = byId(productId);
+        if (storeId != null) {
+            query.addCriteria(Criteria.where("storeId").is(storeId));
+        }
+        mongoTemplate.updateFirst(query, new Update().inc("availableQuantity", Math.toIntExact(n)), Product.class);
+    }
+
+    private static Query byId(String productId) {
+        return new Query(Criteria.where("_id").is(productId));
+    }
+}
@@ -0,0 +1,132 @@
+package com.server.service.inventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory contention benchmark for the hot-SKU front: many threads take
+ * one unit at a time from the same product, once through a single CAS
+ * counter (what every checkout hitting one document amounts to) and once
+ * through a {@link StripedStock}. Nothing touches Mongo, so the numbers
+ * isolate the counter itself.
+ *
+ * It saturates the node's CPUs while it runs, so it only exists when
+ * {@code inventory.benchmark.enabled=true}, runs one at a time and is
+ * capped at {@link #MAX_THREADS} threads and {@link #MAX_OPERATIONS}.
+ */
+@Component
+@ConditionalOnProperty(name = "inventory.benchmark.enabled", havingValue = "true")
+public class InventoryBenchmark {
+    public static final int MAX_THREADS = 64;
+    public static final int MAX_OPERATIONS = 1_000_000;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * @throws IllegalStateException when another run is in progress
+     */
+    public Map<String, Object> run(int threads, int operations, int stripes) {
+        if (threads < 1 || threads > MAX_THREADS || operations < threads || operations > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("Need 1 to " + MAX_THREADS + " threads and between one operation per thread and "
+                + MAX_OPERATIONS + " operations");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("An inventory benchmark is already running");
+        }
+        try {
+            return measureBoth(threads, operations, stripes);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private Map<String, Object> measureBoth(int threads, int operations, int stripes) {
+        int perThread = operations / threads;
+        long units = (long) perThread * threads;
+
+        AtomicLong single = new AtomicLong(units);
+        Map<String, Object> singleResult = measure(threads, perThread, n -> {
+            long current;
+            while ((current = single.get()) >= n) {
+                if (single.compareAndSet(current, current - n)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+
+        StripedStock striped = new StripedStock(stripes);
+        // Seeded the way refills fill it: each worker's stripe receives its share
+        Map<String, Object> stripedResult = measure(threads, perThread, striped::tryTake, () -> striped.add(perThread));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("threads", threads);
+        result.put("operations", units);
+        result.put("stripes", stripes);
+        result.put("singleCounter", singleResult);
+        result.put("stripedCounter", stripedResult);
+        result.put("speedup", (double) stripedResult.get("opsPerSecond") / (double) singleResult.get("opsPerSecond"));
+        return result;
+    }
+
+    private Map<String, Object> measure(int threads, int perThread, IntPredicate take) {
+        return measure(threads, perThread, take, () -> { });
+    }
+
+    private Map<String, Object> measure(int threads, int perThread, IntPredicate take, Runnable seed) {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong failed = new AtomicLong();
+
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                seed.run();
+                ready.countDown();
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        if (!take.test(1)) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "inventory-bench-" + t);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        try {
+            ready.await();
+            long started = System.nanoTime();
+            start.countDown();
+            done.await();
+            long elapsed = System.nanoTime() - started;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("elapsedMs", elapsed / 1_000_000.0);
+            result.put("opsPerSecond", (double) perThread * threads / (elapsed / 1_000_000_000.0));
+            result.put("failedTakes", failed.get());
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            workers.forEach(Thread::interrupt);
+            throw new IllegalStateException("Benchmark interrupted", e);
+        }
+    }
+}
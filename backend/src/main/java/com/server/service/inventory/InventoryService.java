@@ -0,0 +1,375 @@
+package com.server.service.inventory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.config.InventoryProperties;
+import com.server.exception.common.ResourceNotFoundException;
+import com.server.exception.store.InsufficientStockException;
+import com.server.model.inventory.StockReservation;
+import com.server.model.inventory.StockReservation.Line;
+import com.server.model.inventory.StockReservation.Status;
+import com.server.model.order.Order;
+import com.server.model.store.products.Product;
+import com.server.service.cache.StoreCacheEvictor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Reserves, commits and releases product stock without reading the
+ * product first. Every change is a single conditional $inc, e.g.
+ * {@code availableQuantity >= n} for a reservation, so concurrent
+ * checkouts can never oversell and no update is lost.
+ *
+ * Stock is taken before the reservation is recorded: a crash in between
+ * can leave units unavailable, but never hands out units twice. Held
+ * reservations expire after {@code inventory.reservation-ttl} and are
+ * released by {@link #expireReservations()}; state changes go through a
+ * conditional findAndModify on the status, so each reservation is settled
+ * exactly once even with several nodes sweeping.
+ *
+ * These are raw updates that fire no mapping events, so the store's
+ * cached analytics are evicted here whenever on-hand quantity changes.
+ */
+@Service
+public class InventoryService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final HotStockFront hotStockFront;
+    private final AvailableStockBackfill availableStockBackfill;
+    private final StoreCacheEvictor storeCacheEvictor;
+    private final InventoryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public InventoryService(
+            MongoTemplate mongoTemplate,
+            HotStockFront hotStockFront,
+            AvailableStockBackfill availableStockBackfill,
+            StoreCacheEvictor storeCacheEvictor,
+            InventoryProperties properties,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.hotStockFront = hotStockFront;
+        this.availableStockBackfill = availableStockBackfill;
+        this.storeCacheEvictor = storeCacheEvictor;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Holds the given quantities, keyed by product id, all or nothing.
+     *
+     * @param reference optional caller key; a second call for the same store
+     *        with the same key returns the first reservation instead of
+     *        reserving again. Other stores' keys never match. Once the first
+     *        reservation was released or expired, the key holds stock anew.
+     * @throws InsufficientStockException naming the first product that is
+     *         short; nothing stays reserved
+     */
+    public StockReservation reserve(String storeId, String reference, Map<String, Integer> quantities) {
+        if (reference != null) {
+            StockReservation existing = findByReference(storeId, reference);
+            if (existing != null && !isGivenBack(existing)) {
+                return existing;
+            }
+            if (existing != null) {
+                supersede(existing);
+            }
+        }
+        if (quantities.isEmpty()) {
+            throw new IllegalArgumentException("A reservation needs at least one product");
+        }
+
+        // Sorted so the same basket always takes its lines in the same order
+        List<Line> taken = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(quantities).entrySet()) {
+            String productId = entry.getKey();
+            int quantity = entry.getValue() == null ? 0 : entry.getValue();
+            if (quantity <= 0) {
+                giveBack(storeId, taken);
+                throw new IllegalArgumentException("Quantity must be positive for product " + productId);
+            }
+
+            boolean hot = hotStockFront.isHot(productId);
+            boolean ok = hot ? hotStockFront.tryTake(storeId, productId, quantity) : take(storeId, productId, quantity);
+            if (!ok) {
+                giveBack(storeId, taken);
+                count("rejected");
+                throw new InsufficientStockException(productId, quantity);
+            }
+            taken.add(new Line(productId, quantity, hot));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = new StockReservation();
+        reservation.setStoreId(storeId);
+        reservation.setReference(reference);
+        reservation.setLines(taken);
+        reservation.setStatus(Status.HELD);
+        reservation.setCreatedAt(now);
+        reservation.setExpiresAt(now.plus(properties.getReservationTtl()));
+
+        try {
+            StockReservation saved = mongoTemplate.insert(reservation);
+            count("reserved");
+            return saved;
+        } catch (DuplicateKeyException e) {
+            // Lost a race with another call using the same reference
+            giveBack(storeId, taken);
+            return findByReference(storeId, reference);
+        }
+    }
+
+    public StockReservation getReservation(String storeId, String reservationId) {
+        StockReservation reservation = mongoTemplate.findOne(
+            new Query(Criteria.where("_id").is(reservationId).and("storeId").is(storeId)), StockReservation.class);
+        if (reservation == null) {
+            throw new ResourceNotFoundException("Reservation not found with id: " + reservationId);
+        }
+        return reservation;
+    }
+
+    /**
+     * Turns held stock into a sale by taking it off {@code quantity}.
+     * Committing an already committed reservation is a no-op.
+     */
+    public StockReservation commit(String storeId, String reservationId) {
+        StockReservation reservation = settle(storeId, reservationId, Status.COMMITTED);
+        if (reservation.getStatus() != Status.HELD) {
+            return reservation;
+        }
+
+        BulkOperations bulk = null;
+        for (Line line : reservation.getLines()) {
+            if (line.isHot()) {
+                hotStockFront.recordCommit(line.getProductId(), storeId, line.getQuantity());
+                continue;
+            }
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+            }
+            bulk.updateOne(new Query(Criteria.where("_id").is(line.getProductId())),
+                new Update().inc("quantity", -line.getQuantity()));
+        }
+        if (bulk != null) {
+            bulk.execute();
+            storeCacheEvictor.evictStore(storeId);
+        }
+
+        count("committed");
+        reservation.setStatus(Status.COMMITTED);
+        return reservation;
+    }
+
+    /**
+     * Gives held stock back. Releasing a settled reservation is a no-op.
+     */
+    public StockReservation release(String storeId, String reservationId) {
+        StockReservation reservation = settle(storeId, reservationId, Status.RELEASED);
+        if (reservation.getStatus() != Status.HELD) {
+            return reservation;
+        }
+
+        giveBack(storeId, reservation.getLines());
+        count("released");
+        reservation.setStatus(Status.RELEASED);
+        return reservation;
+    }
+
+    /**
+     * Restocks (positive delta) or writes off (negative delta) on-hand
+     * stock, moving quantity and availableQuantity together. A write-off
+     * never takes units that are held by reservations.
+     *
+     * @throws InsufficientStockException when fewer than -delta units are available
+     */
+    public Product adjust(String storeId, String productId, int delta) {
+        if (delta == 0) {
+            throw new IllegalArgumentException("Adjustment must not be zero");
+        }
+        availableStockBackfill.backfill(productId);
+
+        Criteria criteria = Criteria.where("_id").is(productId).and("storeId").is(storeId);
+        if (delta < 0) {
+            criteria = criteria.and("availableQuantity").gte(-delta);
+        }
+        Product product = mongoTemplate.findAndModify(
+            new Query(criteria),
+            new Update().inc("quantity", delta).inc("availableQuantity", delta),
+            FindAndModifyOptions.options().returnNew(true),
+            Product.class);
+        if (product == null) {
+            if (!mongoTemplate.exists(new Query(Criteria.where("_id").is(productId).and("storeId").is(storeId)),
+                    Product.class)) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            throw new InsufficientStockException(productId, -delta);
+        }
+
+        storeCacheEvictor.evictStore(storeId);
+        count(delta > 0 ? "restocked" : "written-off");
+        return product;
+    }
+
+    /**
+     * Gives back the stock of reservations held past their expiry. A
+     * reservation that a placed order points at was sold, and only missed
+     * its commit because placement stopped after writing the order, so it is
+     * committed instead.
+     */
+    @Scheduled(fixedDelayString = "${inventory.sweep-interval:PT15S}")
+    public void expireReservations() {
+        Query due = new Query(Criteria.where("status").is(Status.HELD).and("expiresAt").lt(LocalDateTime.now()))
+            .limit(properties.getSweepBatchSize());
+        due.fields().include("_id", "storeId");
+        List<StockReservation> candidates = mongoTemplate.find(due, StockReservation.class);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> sold = soldReservations(candidates);
+        int expired = 0;
+        for (StockReservation candidate : candidates) {
+            if (sold.contains(candidate.getId())) {
+                commitSold(candidate);
+                continue;
+            }
+            StockReservation reservation = transition(candidate.getId(), null, Status.EXPIRED);
+            if (reservation != null) {
+                giveBack(reservation.getStoreId(), reservation.getLines());
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            count("expired", expired);
+            logger.info("Released {} expired stock reservations", expired);
+        }
+    }
+
+    // Reservations among the candidates that placed orders point at
+    private Set<String> soldReservations(List<StockReservation> candidates) {
+        Query query = new Query(Criteria.where("reservationId")
+            .in(candidates.stream().map(StockReservation::getId).collect(Collectors.toList())));
+        query.fields().include("reservationId");
+        return mongoTemplate.find(query, Order.class).stream()
+            .map(Order::getReservationId)
+            .collect(Collectors.toSet());
+    }
+
+    private void commitSold(StockReservation candidate) {
+        try {
+            commit(candidate.getStoreId(), candidate.getId());
+            logger.warn("Committed reservation {} of a placed order after it expired uncommitted", candidate.getId());
+        } catch (RuntimeException e) {
+            logger.error("Failed to commit reservation {} of a placed order: {}", candidate.getId(), e.getMessage());
+        }
+    }
+
+    // Conditional $inc: only succeeds while the product still has n available
+    private boolean take(String storeId, String productId, int n) {
+        Query query = new Query(Criteria.where("_id").is(productId)
+            .and("storeId").is(storeId)
+            .and("availableQuantity").gte(n));
+        Update update = new Update().inc("availableQuantity", -n);
+        if (mongoTemplate.updateFirst(query, update, Product.class).getModifiedCount() == 1) {
+            return true;
+        }
+        // Products older than reservations have no available stock until the backfill reaches them
+        return availableStockBackfill.backfill(productId)
+            && mongoTemplate.updateFirst(query, update, Product.class).getModifiedCount() == 1;
+    }
+
+    private void giveBack(String storeId, List<Line> lines) {
+        BulkOperations bulk = null;
+        for (Line line : lines) {
+            if (line.isHot()) {
+                hotStockFront.giveBack(storeId, line.getProductId(), line.getQuantity());
+                continue;
+            }
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+            }
+            bulk.updateOne(new Query(Criteria.where("_id").is(line.getProductId()).and("storeId").is(storeId)),
+                new Update().inc("availableQuantity", line.getQuantity()));
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+    }
+
+    // Returns the reservation as it was before settling; status HELD means this call settled it
+    private StockReservation settle(String storeId, String reservationId, Status target) {
+        StockReservation previous = transition(reservationId, storeId, target);
+        if (previous != null) {
+            return previous;
+        }
+
+        StockReservation current = getReservation(storeId, reservationId);
+        if (current.getStatus() != target) {
+            throw new IllegalStateException("Reservation " + reservationId + " is already "
+                + current.getStatus().name().toLowerCase());
+        }
+        return current;
+    }
+
+    private StockReservation transition(String reservationId, String storeId, Status target) {
+        Criteria criteria = Criteria.where("_id").is(reservationId).and("status").is(Status.HELD);
+        if (storeId != null) {
+            criteria = criteria.and("storeId").is(storeId);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        return mongoTemplate.findAndModify(
+            new Query(criteria),
+            new Update()
+                .set("status", target)
+                .set("settledAt", now)
+                .set("purgeAt", now.plus(properties.getReservationRetention())),
+            FindAndModifyOptions.options().returnNew(false),
+            StockReservation.class);
+    }
+
+    private static boolean isGivenBack(StockReservation reservation) {
+        return reservation.getStatus() == Status.RELEASED || reservation.getStatus() == Status.EXPIRED;
+    }
+
+    // Frees the reference of a given-back reservation so a retry under the same key can hold stock again
+    private void supersede(StockReservation reservation) {
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(reservation.getId())
+                .and("status").in(Status.RELEASED, Status.EXPIRED)),
+            new Update().unset("reference").set("supersededReference", reservation.getReference()),
+            StockReservation.class);
+    }
+
+    private StockReservation findByReference(String storeId, String reference) {
+        return mongoTemplate.findOne(
+            new Query(Criteria.where("storeId").is(storeId).and("reference").is(reference)), StockReservation.class);
+    }
+
+    private void count(String outcome) {
+        count(outcome, 1);
+    }
+
+    private void count(String outcome, int amount) {
+        meterRegistry.counter("inventory.reservations", "outcome", outcome).increment(amount);
+    }
+}
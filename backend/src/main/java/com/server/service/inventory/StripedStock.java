@@ -0,0 +1,69 @@
+package com.server.service.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Units of one product held in memory, spread over several counters so
+ * concurrent takers mostly work on different cache lines. A take or a
+ * return is a CAS on a single stripe; nothing here blocks.
+ */
+final class StripedStock {
+    // Longs per 64-byte cache line; only every PAD-th cell is used
+    private static final int PAD = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    StripedStock(int stripes) {
+        this.stripes = Math.max(1, stripes);
+        this.cells = new AtomicLongArray(this.stripes * PAD);
+    }
+
+    /**
+     * Takes n units from the first stripe, starting at the caller's own,
+     * that holds at least n. Fails when no single stripe does, even if
+     * the stripes hold n between them; see {@link #consolidate()}.
+     */
+    boolean tryTake(int n) {
+        int start = home();
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PAD;
+            long current;
+            while ((current = cells.get(index)) >= n) {
+                if (cells.compareAndSet(index, current, current - n)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    void add(long n) {
+        cells.addAndGet(home() * PAD, n);
+    }
+
+    // Moves every unit into the caller's stripe
+    void consolidate() {
+        add(drain());
+    }
+
+    long drain() {
+        long drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += cells.getAndSet(i * PAD, 0);
+        }
+        return drained;
+    }
+
+    long total() {
+        long total = 0;
+        for (int i = 0; i < stripes; i++) {
+            total += cells.get(i * PAD);
+        }
+        return total;
+    }
+
+    private int home() {
+        return (int) ((Thread.currentThread().getId() & Integer.MAX_VALUE) % stripes);
+    }
+}
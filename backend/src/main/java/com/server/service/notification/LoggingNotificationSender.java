@@ -0,0 +1,19 @@
+package com.server.service.notification;
+
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes notifications to the log. Stands in until a mail or push sender
+ * is added; mark that one {@code @Primary}.
+ */
+@Component
+public class LoggingNotificationSender implements NotificationSender {
+    private static final Logger logger = LoggerFactory.getLogger(LoggingNotificationSender.class);
+
+    @Override
+    public void send(String recipient, String subject, String body) {
+        logger.info("Notification to {}: {} - {}", recipient, subject, body);
+    }
+}
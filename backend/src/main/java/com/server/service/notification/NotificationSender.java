@@ -0,0 +1,9 @@
+package com.server.service.notification;
+
+/**
+ * Delivers a message to an account, e.g. by email or push.
+ */
+public interface NotificationSender {
+
+    void send(String recipient, String subject, String body);
+}
@@ -0,0 +1,62 @@
+package com.server.service.notification;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.server.model.accounts.AccountSettings;
+import com.server.model.event.OutboxEvent;
+import com.server.model.order.Order;
+import com.server.model.order.OrderItem;
+import com.server.repository.accounts.AccountSettingsRepository;
+import com.server.service.event.DomainEventConsumer;
+import com.server.service.store.StoreIdentityResolver;
+
+/**
+ * Tells the store owner about each newly placed order when their order
+ * update notifications are on. An event redelivered because another
+ * consumer failed does not notify again; see {@link com.server.service.event.EventDispatcher}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderNotificationConsumer implements DomainEventConsumer {
+
+    private final StoreIdentityResolver storeIdentityResolver;
+    private final AccountSettingsRepository accountSettingsRepository;
+    private final MongoTemplate mongoTemplate;
+    private final NotificationSender notificationSender;
+
+    @Override
+    public boolean accepts(OutboxEvent event) {
+        return event.is(OutboxEvent.ORDER) && event.getAction() == OutboxEvent.Action.CREATED
+            && event.getStoreId() != null;
+    }
+
+    @Override
+    public void consume(OutboxEvent event) {
+        String ownerEmail = storeIdentityResolver.getOwnerEmail(event.getStoreId()).orElse(null);
+        if (ownerEmail == null || !wantsOrderUpdates(ownerEmail)) {
+            return;
+        }
+
+        Query query = new Query(Criteria.where("_id").is(event.getAggregateId()));
+        query.fields().include("totalAmount", "items.quantity");
+        Order order = mongoTemplate.findOne(query, Order.class);
+        if (order == null) {
+            return;
+        }
+
+        int units = order.getItems() == null ? 0 : order.getItems().stream().mapToInt(OrderItem::getQuantity).sum();
+        notificationSender.send(ownerEmail, "New order " + order.getId(),
+            units + " items, total " + order.getTotalAmount());
+    }
+
+    private boolean wantsOrderUpdates(String email) {
+        return accountSettingsRepository.findByUserId(email)
+            .map(AccountSettings::getNotifications)
+            .map(AccountSettings.NotificationSettings::isOrderUpdates)
+            .orElse(false);
+    }
+}
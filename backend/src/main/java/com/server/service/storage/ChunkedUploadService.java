@@ -0,0 +1,457 @@
+package com.server.service.storage;
+
+import com.server.exception.FileStorageException;
+import com.server.exception.ResourceNotFoundException;
+import com.server.model.storage.ImageAsset;
+import com.server.model.storage.UploadSession;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resumable uploads for files too large, or connections too flaky, for a
+ * single multipart request. A session is started with the file's name and
+ * size, which splits the file into chunks of {@code chunk-size} bytes
+ * (the last one shorter). Chunks are PUT with their offset in any order
+ * and in parallel, and completing checks that every chunk arrived and that
+ * the SHA-256 matches. The session records the indexes of the chunks
+ * received as a set, so it stays small whatever the number of PUTs.
+ *
+ * Each chunk is streamed from the request straight into the session file
+ * at its offset with {@link FileChannel#transferFrom}, so memory per chunk
+ * stays at a small copy buffer whatever the chunk size, and chunks written
+ * concurrently never overlap in the file. Completed images go through the
+ * image variant pipeline, other files are moved under {@code files/} and
+ * named after their SHA-256.
+ *
+ * Only the uses this protocol exists for are accepted: video, CSV imports
+ * and images, each with a matching extension and declared content type.
+ * Stored files are public, and everything but raster images is served as
+ * a download, see {@link UploadFileServer}. An owner can have at most
+ * {@code max-open-sessions-per-owner} unfinished sessions holding at most
+ * {@code max-open-bytes-per-owner} between them, since each one reserves
+ * its full size on disk when it starts.
+ *
+ * Session files live on the node that started the session, so clients
+ * need to reach the same node for the whole upload.
+ */
+@Service
+public class ChunkedUploadService {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedUploadService.class);
+
+    static final String FILES = "files";
+
+    // Bounds the received set, and so the session document
+    private static final long MAX_CHUNKS = 10_000;
+
+    // Accepted extensions and the content types each may be declared with
+    private static final Map<String, Set<String>> ACCEPTED = Map.of(
+        "mp4", Set.of("video/mp4"),
+        "m4v", Set.of("video/mp4", "video/x-m4v"),
+        "mov", Set.of("video/quicktime"),
+        "webm", Set.of("video/webm"),
+        // Browsers on Windows declare CSV files as Excel
+        "csv", Set.of("text/csv", "application/vnd.ms-excel"),
+        "jpg", Set.of("image/jpeg"),
+        "jpeg", Set.of("image/jpeg"),
+        "png", Set.of("image/png"),
+        "gif", Set.of("image/gif"),
+        "webp", Set.of("image/webp"));
+
+    private final MongoTemplate mongoTemplate;
+    private final ImageVariantService imageVariantService;
+    private final MeterRegistry meterRegistry;
+    private final Path uploadLocation;
+    private final Path sessionLocation;
+    private final long maxFileSize;
+    private final long chunkSize;
+    private final int maxOpenSessionsPerOwner;
+    private final long maxOpenBytesPerOwner;
+    private final Duration sessionTtl;
+    private final Duration completedRetention;
+
+    public ChunkedUploadService(
+            MongoTemplate mongoTemplate,
+            ImageVariantService imageVariantService,
+            MeterRegistry meterRegistry,
+            @Value("${file.upload-dir:uploads}") String uploadDir,
+            @Value("${upload.chunked.max-file-size:512MB}") DataSize maxFileSize,
+            @Value("${upload.chunked.chunk-size:8MB}") DataSize chunkSize,
+            @Value("${upload.chunked.max-open-sessions-per-owner:3}") int maxOpenSessionsPerOwner,
+            @Value("${upload.chunked.max-open-bytes-per-owner:1GB}") DataSize maxOpenBytesPerOwner,
+            @Value("${upload.chunked.session-ttl:PT24H}") Duration sessionTtl,
+            @Value("${upload.chunked.completed-retention:P1D}") Duration completedRetention) {
+        this.mongoTemplate = mongoTemplate;
+        this.imageVariantService = imageVariantService;
+        this.meterRegistry = meterRegistry;
+        this.uploadLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // Inside the upload directory so completing is a rename; dot folders are not served
+        this.sessionLocation = uploadLocation.resolve(".sessions");
+        this.maxFileSize = maxFileSize.toBytes();
+        this.chunkSize = chunkSize.toBytes();
+        this.maxOpenSessionsPerOwner = maxOpenSessionsPerOwner;
+        this.maxOpenBytesPerOwner = maxOpenBytesPerOwner.toBytes();
+        this.sessionTtl = sessionTtl;
+        this.completedRetention = completedRetention;
+        try {
+            Files.createDirectories(sessionLocation);
+            Files.createDirectories(uploadLocation.resolve(FILES));
+        } catch (IOException e) {
+            throw new FileStorageException("Could not create the directory for resumable uploads.", e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException when the file is too large or not an accepted type
+     * @throws IllegalStateException when the owner already has as many open
+     *         sessions, or as many bytes in them, as allowed
+     */
+    public UploadSession start(String ownerEmail, String fileName, String contentType, long size) throws IOException {
+        if (!StringUtils.hasText(fileName)) {
+            throw new IllegalArgumentException("fileName is required");
+        }
+        if (size <= 0 || size > maxFileSize) {
+            throw new IllegalArgumentException("size must be between 1 and " + maxFileSize + " bytes");
+        }
+        if ((size + chunkSize - 1) / chunkSize > MAX_CHUNKS) {
+            throw new IllegalArgumentException("Files of " + size + " bytes need more than " + MAX_CHUNKS + " chunks of "
+                + chunkSize + " bytes");
+        }
+        String name = StringUtils.getFilename(StringUtils.cleanPath(fileName));
+        String type = acceptedType(name, contentType);
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setOwnerEmail(ownerEmail);
+        session.setFileName(name);
+        session.setContentType(type);
+        session.setSize(size);
+        session.setChunkSize(chunkSize);
+        session.setStatus(UploadSession.Status.UPLOADING);
+        session.setCreatedAt(now);
+        session.setUpdatedAt(now);
+        session.setExpiresAt(now.plus(sessionTtl));
+
+        // Inserted first and checked after, so concurrent starts cannot all slip under the limits
+        mongoTemplate.insert(session);
+        String exceeded = exceededLimit(ownerEmail, now);
+        if (exceeded != null) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(session.getId())), UploadSession.class);
+            meterRegistry.counter("uploads.chunked.sessions", "outcome", "limited").increment();
+            throw new IllegalStateException(exceeded);
+        }
+
+        // Sized up front: transferFrom writes nothing at a position past the end of the file
+        try (RandomAccessFile allocated = new RandomAccessFile(file(session.getId()).toFile(), "rw")) {
+            allocated.setLength(size);
+        } catch (IOException e) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").is(session.getId())), UploadSession.class);
+            throw e;
+        }
+        meterRegistry.counter("uploads.chunked.sessions", "outcome", "started").increment();
+        return session;
+    }
+
+    public UploadSession get(String ownerEmail, String id) {
+        return owned(ownerEmail, id);
+    }
+
+    /**
+     * Writes one chunk of {@code length} bytes at {@code offset}, which
+     * must be the start and length of one of the session's chunks. Writing
+     * the same chunk again, e.g. after a timeout, is harmless.
+     *
+     * @throws IOException when the body ends before {@code length} bytes;
+     *         the chunk is not recorded and should be sent again
+     */
+    public UploadSession writeChunk(String ownerEmail, String id, long offset, long length, InputStream body)
+            throws IOException {
+        UploadSession session = owned(ownerEmail, id);
+        if (session.getStatus() != UploadSession.Status.UPLOADING) {
+            throw new IllegalStateException("Upload " + id + " is " + session.getStatus().name().toLowerCase());
+        }
+        long chunk = session.getChunkSize();
+        if (chunk <= 0) {
+            throw new IllegalStateException("Upload " + id + " predates fixed-size chunks; start it again");
+        }
+        if (offset < 0 || offset >= session.getSize() || offset % chunk != 0) {
+            throw new IllegalArgumentException("Chunks start at multiples of " + chunk + " bytes within the file's "
+                + session.getSize() + " bytes");
+        }
+        long expected = Math.min(chunk, session.getSize() - offset);
+        if (length != expected) {
+            throw new IllegalArgumentException("Chunk at " + offset + " must be " + expected + " bytes");
+        }
+        int index = (int) (offset / chunk);
+
+        Path file = file(id);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("Upload " + id + " is held by another node");
+        }
+
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+             ReadableByteChannel source = Channels.newChannel(body)) {
+            while (written < length) {
+                long read = channel.transferFrom(source, offset + written, length - written);
+                if (read <= 0) {
+                    break;
+                }
+                written += read;
+            }
+        }
+        meterRegistry.counter("uploads.chunked.bytes").increment(written);
+        if (written < length) {
+            throw new IOException("Chunk at " + offset + " ended after " + written + " of " + length + " bytes");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        UploadSession updated = mongoTemplate.findAndModify(
+            new Query(Criteria.where("_id").is(id).and("status").is(UploadSession.Status.UPLOADING)),
+            new Update()
+                .addToSet("received", index)
+                .set("updatedAt", now)
+                .set("expiresAt", now.plus(sessionTtl)),
+            FindAndModifyOptions.options().returnNew(true),
+            UploadSession.class);
+        if (updated == null) {
+            throw new IllegalStateException("Upload " + id + " is no longer accepting chunks");
+        }
+        return updated;
+    }
+
+    /**
+     * Checks the upload and stores the file. Completing a completed upload
+     * returns it again.
+     *
+     * @throws IllegalStateException when bytes are still missing
+     * @throws IllegalArgumentException when the checksum does not match
+     */
+    public UploadSession complete(String ownerEmail, String id, String sha256) throws IOException {
+        UploadSession session = owned(ownerEmail, id);
+        if (session.getStatus() == UploadSession.Status.COMPLETED) {
+            return session;
+        }
+        if (!StringUtils.hasText(sha256)) {
+            throw new IllegalArgumentException("sha256 is required");
+        }
+        List<UploadSession.Chunk> missing = missing(session);
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Upload " + id + " is missing " + missing.size() + " range(s), first at "
+                + missing.get(0).getOffset());
+        }
+
+        UploadSession claimed = mongoTemplate.findAndModify(
+            new Query(Criteria.where("_id").is(id).and("status").is(UploadSession.Status.UPLOADING)),
+            new Update().set("status", UploadSession.Status.COMPLETING).set("updatedAt", LocalDateTime.now()),
+            FindAndModifyOptions.options().returnNew(true),
+            UploadSession.class);
+        if (claimed == null) {
+            throw new IllegalStateException("Upload " + id + " is already being completed");
+        }
+
+        Path file = file(id);
+        try {
+            String actual = ImageVariantService.sha256(file);
+            if (!actual.equalsIgnoreCase(sha256.trim())) {
+                meterRegistry.counter("uploads.chunked.sessions", "outcome", "checksum_mismatch").increment();
+                throw new IllegalArgumentException("Checksum does not match, expected " + sha256 + " but got " + actual);
+            }
+
+            String url = store(file, claimed, actual.toLowerCase());
+            LocalDateTime now = LocalDateTime.now();
+            UploadSession completed = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(id)),
+                new Update()
+                    .set("status", UploadSession.Status.COMPLETED)
+                    .set("url", url)
+                    .set("updatedAt", now)
+                    .set("expiresAt", now.plus(completedRetention)),
+                FindAndModifyOptions.options().returnNew(true),
+                UploadSession.class);
+            meterRegistry.counter("uploads.chunked.sessions", "outcome", "completed").increment();
+            return completed;
+        } catch (IOException | RuntimeException e) {
+            // Back to uploading, the client may resend chunks and complete again
+            mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(id).and("status").is(UploadSession.Status.COMPLETING)),
+                new Update().set("status", UploadSession.Status.UPLOADING),
+                UploadSession.class);
+            throw e;
+        }
+    }
+
+    public void abort(String ownerEmail, String id) throws IOException {
+        owned(ownerEmail, id);
+        mongoTemplate.remove(new Query(Criteria.where("_id").is(id)), UploadSession.class);
+        Files.deleteIfExists(file(id));
+        meterRegistry.counter("uploads.chunked.sessions", "outcome", "aborted").increment();
+    }
+
+    // Byte ranges of the chunks not received yet, in file order, neighbours merged
+    public static List<UploadSession.Chunk> missing(UploadSession session) {
+        List<UploadSession.Chunk> missing = new ArrayList<>();
+        long size = session.getChunkSize();
+        if (size <= 0) {
+            // Started before fixed-size chunks, nothing it recorded counts
+            missing.add(new UploadSession.Chunk(0, session.getSize()));
+            return missing;
+        }
+        BitSet received = new BitSet();
+        session.getReceived().forEach(received::set);
+
+        int count = (int) ((session.getSize() + size - 1) / size);
+        int first = received.nextClearBit(0);
+        while (first < count) {
+            int next = received.nextSetBit(first);
+            int end = next < 0 || next > count ? count : next;
+            long offset = first * size;
+            missing.add(new UploadSession.Chunk(offset, Math.min(end * size, session.getSize()) - offset));
+            first = received.nextClearBit(end);
+        }
+        return missing;
+    }
+
+    /**
+     * Deletes session files whose session is gone or past its expiry. The
+     * TTL index removes the session documents themselves.
+     */
+    @Scheduled(fixedDelayString = "${upload.chunked.sweep-interval:PT15M}")
+    public void sweep() {
+        Map<String, Path> files = new HashMap<>();
+        try (DirectoryStream<Path> listing = Files.newDirectoryStream(sessionLocation)) {
+            listing.forEach(file -> files.put(file.getFileName().toString(), file));
+        } catch (IOException e) {
+            logger.warn("Failed to list resumable upload files: {}", e.getMessage());
+            return;
+        }
+        if (files.isEmpty()) {
+            return;
+        }
+
+        Query live = new Query(Criteria.where("_id").in(files.keySet())
+            .and("status").ne(UploadSession.Status.COMPLETED)
+            .and("expiresAt").gt(LocalDateTime.now()));
+        live.fields().include("_id");
+        mongoTemplate.find(live, UploadSession.class).forEach(session -> files.remove(session.getId()));
+
+        for (Path file : files.values()) {
+            try {
+                Files.deleteIfExists(file);
+                meterRegistry.counter("uploads.chunked.sessions", "outcome", "expired").increment();
+            } catch (IOException e) {
+                logger.warn("Failed to delete abandoned upload {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+    }
+
+    private String store(Path file, UploadSession session, String sha256) throws IOException {
+        if (session.getContentType() != null && session.getContentType().startsWith("image/")) {
+            ImageAsset asset = imageVariantService.ingest(file, session.getFileName(), session.getOwnerEmail());
+            return asset.getUrl();
+        }
+
+        String extension = StringUtils.getFilenameExtension(session.getFileName());
+        String fileName = sha256
+            + (extension != null && extension.matches("[A-Za-z0-9]{1,8}") ? "." + extension.toLowerCase() : "");
+        // Same hash, same bytes: replacing an earlier upload of the same file is harmless
+        Files.move(file, uploadLocation.resolve(FILES).resolve(fileName),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return "/uploads/" + FILES + "/" + fileName;
+    }
+
+    // Open sessions of the owner against the limits, counting the one just started
+    private String exceededLimit(String ownerEmail, LocalDateTime now) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("ownerEmail").is(ownerEmail)
+                .and("status").ne(UploadSession.Status.COMPLETED)
+                .and("expiresAt").gt(now)),
+            Aggregation.group().count().as("sessions").sum("size").as("bytes"));
+        Document open = mongoTemplate.aggregate(aggregation, UploadSession.class, Document.class).getUniqueMappedResult();
+        if (open == null) {
+            return null;
+        }
+        if (((Number) open.get("sessions")).intValue() > maxOpenSessionsPerOwner) {
+            return "At most " + maxOpenSessionsPerOwner + " uploads can be open at once; complete or abort one first";
+        }
+        if (((Number) open.get("bytes")).longValue() > maxOpenBytesPerOwner) {
+            return "Open uploads can hold at most " + maxOpenBytesPerOwner + " bytes; complete or abort one first";
+        }
+        return null;
+    }
+
+    /**
+     * The declared content type without parameters.
+     *
+     * @throws IllegalArgumentException unless the extension is accepted and
+     *         the content type is one it may be declared with
+     */
+    private static String acceptedType(String fileName, String contentType) {
+        String extension = StringUtils.getFilenameExtension(fileName);
+        Set<String> types = extension == null ? null : ACCEPTED.get(extension.toLowerCase(Locale.ROOT));
+        if (types == null) {
+            throw new IllegalArgumentException("Only video (mp4, m4v, mov, webm), CSV and image (jpg, png, gif, webp)"
+                + " files can be uploaded this way");
+        }
+        String type = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase(Locale.ROOT);
+        if (!types.contains(type)) {
+            throw new IllegalArgumentException("A ." + extension.toLowerCase(Locale.ROOT) + " file must be sent as "
+                + String.join(" or ", types));
+        }
+        return type;
+    }
+
+    private UploadSession owned(String ownerEmail, String id) {
+        UploadSession session = mongoTemplate.findById(id, UploadSession.class);
+        if (session == null || !session.getOwnerEmail().equals(ownerEmail)) {
+            throw new ResourceNotFoundException("Upload session not found: " + id);
+        }
+        return session;
+    }
+
+    private Path file(String id) {
+        Path file = sessionLocation.resolve(id).normalize();
+        if (!file.getParent().equals(sessionLocation)) {
+            throw new ResourceNotFoundException("Upload session not found: " + id);
+        }
+        return file;
+    }
+}
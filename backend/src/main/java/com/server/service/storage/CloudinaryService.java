@@ -1,70 +1,110 @@
 package com.server.service.storage;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
-import lombok.RequiredArgsConstructor;
+import com.server.dto.common.ImageUploadResult;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
+/**
+ * Uploads images to the configured {@link ImageUploadProvider}. Each upload
+ * is first moved to a staging file, which for a multipart part already
+ * spooled to disk is a rename, and the provider streams it from there, so
+ * the image bytes are never held on the heap. A batch is uploaded on the
+ * upload executor, at most {@code upload.executor.max-concurrency} files
+ * at a time, and reports a result per file.
+ */
 @Service
-@RequiredArgsConstructor
 public class CloudinaryService {
+    private static final Logger logger = LoggerFactory.getLogger(CloudinaryService.class);
 
-    private final Cloudinary cloudinary;
+    private final ImageUploadProvider provider;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Path stagingLocation;
 
-    public Map<String, String> uploadImage(MultipartFile file, String folder) throws IOException {
+    public CloudinaryService(
+            ImageUploadProvider provider,
+            @Qualifier("uploadExecutor") ExecutorService executor,
+            MeterRegistry meterRegistry,
+            @Value("${upload.staging-dir:${java.io.tmpdir}/upload-staging}") String stagingDir) {
+        this.provider = provider;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.stagingLocation = Paths.get(stagingDir).toAbsolutePath().normalize();
         try {
-            Map<String, Object> options = new HashMap<>();
-            if (folder != null && !folder.isEmpty()) {
-                options.put("folder", folder);
-            }
-            
-            Map<?, ?> uploadResult = cloudinary.uploader()
-                .upload(file.getBytes(), options);
+            Files.createDirectories(stagingLocation);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create the upload staging directory " + stagingLocation, e);
+        }
+    }
+
+    public Map<String, String> uploadImage(MultipartFile file, String folder) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File " + file.getOriginalFilename() + " is empty");
+        }
 
-            Map<String, String> result = new HashMap<>();
-            result.put("publicId", (String) uploadResult.get("public_id"));
-            result.put("url", (String) uploadResult.get("secure_url"));
-            result.put("format", (String) uploadResult.get("format"));
-            result.put("width", String.valueOf(uploadResult.get("width")));
-            result.put("height", String.valueOf(uploadResult.get("height")));
-            
+        Path staged = stagingLocation.resolve(UUID.randomUUID() + ".part");
+        try {
+            file.transferTo(staged);
+            Map<String, String> result = provider.upload(staged, file.getOriginalFilename(), folder);
+            meterRegistry.counter("uploads.images", "outcome", "uploaded").increment();
             return result;
         } catch (IOException e) {
-            throw new IOException("Failed to upload image to Cloudinary", e);
+            meterRegistry.counter("uploads.images", "outcome", "failed").increment();
+            throw new IOException("Failed to upload image " + file.getOriginalFilename() + ": " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(staged);
         }
     }
 
-    public List<Map<String, String>> uploadMultipleImages(List<MultipartFile> files, String folder) {
-        List<Map<String, String>> results = new ArrayList<>();
+    /**
+     * Uploads the files concurrently; results are in the order of the files
+     * and a failed file does not stop the others.
+     */
+    public List<ImageUploadResult> uploadMultipleImages(List<MultipartFile> files, String folder) {
+        List<CompletableFuture<ImageUploadResult>> uploads = new ArrayList<>(files.size());
         for (MultipartFile file : files) {
-            try {
-                Map<String, String> result = uploadImage(file, folder);
-                results.add(result);
-            } catch (IOException e) {
-                // Log error but continue with remaining files
-                e.printStackTrace();
-            }
+            uploads.add(CompletableFuture.supplyAsync(() -> uploadOne(file, folder), executor));
+        }
+
+        List<ImageUploadResult> results = new ArrayList<>(uploads.size());
+        for (CompletableFuture<ImageUploadResult> upload : uploads) {
+            results.add(upload.join());
         }
         return results;
     }
 
     public Map<String, String> deleteImage(String publicId) throws IOException {
         try {
-            Map<?, ?> result = cloudinary.uploader()
-                .destroy(publicId, ObjectUtils.emptyMap());
-            
-            Map<String, String> response = new HashMap<>();
-            response.put("result", (String) result.get("result"));
-            return response;
+            return provider.delete(publicId);
         } catch (IOException e) {
-            throw new IOException("Failed to delete image from Cloudinary", e);
+            throw new IOException("Failed to delete image " + publicId, e);
+        }
+    }
+
+    private ImageUploadResult uploadOne(MultipartFile file, String folder) {
+        try {
+            return ImageUploadResult.uploaded(file.getOriginalFilename(), uploadImage(file, folder));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to upload image {}: {}", file.getOriginalFilename(), e.getMessage());
+            return ImageUploadResult.failed(file.getOriginalFilename(), e.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
@@ -4,19 +4,22 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.server.model.storage.ImageAsset;
+
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
 
 @Service
 public class ImageService {
     
     private final Path rootLocation;
+    private final ImageVariantService imageVariantService;
 
-    public ImageService(@Value("${app.upload.dir}") String uploadDir) {
+    public ImageService(@Value("${app.upload.dir}") String uploadDir, ImageVariantService imageVariantService) {
         this.rootLocation = Paths.get(uploadDir);
+        this.imageVariantService = imageVariantService;
         try {
             Files.createDirectories(rootLocation);
         } catch (IOException e) {
@@ -24,15 +27,15 @@ public class ImageService {
         }
     }
 
+    // Returns the original's path under the upload directory; variants are rendered in the background
     public String saveImage(MultipartFile file) {
         try {
             if (file.isEmpty()) {
                 throw new RuntimeException("Failed to store empty file");
             }
-            
-            String filename = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Files.copy(file.getInputStream(), this.rootLocation.resolve(filename));
-            return filename;
+
+            ImageAsset asset = imageVariantService.ingest(file, null);
+            return asset.getUrl().substring("/uploads/".length());
             
         } catch (IOException e) {
             throw new RuntimeException("Failed to store file", e);
@@ -44,10 +47,14 @@ public class ImageService {
     }
 
     public void deleteImage(String filename) {
+        if (ImageVariantService.isContentAddressed(filename)) {
+            // May be shared with other uploads of the same image
+            return;
+        }
         try {
             Files.deleteIfExists(this.rootLocation.resolve(filename));
         } catch (IOException e) {
             throw new RuntimeException("Failed to delete file", e);
         }
     }
-} 
\ No newline at end of file
+}
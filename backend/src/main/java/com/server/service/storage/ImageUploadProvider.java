@@ -0,0 +1,17 @@
+package com.server.service.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Where uploaded images end up. Uploads are read from a staged file so a
+ * provider can stream them instead of holding the bytes on the heap.
+ * Results use the keys publicId, url, format, width and height.
+ */
+public interface ImageUploadProvider {
+
+    Map<String, String> upload(Path file, String originalFileName, String folder) throws IOException;
+
+    Map<String, String> delete(String publicId) throws IOException;
+}
@@ -0,0 +1,442 @@
+package com.server.service.storage;
+
+import com.server.exception.FileStorageException;
+import com.server.model.storage.ImageAsset;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stores uploaded images by content and renders their resized variants.
+ *
+ * An upload is hashed with SHA-256 while it is read from its staging file
+ * and stored once under {@code images/<hash>/original.<ext>}; uploading the
+ * same bytes again returns the existing {@link ImageAsset}. The thumbnail,
+ * card and full variants are rendered on the image executor, never on the
+ * request thread, and recorded on the asset, so the asset is PROCESSING
+ * until they exist. Images the executor had no room for, or that were
+ * interrupted by a restart, are picked up again by {@link #resume}.
+ *
+ * The original is decoded once, subsampled to about the size of the
+ * largest variant, and each variant is scaled from the next larger one.
+ * Images with transparency are written as PNG, everything else as JPEG.
+ */
+@Service
+public class ImageVariantService {
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    static final String ROOT = "images";
+    static final String ORIGINAL = "original";
+    private static final String URL_PREFIX = "/uploads/";
+    private static final Pattern ADDRESSED = Pattern.compile(ROOT + "/([0-9a-f]{64})(/|$)");
+
+    // Longest edge of each variant, largest first; smaller images are not enlarged
+    private static final Map<String, Integer> VARIANTS = new LinkedHashMap<>();
+    static {
+        VARIANTS.put("full", 1600);
+        VARIANTS.put("card", 480);
+        VARIANTS.put("thumbnail", 160);
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    private final Path uploadLocation;
+    private final Path stagingLocation;
+    private final float jpegQuality;
+    private final Set<String> rendering = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantService(
+            MongoTemplate mongoTemplate,
+            @Qualifier("imageExecutor") ExecutorService executor,
+            MeterRegistry meterRegistry,
+            @Value("${file.upload-dir:uploads}") String uploadDir,
+            @Value("${images.pipeline.jpeg-quality:0.82}") float jpegQuality) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.uploadLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        // Inside the upload directory so moving a staged upload into place is a rename
+        this.stagingLocation = uploadLocation.resolve(".staging");
+        this.jpegQuality = jpegQuality;
+        try {
+            Files.createDirectories(uploadLocation.resolve(ROOT));
+            Files.createDirectories(stagingLocation);
+        } catch (IOException e) {
+            throw new FileStorageException("Could not create the directory where the uploaded images will be stored.", e);
+        }
+    }
+
+    public ImageAsset ingest(MultipartFile file, String ownerEmail) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("File " + file.getOriginalFilename() + " is empty");
+        }
+        Path staged = stagingLocation.resolve(UUID.randomUUID() + ".part");
+        try {
+            file.transferTo(staged);
+            return ingest(staged, file.getOriginalFilename(), ownerEmail);
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    /**
+     * Stores a staged upload, taking it over: it is moved into place or
+     * deleted when the same bytes are already stored.
+     */
+    public ImageAsset ingest(Path staged, String originalFileName, String ownerEmail) throws IOException {
+        String hash = sha256(staged);
+        String id = ROOT + "/" + hash;
+
+        ImageAsset existing = mongoTemplate.findById(id, ImageAsset.class);
+        if (existing != null) {
+            Files.deleteIfExists(staged);
+            meterRegistry.counter("images.uploads", "outcome", "duplicate").increment();
+            return existing;
+        }
+
+        Header header = header(staged);
+        String extension = header != null ? header.extension : StringUtils.getFilenameExtension(originalFileName);
+        String fileName = ORIGINAL
+            + (extension != null && extension.matches("[A-Za-z0-9]{1,8}") ? "." + extension.toLowerCase() : "");
+        long bytes = Files.size(staged);
+
+        Path directory = uploadLocation.resolve(ROOT).resolve(hash);
+        Files.createDirectories(directory);
+        // Same hash, same bytes: replacing a concurrent copy is harmless
+        Files.move(staged, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+
+        ImageAsset asset = new ImageAsset();
+        asset.setId(id);
+        asset.setOwnerEmail(ownerEmail);
+        asset.setContentHash(hash);
+        asset.setBytes(bytes);
+        asset.setUrl(URL_PREFIX + id + "/" + fileName);
+        asset.setCreatedAt(LocalDateTime.now());
+        if (header != null) {
+            asset.setContentType(header.contentType);
+            asset.setWidth(header.width);
+            asset.setHeight(header.height);
+            asset.setStatus(ImageAsset.Status.PROCESSING);
+        } else {
+            asset.setContentType(Files.probeContentType(directory.resolve(fileName)));
+            asset.setStatus(ImageAsset.Status.FAILED);
+            asset.setError("Unsupported image format, only the original is served");
+        }
+
+        try {
+            mongoTemplate.insert(asset);
+        } catch (DuplicateKeyException e) {
+            meterRegistry.counter("images.uploads", "outcome", "duplicate").increment();
+            return mongoTemplate.findById(id, ImageAsset.class);
+        }
+        meterRegistry.counter("images.uploads", "outcome", "stored").increment();
+
+        if (asset.getStatus() == ImageAsset.Status.PROCESSING) {
+            submit(id);
+        }
+        return asset;
+    }
+
+    /**
+     * The local images among the given URLs, keyed by URL. URLs of other
+     * images are left out.
+     */
+    public Map<String, ImageAsset> findByUrls(Collection<String> urls) {
+        Map<String, String> idByUrl = new LinkedHashMap<>();
+        for (String url : urls) {
+            String id = idOf(url);
+            if (id != null) {
+                idByUrl.put(url, id);
+            }
+        }
+        if (idByUrl.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        Map<String, ImageAsset> byId = new LinkedHashMap<>();
+        mongoTemplate.find(new Query(Criteria.where("_id").in(new LinkedHashSet<>(idByUrl.values()))), ImageAsset.class)
+            .forEach(asset -> byId.put(asset.getId(), asset));
+
+        Map<String, ImageAsset> byUrl = new LinkedHashMap<>();
+        idByUrl.forEach((url, id) -> {
+            if (byId.containsKey(id)) {
+                byUrl.put(url, byId.get(id));
+            }
+        });
+        return byUrl;
+    }
+
+    // Content-addressed files can be shared by several uploads and are never deleted one by one
+    public static boolean isContentAddressed(String pathOrUrl) {
+        return pathOrUrl != null && idOf(pathOrUrl) != null;
+    }
+
+    @Scheduled(fixedDelayString = "${images.pipeline.resume-interval:PT1M}")
+    public void resume() {
+        Query stalled = new Query(Criteria.where("status").is(ImageAsset.Status.PROCESSING)
+                .and("createdAt").lt(LocalDateTime.now().minusMinutes(1)))
+            .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+            .limit(50);
+        stalled.fields().include("_id");
+        for (ImageAsset asset : mongoTemplate.find(stalled, ImageAsset.class)) {
+            submit(asset.getId());
+        }
+    }
+
+    private void submit(String id) {
+        if (!rendering.add(id)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    render(id);
+                } finally {
+                    rendering.remove(id);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rendering.remove(id);
+            logger.debug("Image executor is full, {} is rendered on the next resume", id);
+        }
+    }
+
+    private void render(String id) {
+        ImageAsset asset = mongoTemplate.findById(id, ImageAsset.class);
+        if (asset == null || asset.getStatus() != ImageAsset.Status.PROCESSING) {
+            return;
+        }
+
+        long started = System.nanoTime();
+        Path original = uploadLocation.resolve(asset.getUrl().substring(URL_PREFIX.length())).normalize();
+        try {
+            List<ImageAsset.Variant> variants = renderVariants(original, asset.getContentHash());
+            mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(id)),
+                new Update().set("status", ImageAsset.Status.READY).set("variants", variants),
+                ImageAsset.class);
+            meterRegistry.timer("images.variants", "outcome", "ready")
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to render variants of {}: {}", id, e.getMessage());
+            mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(id)),
+                new Update().set("status", ImageAsset.Status.FAILED).set("error", e.getMessage()),
+                ImageAsset.class);
+            meterRegistry.timer("images.variants", "outcome", "failed")
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<ImageAsset.Variant> renderVariants(Path original, String hash) throws IOException {
+        BufferedImage image;
+        try (ImageInputStream input = ImageIO.createImageInputStream(original.toFile())) {
+            ImageReader reader = reader(input);
+            if (reader == null) {
+                throw new IOException("Unsupported image format");
+            }
+            try {
+                int largest = VARIANTS.values().iterator().next();
+                int step = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / largest);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                image = reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+
+        boolean alpha = image.getColorModel().hasAlpha();
+        String extension = alpha ? "png" : "jpg";
+        String contentType = alpha ? "image/png" : "image/jpeg";
+        Path directory = original.getParent();
+
+        List<ImageAsset.Variant> variants = new ArrayList<>();
+        for (Map.Entry<String, Integer> variant : VARIANTS.entrySet()) {
+            image = scale(image, variant.getValue(), alpha);
+            String fileName = variant.getKey() + "." + extension;
+            long bytes = write(image, alpha, directory.resolve(fileName));
+            variants.add(new ImageAsset.Variant(variant.getKey(), URL_PREFIX + ROOT + "/" + hash + "/" + fileName,
+                image.getWidth(), image.getHeight(), bytes, contentType));
+        }
+        return variants;
+    }
+
+    // Halves in steps before the last scale, which keeps bilinear filtering smooth
+    private static BufferedImage scale(BufferedImage image, int maxEdge, boolean alpha) {
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage current = image;
+        do {
+            int width = Math.max(targetWidth, current.getWidth() / 2);
+            int height = Math.max(targetHeight, current.getHeight() / 2);
+            if (current.getWidth() <= targetWidth * 2 && current.getHeight() <= targetHeight * 2) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+
+            BufferedImage next = new BufferedImage(width, height,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (current.getWidth() != targetWidth || current.getHeight() != targetHeight);
+        return current;
+    }
+
+    // Written next to the target and moved over it, so a half-written variant is never served
+    private long write(BufferedImage image, boolean alpha, Path target) throws IOException {
+        Path temporary = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID());
+        try {
+            if (alpha) {
+                ImageIO.write(image, "png", temporary.toFile());
+            } else {
+                ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+                try (ImageOutputStream output = ImageIO.createImageOutputStream(temporary.toFile())) {
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                    param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                    writer.setOutput(output);
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(target);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream input = Files.newInputStream(file)) {
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Format and size from the image header, without decoding the pixels; null when not an image
+    private static Header header(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            ImageReader reader = reader(input);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                String format = reader.getFormatName().toLowerCase();
+                String[] mimeTypes = reader.getOriginatingProvider().getMIMETypes();
+                return new Header(
+                    "jpeg".equals(format) ? "jpg" : format,
+                    mimeTypes != null && mimeTypes.length > 0 ? mimeTypes[0] : "image/" + format,
+                    reader.getWidth(0),
+                    reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader reader(ImageInputStream input) {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        reader.setInput(input, true, true);
+        return reader;
+    }
+
+    private static String idOf(String pathOrUrl) {
+        Matcher matcher = ADDRESSED.matcher(pathOrUrl);
+        return matcher.find() ? ROOT + "/" + matcher.group(1) : null;
+    }
+
+    private static final class Header {
+        final String extension;
+        final String contentType;
+        final int width;
+        final int height;
+
+        Header(String extension, String contentType, int width, int height) {
+            this.extension = extension;
+            this.contentType = contentType;
+            this.width = width;
+            this.height = height;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.server.service.storage;
+
+import com.cloudinary.Cloudinary;
+import com.server.config.CloudinaryConfig;
+import com.server.model.storage.ImageAsset;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Lets browsers upload images straight to Cloudinary. {@link #sign} hands
+ * out upload parameters signed with the API secret for one public id in
+ * one folder, so the browser cannot choose where the image goes, and
+ * {@link #register} accepts the upload once Cloudinary's response
+ * signature for that public id and version checks out. The image bytes
+ * never pass through this server.
+ */
+@Service
+@ConditionalOnProperty(name = "upload.provider", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+public class SignedUploadService {
+
+    private static final String DEFAULT_FOLDER = "products";
+    private static final Pattern FOLDER = Pattern.compile("[A-Za-z0-9_-]+(/[A-Za-z0-9_-]+)*");
+
+    private final Cloudinary cloudinary;
+    private final CloudinaryConfig cloudinaryConfig;
+    private final MongoTemplate mongoTemplate;
+
+    public Map<String, Object> sign(String ownerEmail, String folder) {
+        String target = StringUtils.hasText(folder) ? folder.trim() : DEFAULT_FOLDER;
+        if (!FOLDER.matcher(target).matches()) {
+            throw new IllegalArgumentException("Invalid folder " + folder);
+        }
+
+        String publicId = UUID.randomUUID().toString();
+        long timestamp = Instant.now().getEpochSecond();
+        Map<String, Object> params = new TreeMap<>();
+        params.put("folder", target);
+        params.put("public_id", publicId);
+        params.put("timestamp", timestamp);
+        if (StringUtils.hasText(cloudinaryConfig.getUploadPreset())) {
+            params.put("upload_preset", cloudinaryConfig.getUploadPreset());
+        }
+        String signature = cloudinary.apiSignRequest(params, cloudinary.config.apiSecret);
+
+        LocalDateTime now = LocalDateTime.now();
+        ImageAsset asset = new ImageAsset();
+        asset.setId(target + "/" + publicId);
+        asset.setOwnerEmail(ownerEmail);
+        asset.setFolder(target);
+        asset.setStatus(ImageAsset.Status.PENDING);
+        asset.setCreatedAt(now);
+        asset.setExpiresAt(now.plus(cloudinaryConfig.getSignedUploadTtl()));
+        mongoTemplate.insert(asset);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("uploadUrl", "https://api.cloudinary.com/v1_1/" + cloudinary.config.cloudName + "/image/upload");
+        response.put("apiKey", cloudinary.config.apiKey);
+        response.put("cloudName", cloudinary.config.cloudName);
+        response.put("folder", target);
+        response.put("publicId", publicId);
+        response.put("timestamp", timestamp);
+        response.put("uploadPreset", params.get("upload_preset"));
+        response.put("signature", signature);
+        response.put("expiresAt", asset.getExpiresAt());
+        return response;
+    }
+
+    /**
+     * Registers a finished direct upload. Registering the same upload again
+     * returns the stored asset.
+     *
+     * @param publicId the full public id returned by Cloudinary, folder included
+     * @throws IllegalArgumentException when the upload was not signed for
+     *         this owner, has expired or its signature does not match
+     */
+    public ImageAsset register(String ownerEmail, String publicId, String version, String signature) {
+        if (!StringUtils.hasText(publicId) || !StringUtils.hasText(version) || !StringUtils.hasText(signature)) {
+            throw new IllegalArgumentException("publicId, version and signature are required");
+        }
+
+        ImageAsset asset = mongoTemplate.findById(publicId, ImageAsset.class);
+        if (asset == null || !asset.getOwnerEmail().equals(ownerEmail)) {
+            throw new IllegalArgumentException("No signed upload " + publicId);
+        }
+        if (asset.getStatus() == ImageAsset.Status.REGISTERED) {
+            return asset;
+        }
+        if (asset.getExpiresAt() != null && asset.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Signed upload " + publicId + " has expired");
+        }
+        if (!cloudinary.verifyApiResponseSignature(publicId, version, signature)) {
+            throw new IllegalArgumentException("Upload signature does not match");
+        }
+
+        ImageAsset registered = mongoTemplate.findAndModify(
+            new Query(Criteria.where("_id").is(publicId).and("status").is(ImageAsset.Status.PENDING)),
+            new Update()
+                .set("status", ImageAsset.Status.REGISTERED)
+                .set("version", version)
+                .set("url", cloudinary.url().secure(true).version(version).generate(publicId))
+                .set("registeredAt", LocalDateTime.now())
+                .unset("expiresAt"),
+            FindAndModifyOptions.options().returnNew(true),
+            ImageAsset.class);
+        // Lost a race with a concurrent registration of the same upload
+        return registered != null ? registered : mongoTemplate.findById(publicId, ImageAsset.class);
+    }
+}
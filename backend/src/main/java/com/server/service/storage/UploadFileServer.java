@@ -0,0 +1,295 @@
+package com.server.service.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Serves {@code /uploads/**} from the upload directory. Uploaded files are
+ * never rewritten in place (names are UUIDs or content hashes), so every
+ * response is cacheable for a year and marked immutable. Nothing is read
+ * to compute an ETag: content-addressed files, the image originals under
+ * {@code images/<sha256>/} and completed resumable uploads under
+ * {@code files/<sha256>.<ext>}, are tagged with the hash in their path,
+ * which was computed when they were written; other files with their size
+ * and modification time.
+ *
+ * Conditional requests get a 304 and single byte ranges a 206; multiple
+ * ranges are answered with the whole file. Bodies are handed to Tomcat's
+ * sendfile when the connector supports it, so the kernel copies them to
+ * the socket; otherwise {@link FileChannel#transferTo} streams them to the
+ * response without reading the file into memory. Paths with a segment
+ * starting with a dot, such as staging files, are not served.
+ *
+ * Uploads are public and share the API's origin, so only raster images
+ * are served inline, with a type chosen by their extension. Everything
+ * else, including SVG, HTML and files the image pipeline could not decode,
+ * is sent as {@code application/octet-stream} with
+ * {@code Content-Disposition: attachment}. Every response also carries
+ * {@code Content-Security-Policy: sandbox}, so nothing served from here
+ * runs script with the API's cookies or storage.
+ */
+@Service
+public class UploadFileServer {
+
+    // Tomcat's sendfile request attributes, see org.apache.coyote.Constants
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    // By lower-case extension; no other type is served inline
+    private static final Map<String, String> INLINE_TYPES = Map.of(
+        "jpg", MediaType.IMAGE_JPEG_VALUE,
+        "jpeg", MediaType.IMAGE_JPEG_VALUE,
+        "png", MediaType.IMAGE_PNG_VALUE,
+        "gif", MediaType.IMAGE_GIF_VALUE,
+        "webp", "image/webp",
+        "avif", "image/avif");
+
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path uploadLocation;
+    private final MeterRegistry meterRegistry;
+
+    public UploadFileServer(@Value("${file.upload-dir:uploads}") String uploadDir, MeterRegistry meterRegistry) {
+        this.uploadLocation = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void serve(String relativePath, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long started = System.nanoTime();
+        int status = write(relativePath, request, response);
+        meterRegistry.timer("uploads.served", "status", String.valueOf(status))
+            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    private int write(String relativePath, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(relativePath);
+        BasicFileAttributes attributes = file == null ? null : attributes(file);
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return HttpServletResponse.SC_NOT_FOUND;
+        }
+
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = etag(file, length, lastModified);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", "sandbox");
+        String contentType = inlineType(file);
+        if (contentType == null) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString());
+        }
+
+        if (notModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return HttpServletResponse.SC_NOT_MODIFIED;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        int status = HttpServletResponse.SC_OK;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && length > 0 && ifRangeMatches(request, etag, lastModified)) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                status = HttpServletResponse.SC_PARTIAL_CONTENT;
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setStatus(status);
+        response.setContentType(contentType);
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return status;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the file after the request returns, straight from the page cache
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            meterRegistry.counter("uploads.served.bytes", "mode", "sendfile").increment(count);
+            return status;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+            meterRegistry.counter("uploads.served.bytes", "mode", "transfer").increment(count - remaining);
+        }
+        return status;
+    }
+
+    private Path resolve(String relativePath) {
+        if (relativePath == null || relativePath.isEmpty()) {
+            return null;
+        }
+        for (String segment : relativePath.split("/")) {
+            if (segment.startsWith(".")) {
+                return null;
+            }
+        }
+        Path file = uploadLocation.resolve(relativePath).normalize();
+        return file.startsWith(uploadLocation) ? file : null;
+    }
+
+    private static String inlineType(Path file) {
+        String extension = StringUtils.getFilenameExtension(file.getFileName().toString());
+        return extension == null ? null : INLINE_TYPES.get(extension.toLowerCase(Locale.ROOT));
+    }
+
+    private static BasicFileAttributes attributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private String etag(Path file, long length, long lastModified) {
+        String hash = contentHash(uploadLocation.relativize(file));
+        return "\"" + (hash != null ? hash : Long.toHexString(length) + "-" + Long.toHexString(lastModified)) + "\"";
+    }
+
+    // The SHA-256 a content-addressed path was named after, or null
+    private static String contentHash(Path relative) {
+        String stem = StringUtils.stripFilenameExtension(relative.getFileName().toString());
+        if (relative.getNameCount() == 3 && relative.getName(0).toString().equals(ImageVariantService.ROOT)
+                && stem.equals(ImageVariantService.ORIGINAL)) {
+            String hash = relative.getName(1).toString();
+            return SHA256.matcher(hash).matches() ? hash : null;
+        }
+        if (relative.getNameCount() == 2 && relative.getName(0).toString().equals(ChunkedUploadService.FILES)) {
+            return SHA256.matcher(stem).matches() ? stem : null;
+        }
+        return null;
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matches(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = dateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        // Header dates have second precision
+        return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"")) {
+            return ifRange.equals(etag);
+        }
+        long date = dateHeader(request, HttpHeaders.IF_RANGE);
+        return date >= 0 && lastModified / 1000 == date / 1000;
+    }
+
+    // Weak comparison, as If-None-Match asks for
+    private static boolean matches(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The first and last byte of a single range, an empty array for
+     * several ranges or a malformed header (serve everything), and null
+     * when the range lies outside the file.
+     */
+    private static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                return new long[] { Math.max(0, length - suffix), length - 1 };
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    private static long dateHeader(HttpServletRequest request, String name) {
+        try {
+            return request.getDateHeader(name);
+        } catch (IllegalArgumentException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.server.service.storage.impl;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import com.server.service.storage.ImageUploadProvider;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+// Passes the staged file itself, which the HTTP client streams from disk
+@Component
+@ConditionalOnProperty(name = "upload.provider", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CloudinaryImageUploadProvider implements ImageUploadProvider {
+
+    private final Cloudinary cloudinary;
+
+    @Override
+    public Map<String, String> upload(Path file, String originalFileName, String folder) throws IOException {
+        Map<String, Object> options = new HashMap<>();
+        if (folder != null && !folder.isEmpty()) {
+            options.put("folder", folder);
+        }
+
+        Map<?, ?> uploadResult = cloudinary.uploader().upload(file.toFile(), options);
+
+        Map<String, String> result = new HashMap<>();
+        result.put("publicId", (String) uploadResult.get("public_id"));
+        result.put("url", (String) uploadResult.get("secure_url"));
+        result.put("format", (String) uploadResult.get("format"));
+        result.put("width", String.valueOf(uploadResult.get("width")));
+        result.put("height", String.valueOf(uploadResult.get("height")));
+        return result;
+    }
+
+    @Override
+    public Map<String, String> delete(String publicId) throws IOException {
+        Map<?, ?> result = cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+
+        Map<String, String> response = new HashMap<>();
+        response.put("result", (String) result.get("result"));
+        return response;
+    }
+}
@@ -1,6 +1,8 @@
 package com.server.service.storage.impl;
 
+import com.server.model.storage.ImageAsset;
 import com.server.service.storage.FileStorageService;
+import com.server.service.storage.ImageVariantService;
 import com.server.exception.FileStorageException;
 import com.server.config.FileStorageConfig;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,11 +22,14 @@ public class FileStorageServiceImpl implements FileStorageService {
 
     private final Path fileStorageLocation;
     private final FileStorageConfig fileStorageConfig;
+    private final ImageVariantService imageVariantService;
 
     public FileStorageServiceImpl(
             @Value("${file.upload-dir:uploads}") String uploadDir,
-            FileStorageConfig fileStorageConfig) {
+            FileStorageConfig fileStorageConfig,
+            ImageVariantService imageVariantService) {
         this.fileStorageConfig = fileStorageConfig;
+        this.imageVariantService = imageVariantService;
         this.fileStorageLocation = Paths.get(uploadDir)
                 .toAbsolutePath().normalize();
 
@@ -41,6 +46,12 @@ public class FileStorageServiceImpl implements FileStorageService {
         String fileExtension = "";
         
         try {
+            // Images are stored once per content and get resized variants
+            if (file.getContentType() != null && file.getContentType().startsWith("image/")) {
+                ImageAsset asset = imageVariantService.ingest(file, null);
+                return fileStorageConfig.getBaseUrl() + "/" + asset.getUrl().substring("/uploads/".length());
+            }
+
             if (originalFileName.contains(".")) {
                 fileExtension = originalFileName.substring(originalFileName.lastIndexOf("."));
             }
@@ -69,6 +80,11 @@ public class FileStorageServiceImpl implements FileStorageService {
                 fileName = fileName.substring(fileStorageConfig.getBaseUrl().length() + 1);
             }
             
+            if (ImageVariantService.isContentAddressed(fileName)) {
+                // May be shared with other uploads of the same image
+                return;
+            }
+
             Path filePath = this.fileStorageLocation.resolve(fileName).normalize();
             Files.deleteIfExists(filePath);
         } catch (IOException ex) {
@@ -0,0 +1,49 @@
+package com.server.service.storage.impl;
+
+import com.server.model.storage.ImageAsset;
+import com.server.service.storage.ImageUploadProvider;
+import com.server.service.storage.ImageVariantService;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stand-in for Cloudinary in local development and tests: images go
+ * through the local variant pipeline and are served from {@code /uploads}.
+ * Local images are stored by content, so the folder is not used.
+ */
+@Component
+@ConditionalOnProperty(name = "upload.provider", havingValue = "local")
+@RequiredArgsConstructor
+public class LocalImageUploadProvider implements ImageUploadProvider {
+
+    private final ImageVariantService imageVariantService;
+
+    @Override
+    public Map<String, String> upload(Path file, String originalFileName, String folder) throws IOException {
+        ImageAsset asset = imageVariantService.ingest(file, originalFileName, null);
+
+        Map<String, String> result = new HashMap<>();
+        result.put("publicId", asset.getId());
+        result.put("url", asset.getUrl());
+        String url = asset.getUrl();
+        result.put("format", url.contains(".") ? url.substring(url.lastIndexOf('.') + 1) : null);
+        result.put("width", String.valueOf(asset.getWidth()));
+        result.put("height", String.valueOf(asset.getHeight()));
+        return result;
+    }
+
+    @Override
+    public Map<String, String> delete(String publicId) {
+        // Other uploads of the same image share the stored file
+        Map<String, String> response = new HashMap<>();
+        response.put("result", "ok");
+        return response;
+    }
+}
@@ -0,0 +1,533 @@
+package com.server.service.store;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.DBRef;
+import com.mongodb.bulk.BulkWriteError;
+import com.server.dto.order.OrderPlacementResult;
+import com.server.dto.order.OrderRequest;
+import com.server.exception.store.InsufficientStockException;
+import com.server.model.event.OutboxEvent;
+import com.server.model.inventory.StockReservation;
+import com.server.model.order.Order;
+import com.server.model.order.OrderItem;
+import com.server.model.store.Category;
+import com.server.model.store.Price;
+import com.server.model.store.products.Product;
+import com.server.service.event.OutboxService;
+import com.server.service.inventory.InventoryService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Places orders one at a time or in batches. Validation costs the same
+ * few queries whatever the batch size: replayed idempotency keys, the
+ * products and their prices are each read once with {@code $in}, followed
+ * by the categories of those products. Stock for every order is then
+ * reserved through {@link InventoryService}, the orders are written with
+ * one unordered bulk insert and the reservations of written orders are
+ * committed; orders that fail to insert give their stock back.
+ *
+ * Each order succeeds or fails on its own and the result lists every
+ * outcome in request order. An idempotency key that the store already used
+ * returns the order placed first; keys are unique per store, so stores
+ * never see each other's keys. The bulk insert writes raw documents and
+ * fires no mapping events, so a CREATED outbox event is recorded for the
+ * placed orders instead; rollups, cache eviction and notifications consume
+ * it after the response. Orders are written flagged as waiting for that
+ * event and the flag is cleared once it is recorded; a node dying in
+ * between leaves the flag set, and {@link #recoverCreatedEvents} records
+ * the event later. Events have ids derived from their orders, so
+ * recording one twice keeps the first.
+ */
+@Service
+public class OrderPlacementService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderPlacementService.class);
+
+    public static final String INITIAL_STATUS = "pending";
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+    private final InventoryService inventoryService;
+    private final OutboxService outboxService;
+    private final ExecutorService lookupExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int maxBatchSize;
+    private final Duration eventRecoveryDelay;
+
+    public OrderPlacementService(
+            MongoTemplate mongoTemplate,
+            InventoryService inventoryService,
+            OutboxService outboxService,
+            @Qualifier("lookupExecutor") ExecutorService lookupExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${order.placement.max-batch-size:500}") int maxBatchSize,
+            @Value("${order.placement.event-recovery-delay:PT1M}") Duration eventRecoveryDelay) {
+        this.mongoTemplate = mongoTemplate;
+        this.inventoryService = inventoryService;
+        this.outboxService = outboxService;
+        this.lookupExecutor = lookupExecutor;
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.eventRecoveryDelay = eventRecoveryDelay;
+    }
+
+    public OrderPlacementResult place(String storeId, OrderRequest request) {
+        return placeAll(storeId, List.of(request)).get(0);
+    }
+
+    /**
+     * @throws IllegalArgumentException when the batch is empty or larger
+     *         than {@code order.placement.max-batch-size}; problems with a
+     *         single order are reported in its result instead
+     */
+    public List<OrderPlacementResult> placeAll(String storeId, List<OrderRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one order is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch holds at most " + maxBatchSize + " orders");
+        }
+
+        OrderPlacementResult[] results = new OrderPlacementResult[requests.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String key = keyOf(requests.get(i));
+            String error = checkShape(requests.get(i));
+            if (error == null && key != null && !keys.add(key)) {
+                error = "Idempotency key " + key + " is repeated in the batch";
+            }
+            if (error != null) {
+                results[i] = OrderPlacementResult.rejected(key, error);
+            } else {
+                pending.add(i);
+            }
+        }
+
+        // Orders placed earlier under the same key are returned as they are
+        List<Order> confirm = new ArrayList<>();
+        Map<String, Order> placed = findByKeys(storeId, keys);
+        pending.removeIf(i -> {
+            String key = keyOf(requests.get(i));
+            Order existing = key == null ? null : placed.get(key);
+            if (existing == null) {
+                return false;
+            }
+            results[i] = replay(storeId, key, existing, confirm);
+            return true;
+        });
+
+        Catalog catalog = loadCatalog(storeId, productIds(requests, pending));
+        Map<Integer, Order> built = new LinkedHashMap<>();
+        for (int i : pending) {
+            try {
+                built.put(i, build(storeId, requests.get(i), catalog));
+            } catch (IllegalArgumentException e) {
+                results[i] = OrderPlacementResult.rejected(keyOf(requests.get(i)), e.getMessage());
+            }
+        }
+
+        List<Integer> accepted = reserve(storeId, built, results);
+        List<Order> toInsert = accepted.stream().map(built::get).collect(Collectors.toList());
+        Map<Integer, BulkWriteError> failures = insert(toInsert);
+
+        List<Order> created = new ArrayList<>();
+        List<Order> release = new ArrayList<>();
+        Map<Integer, String> raced = new LinkedHashMap<>();
+        for (int j = 0; j < toInsert.size(); j++) {
+            Order order = toInsert.get(j);
+            int i = accepted.get(j);
+            BulkWriteError failure = failures.get(j);
+            if (failure == null) {
+                created.add(order);
+                results[i] = OrderPlacementResult.created(order.getIdempotencyKey(), order);
+            } else if (failure.getCode() == DUPLICATE_KEY && order.getIdempotencyKey() != null) {
+                raced.put(i, order.getIdempotencyKey());
+            } else {
+                release.add(order);
+                results[i] = OrderPlacementResult.rejected(order.getIdempotencyKey(),
+                    "Failed to save order: " + failure.getMessage());
+            }
+        }
+
+        // Placed concurrently under the same key; both requests share the store-scoped reservation
+        Map<String, Order> winners = findByKeys(storeId, raced.values());
+        raced.forEach((i, key) -> {
+            Order existing = winners.get(key);
+            if (existing == null) {
+                release.add(built.get(i));
+            }
+            results[i] = existing == null
+                ? OrderPlacementResult.rejected(key, "Order with idempotency key " + key + " could not be saved")
+                : replay(storeId, key, existing, confirm);
+        });
+
+        List<Order> commit = new ArrayList<>(created);
+        commit.addAll(confirm);
+        settle(storeId, commit, release);
+        recordCreated(created);
+
+        for (OrderPlacementResult result : results) {
+            meterRegistry.counter("orders.placement", "outcome", result.getOutcome().name().toLowerCase(Locale.ROOT))
+                .increment();
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Records the CREATED events of orders still flagged as waiting for one
+     * well after they were placed, i.e. whose placement stopped between
+     * writing the orders and recording their events.
+     */
+    @Scheduled(fixedDelayString = "${order.placement.event-recovery-interval:PT30S}")
+    public void recoverCreatedEvents() {
+        Query query = new Query(Criteria.where("createdEventPending").is(true)
+            .and("createdAt").lt(LocalDateTime.now().minus(eventRecoveryDelay)))
+            .limit(maxBatchSize);
+        query.fields().include("storeId");
+        List<Order> orders = mongoTemplate.find(query, Order.class);
+        if (orders.isEmpty()) {
+            return;
+        }
+        recordCreated(orders);
+        logger.warn("Recorded missing CREATED events of {} orders", orders.size());
+    }
+
+    private void recordCreated(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        outboxService.recordOnce(orders.stream()
+            .map(order -> OutboxEvent.orderCreated(order.getId(), order.getStoreId()))
+            .collect(Collectors.toList()));
+        mongoTemplate.updateMulti(
+            new Query(Criteria.where("_id").in(orders.stream().map(Order::getId).collect(Collectors.toList()))),
+            new Update().unset("createdEventPending"),
+            Order.class);
+    }
+
+    // Reservations of different orders are independent and are taken concurrently
+    private List<Integer> reserve(String storeId, Map<Integer, Order> built, OrderPlacementResult[] results) {
+        Map<Integer, CompletableFuture<StockReservation>> reservations = new LinkedHashMap<>();
+        built.forEach((i, order) -> reservations.put(i, CompletableFuture.supplyAsync(
+            () -> inventoryService.reserve(storeId, reference(order), quantities(order)), lookupExecutor)));
+
+        List<Integer> accepted = new ArrayList<>();
+        reservations.forEach((i, future) -> {
+            Order order = built.get(i);
+            String key = order.getIdempotencyKey();
+            try {
+                StockReservation reservation = future.join();
+                order.setReservationId(reservation.getId());
+                accepted.add(i);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof InsufficientStockException || cause instanceof IllegalArgumentException) {
+                    results[i] = OrderPlacementResult.rejected(key, cause.getMessage());
+                } else {
+                    logger.error("Failed to reserve stock for order {} in store {}: {}",
+                        order.getId(), storeId, cause.getMessage());
+                    results[i] = OrderPlacementResult.rejected(key, "Failed to reserve stock");
+                }
+            }
+        });
+        return accepted;
+    }
+
+    // Keyed by position in the list; an empty map means every order was written
+    private Map<Integer, BulkWriteError> insert(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Map.of();
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(
+            BulkOperations.BulkMode.UNORDERED, mongoTemplate.getCollectionName(Order.class));
+        for (Order order : orders) {
+            Document document = new Document();
+            mongoTemplate.getConverter().write(order, document);
+            bulk.insert(document);
+        }
+
+        try {
+            bulk.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, BulkWriteError> failures = new HashMap<>();
+            e.getErrors().forEach(error -> failures.put(error.getIndex(), error));
+            return failures;
+        }
+    }
+
+    /**
+     * Commits the stock of placed orders and gives back the stock of orders
+     * that were not written. Replayed orders are committed again, which is a
+     * no-op unless an earlier attempt failed after writing the order. A
+     * commit that still fails is left to the inventory expiry sweep, which
+     * commits held reservations that a written order points at.
+     */
+    private void settle(String storeId, List<Order> commit, List<Order> release) {
+        List<CompletableFuture<Void>> settling = new ArrayList<>();
+        for (Order order : commit) {
+            settling.add(settle(order, () -> inventoryService.commit(storeId, order.getReservationId())));
+        }
+        for (Order order : release) {
+            settling.add(settle(order, () -> inventoryService.release(storeId, order.getReservationId())));
+        }
+        CompletableFuture.allOf(settling.toArray(new CompletableFuture[0])).join();
+    }
+
+    private CompletableFuture<Void> settle(Order order, Runnable action) {
+        if (order.getReservationId() == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(action, lookupExecutor).exceptionally(e -> {
+            logger.warn("Failed to settle reservation {} of order {}: {}",
+                order.getReservationId(), order.getId(), e.getMessage());
+            return null;
+        });
+    }
+
+    private Order build(String storeId, OrderRequest request, Catalog catalog) {
+        List<OrderItem> items = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderRequest.Line line : request.getItems()) {
+            String productId = line.getProductId();
+            Product product = catalog.products.get(productId);
+            if (product == null) {
+                throw new IllegalArgumentException("Product " + productId + " not found in store " + storeId);
+            }
+            if (product.isArchived()) {
+                throw new IllegalArgumentException("Product " + productId + " is archived");
+            }
+
+            BigDecimal unitPrice = catalog.unitPrice(product, request.getCurrency());
+            if (unitPrice == null) {
+                throw new IllegalArgumentException("Product " + productId + " has no price"
+                    + (request.getCurrency() == null ? "" : " in " + request.getCurrency()));
+            }
+            if (line.getUnitPrice() != null && line.getUnitPrice().compareTo(unitPrice) != 0) {
+                throw new IllegalArgumentException("Price of product " + productId + " is now " + unitPrice);
+            }
+
+            BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(line.getQuantity()));
+            OrderItem item = new OrderItem();
+            item.setProductId(productId);
+            item.setQuantity(line.getQuantity());
+            item.setPrice(unitPrice);
+            item.setTotalPrice(lineTotal);
+            item.setStoreId(storeId);
+            item.setCategory(catalog.categoryNames.get(productId));
+            items.add(item);
+            total = total.add(lineTotal);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Order order = new Order();
+        order.setId(new ObjectId().toHexString());
+        order.setStoreId(storeId);
+        order.setCustomerId(request.getCustomerId());
+        order.setStatus(INITIAL_STATUS);
+        order.setItems(items);
+        order.setTotalAmount(total);
+        order.setIdempotencyKey(keyOf(request));
+        order.setCreatedEventPending(true);
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        return order;
+    }
+
+    /**
+     * Loads the products with their category names and current prices.
+     * Products and prices are read in parallel, the categories once both
+     * are known.
+     */
+    private Catalog loadCatalog(String storeId, Set<String> productIds) {
+        Catalog catalog = new Catalog();
+        if (productIds.isEmpty()) {
+            return catalog;
+        }
+
+        Query productQuery = new Query(Criteria.where("_id").in(productIds).and("storeId").is(storeId));
+        productQuery.fields().include("storeId", "basePrice", "salePrice", "isArchived", "category");
+        CompletableFuture<List<Document>> products = CompletableFuture.supplyAsync(() -> mongoTemplate.find(
+            productQuery, Document.class, mongoTemplate.getCollectionName(Product.class)), lookupExecutor);
+
+        Query priceQuery = new Query(Criteria.where("productIds").in(productIds).and("storeId").is(storeId))
+            .with(Sort.by(Sort.Direction.DESC, "updatedAt"));
+        CompletableFuture<List<Price>> prices = CompletableFuture.supplyAsync(
+            () -> mongoTemplate.find(priceQuery, Price.class), lookupExecutor);
+
+        try {
+            CompletableFuture.allOf(products, prices).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to load products for order placement", e.getCause());
+        }
+
+        Map<String, String> categoryIds = new HashMap<>();
+        for (Document raw : products.join()) {
+            String productId = String.valueOf(raw.get("_id"));
+            Object category = raw.remove("category");
+            if (category instanceof DBRef) {
+                categoryIds.put(productId, String.valueOf(((DBRef) category).getId()));
+            }
+            catalog.products.put(productId, mongoTemplate.getConverter().read(Product.class, raw));
+        }
+
+        // Newest active price first, so the first one seen for a product wins
+        for (Price price : prices.join()) {
+            if (!price.isActive()) {
+                continue;
+            }
+            for (String productId : price.getProductIds()) {
+                if (productIds.contains(productId)) {
+                    catalog.prices.putIfAbsent(productId, price);
+                }
+            }
+        }
+
+        if (!categoryIds.isEmpty()) {
+            Query categoryQuery = new Query(Criteria.where("_id").in(new HashSet<>(categoryIds.values())));
+            categoryQuery.fields().include("name");
+            Map<String, String> names = mongoTemplate.find(categoryQuery, Category.class).stream()
+                .filter(category -> category.getName() != null)
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+            categoryIds.forEach((productId, categoryId) -> {
+                String name = names.get(categoryId);
+                if (name != null) {
+                    catalog.categoryNames.put(productId, name);
+                }
+            });
+        }
+        return catalog;
+    }
+
+    // Keys are unique per store, so other stores' orders never match
+    private Map<String, Order> findByKeys(String storeId, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return Map.of();
+        }
+        return mongoTemplate.find(
+                new Query(Criteria.where("storeId").is(storeId).and("idempotencyKey").in(keys)), Order.class).stream()
+            .collect(Collectors.toMap(Order::getIdempotencyKey, Function.identity()));
+    }
+
+    private static OrderPlacementResult replay(String storeId, String key, Order existing, List<Order> confirm) {
+        confirm.add(existing);
+        return OrderPlacementResult.duplicate(key, existing);
+    }
+
+    private static String checkShape(OrderRequest request) {
+        if (request == null || request.getItems() == null || request.getItems().isEmpty()) {
+            return "An order needs at least one item";
+        }
+        for (OrderRequest.Line line : request.getItems()) {
+            if (line == null || line.getProductId() == null || line.getProductId().isBlank()) {
+                return "Every item needs a productId";
+            }
+            if (line.getQuantity() <= 0) {
+                return "Quantity must be positive for product " + line.getProductId();
+            }
+        }
+        return null;
+    }
+
+    private static String keyOf(OrderRequest request) {
+        if (request == null || request.getIdempotencyKey() == null || request.getIdempotencyKey().isBlank()) {
+            return null;
+        }
+        return request.getIdempotencyKey();
+    }
+
+    private static Set<String> productIds(List<OrderRequest> requests, List<Integer> indexes) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (int i : indexes) {
+            requests.get(i).getItems().forEach(line -> ids.add(line.getProductId()));
+        }
+        return ids;
+    }
+
+    // Reservation references are unique per store; the prefix keeps order keys apart from other callers' references
+    private static String reference(Order order) {
+        return order.getIdempotencyKey() == null ? null : "order:" + order.getIdempotencyKey();
+    }
+
+    private static Map<String, Integer> quantities(Order order) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private static final class Catalog {
+        final Map<String, Product> products = new HashMap<>();
+        final Map<String, Price> prices = new HashMap<>();
+        final Map<String, String> categoryNames = new HashMap<>();
+
+        /**
+         * The linked price in the requested currency, or in the price's own
+         * default currency when none is requested, with an active discount
+         * applied. Products without a linked price fall back to their sale or
+         * base price, which carry no currency.
+         */
+        BigDecimal unitPrice(Product product, String currency) {
+            Price price = prices.get(product.getId());
+            if (price != null) {
+                String code = currency != null ? currency : price.getDefaultCurrency();
+                Price.DiscountInfo discount = price.getDiscounts() == null ? null : price.getDiscounts().get(code);
+                if (discount != null && discount.isActive() && discount.getDiscountedAmount() != null
+                        && isCurrent(discount.getStartDate(), discount.getEndDate())) {
+                    return discount.getDiscountedAmount();
+                }
+                BigDecimal amount = price.getAmounts() == null ? null : price.getAmounts().get(code);
+                if (amount != null) {
+                    return amount;
+                }
+            }
+            if (currency != null) {
+                return null;
+            }
+            return product.getSalePrice() != null ? product.getSalePrice() : product.getBasePrice();
+        }
+
+        private static boolean isCurrent(LocalDateTime start, LocalDateTime end) {
+            LocalDateTime now = LocalDateTime.now();
+            return (start == null || !now.isBefore(start)) && (end == null || now.isBefore(end));
+        }
+    }
+}
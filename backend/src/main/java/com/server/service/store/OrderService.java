@@ -1,23 +1,34 @@
 package com.server.service.store;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import com.server.dto.common.CursorPage;
+import com.server.dto.order.OrderFilter;
 import com.server.model.order.Order;
 import com.server.repository.order.OrderRepository;
+import com.server.util.CursorCodec;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class OrderService {
-    
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
+    private final MongoTemplate mongoTemplate;
 
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository, MongoTemplate mongoTemplate) {
         this.orderRepository = orderRepository;
-    }
-
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+        this.mongoTemplate = mongoTemplate;
     }
 
     public Order getOrder(String id) {
@@ -25,15 +36,67 @@ public class OrderService {
             .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
     }
 
-    public List<Order> getOrdersByCustomer(String customerId) {
-        return orderRepository.findByCustomerId(customerId);
-    }
+    /**
+     * Lists orders newest first using keyset pagination on (createdAt, _id),
+     * served by the compound indexes declared on {@link Order}. The cursor is
+     * the position of the last order of the previous page, so deep pages
+     * cost the same as the first one. Orders without createdAt are not
+     * listed.
+     */
+    public CursorPage<Order> findOrders(OrderFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter.getStoreId() != null) {
+            criteria.add(Criteria.where("storeId").is(filter.getStoreId()));
+        }
+        if (filter.getCustomerId() != null) {
+            criteria.add(Criteria.where("customerId").is(filter.getCustomerId()));
+        }
+        if (filter.getStatus() != null) {
+            criteria.add(Criteria.where("status").is(filter.getStatus()));
+        }
+        if (filter.getFrom() != null) {
+            criteria.add(Criteria.where("createdAt").gte(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            criteria.add(Criteria.where("createdAt").lte(filter.getTo()));
+        }
+        criteria.add(Criteria.where("createdAt").ne(null));
+
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = CursorCodec.decode(cursor, 2);
+            LocalDateTime createdAt = parseCursorTime(position[0]);
+            criteria.add(new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                new Criteria().andOperator(
+                    Criteria.where("createdAt").is(createdAt),
+                    Criteria.where("_id").lt(position[1]))));
+        }
+
+        Query query = new Query(new Criteria().andOperator(criteria.toArray(new Criteria[0])))
+            .with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("_id")))
+            .limit(pageSize + 1);
+
+        List<Order> orders = mongoTemplate.find(query, Order.class);
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = new ArrayList<>(orders.subList(0, pageSize));
+        }
 
-    public List<Order> getOrdersByStore(String storeId) {
-        return orderRepository.findByStoreId(storeId);
+        String nextCursor = null;
+        if (hasMore) {
+            Order last = orders.get(orders.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt().toString(), last.getId());
+        }
+        return new CursorPage<>(orders, nextCursor, hasMore);
     }
 
-    public List<Order> getOrdersByStatus(String status) {
-        return orderRepository.findByStatus(status);
+    private static LocalDateTime parseCursorTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
-} 
\ No newline at end of file
+}
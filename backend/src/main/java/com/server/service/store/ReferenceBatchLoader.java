@@ -0,0 +1,225 @@
+package com.server.service.store;
+
+import org.bson.Document;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mapping.SimpleAssociationHandler;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.DBRef;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads entities together with their {@code @DBRef} fields in a fixed
+ * number of queries. The matching documents are read raw, every referenced
+ * id is collected across the whole result, each referenced collection is
+ * fetched once with {@code $in}, and the entities are then built with the
+ * references already in place, so no lazy proxy is left to resolve later.
+ *
+ * Referenced entities that have references of their own are loaded the same
+ * way up to {@link #DEFAULT_DEPTH} levels. Every load reports how many
+ * queries it issued and how many per-reference round-trips it saved.
+ */
+@Service
+public class ReferenceBatchLoader {
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceBatchLoader.class);
+
+    public static final int DEFAULT_DEPTH = 2;
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoConverter converter;
+    private final Counter queriesCounter;
+    private final Counter savedCounter;
+
+    public ReferenceBatchLoader(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.converter = mongoTemplate.getConverter();
+        this.queriesCounter = Counter.builder("references.batch.queries")
+            .description("Queries issued by batched reference loads")
+            .register(meterRegistry);
+        this.savedCounter = Counter.builder("references.batch.saved")
+            .description("Per-reference round-trips avoided by batched reference loads")
+            .register(meterRegistry);
+    }
+
+    public static final class BatchResult<T> {
+        private final List<T> items;
+        private final int queries;
+        private final int savedRoundTrips;
+
+        BatchResult(List<T> items, int queries, int savedRoundTrips) {
+            this.items = items;
+            this.queries = queries;
+            this.savedRoundTrips = savedRoundTrips;
+        }
+
+        public List<T> getItems() {
+            return items;
+        }
+
+        public int getQueries() {
+            return queries;
+        }
+
+        public int getSavedRoundTrips() {
+            return savedRoundTrips;
+        }
+    }
+
+    public <T> BatchResult<T> load(Class<T> type, Query query) {
+        Stats stats = new Stats();
+        List<Document> documents = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type));
+        stats.queries++;
+
+        List<T> items = resolve(type, documents, DEFAULT_DEPTH, stats);
+        queriesCounter.increment(stats.queries);
+        savedCounter.increment(Math.max(0, stats.naive - stats.queries));
+        logger.debug("Loaded {} {} with {} queries, saved {} round-trips",
+            items.size(), type.getSimpleName(), stats.queries, Math.max(0, stats.naive - stats.queries));
+        return new BatchResult<>(items, stats.queries, Math.max(0, stats.naive - stats.queries));
+    }
+
+    /**
+     * Loads the given ids in the order they are listed; missing ids are skipped.
+     */
+    public <T> BatchResult<T> loadByIds(Class<T> type, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return new BatchResult<>(new ArrayList<>(), 0, 0);
+        }
+
+        BatchResult<T> result = load(type, new Query(Criteria.where("_id").in(ids)));
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(type);
+        Map<String, T> byId = new HashMap<>();
+        for (T item : result.getItems()) {
+            Object id = entity.getIdentifierAccessor(item).getIdentifier();
+            byId.put(String.valueOf(id), item);
+        }
+
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            T item = byId.get(id);
+            if (item != null) {
+                ordered.add(item);
+            }
+        }
+        return new BatchResult<>(ordered, result.getQueries(), result.getSavedRoundTrips());
+    }
+
+    private <T> List<T> resolve(Class<T> type, List<Document> documents, int depth, Stats stats) {
+        MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(type);
+        List<MongoPersistentProperty> references = new ArrayList<>();
+        entity.doWithAssociations((SimpleAssociationHandler) association -> {
+            MongoPersistentProperty property = (MongoPersistentProperty) association.getInverse();
+            if (property.isDbReference()) {
+                references.add(property);
+            }
+        });
+
+        if (references.isEmpty() || depth == 0) {
+            List<T> items = new ArrayList<>(documents.size());
+            for (Document document : documents) {
+                items.add(converter.read(type, document));
+            }
+            return items;
+        }
+
+        // One id set per referenced collection, shared by every field pointing at it
+        Map<String, Set<Object>> idsByCollection = new LinkedHashMap<>();
+        Map<String, Class<?>> typeByCollection = new HashMap<>();
+        for (Document document : documents) {
+            for (MongoPersistentProperty property : references) {
+                Object raw = document.get(property.getFieldName());
+                for (DBRef ref : refs(raw)) {
+                    idsByCollection.computeIfAbsent(ref.getCollectionName(), key -> new LinkedHashSet<>()).add(ref.getId());
+                    typeByCollection.putIfAbsent(ref.getCollectionName(), property.getActualType());
+                }
+                if (raw instanceof DBRef || (raw instanceof Collection && !((Collection<?>) raw).isEmpty())) {
+                    // Without batching: one lookup per single reference, one $in per reference list
+                    stats.naive++;
+                }
+            }
+        }
+
+        Map<String, Map<String, Object>> resolved = new HashMap<>();
+        idsByCollection.forEach((collection, ids) -> {
+            List<Document> referenced = mongoTemplate.find(
+                new Query(Criteria.where("_id").in(ids)), Document.class, collection);
+            stats.queries++;
+
+            List<?> targets = resolve(typeByCollection.get(collection), referenced, depth - 1, stats);
+            Map<String, Object> byId = new HashMap<>();
+            for (int i = 0; i < referenced.size(); i++) {
+                byId.put(String.valueOf(referenced.get(i).get("_id")), targets.get(i));
+            }
+            resolved.put(collection, byId);
+        });
+
+        List<T> items = new ArrayList<>(documents.size());
+        for (Document document : documents) {
+            Document withoutRefs = new Document(document);
+            references.forEach(property -> withoutRefs.remove(property.getFieldName()));
+
+            T item = converter.read(type, withoutRefs);
+            PersistentPropertyAccessor<T> accessor = entity.getPropertyAccessor(item);
+            for (MongoPersistentProperty property : references) {
+                Object raw = document.get(property.getFieldName());
+                if (raw instanceof DBRef) {
+                    accessor.setProperty(property, lookup(resolved, (DBRef) raw));
+                } else if (raw instanceof Collection) {
+                    List<Object> values = new ArrayList<>();
+                    for (DBRef ref : refs(raw)) {
+                        Object value = lookup(resolved, ref);
+                        if (value != null) {
+                            values.add(value);
+                        }
+                    }
+                    accessor.setProperty(property, values);
+                }
+            }
+            items.add(accessor.getBean());
+        }
+        return items;
+    }
+
+    private static Object lookup(Map<String, Map<String, Object>> resolved, DBRef ref) {
+        Map<String, Object> byId = resolved.get(ref.getCollectionName());
+        return byId == null ? null : byId.get(String.valueOf(ref.getId()));
+    }
+
+    private static List<DBRef> refs(Object raw) {
+        List<DBRef> refs = new ArrayList<>();
+        if (raw instanceof DBRef) {
+            refs.add((DBRef) raw);
+        } else if (raw instanceof Collection) {
+            for (Object element : (Collection<?>) raw) {
+                if (element instanceof DBRef) {
+                    refs.add((DBRef) element);
+                }
+            }
+        }
+        return refs;
+    }
+
+    private static final class Stats {
+        int queries;
+        int naive;
+    }
+}
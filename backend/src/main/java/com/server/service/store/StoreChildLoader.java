@@ -0,0 +1,50 @@
+package com.server.service.store;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.server.exception.common.ResourceNotFoundException;
+import com.server.repository.store.products.ProductColorRepository;
+import com.server.repository.store.products.ProductRepository;
+import com.server.repository.store.products.ProductSizeRepository;
+import com.server.repository.store.settings.BillboardRepository;
+import com.server.repository.store.settings.CategoryRepository;
+import com.server.repository.store.settings.PriceRepository;
+
+/**
+ * Loads a store's children one page at a time from their own collections,
+ * independent of whether the store document still embeds reference arrays.
+ */
+@Service
+@RequiredArgsConstructor
+public class StoreChildLoader {
+
+    private final ProductRepository productRepository;
+    private final ProductColorRepository colorRepository;
+    private final ProductSizeRepository sizeRepository;
+    private final BillboardRepository billboardRepository;
+    private final CategoryRepository categoryRepository;
+    private final PriceRepository priceRepository;
+
+    public Page<?> load(String storeId, String field, Pageable pageable) {
+        switch (field) {
+            case StoreReferenceService.PRODUCTS:
+                return productRepository.findByStoreId(storeId, pageable);
+            case StoreReferenceService.COLORS:
+                return colorRepository.findByStoreId(storeId, pageable);
+            case StoreReferenceService.SIZES:
+                return sizeRepository.findByStoreId(storeId, pageable);
+            case StoreReferenceService.BILLBOARDS:
+                return billboardRepository.findByStoreId(storeId, pageable);
+            case StoreReferenceService.CATEGORIES:
+            case "categories":
+                return categoryRepository.findByStoreId(storeId, pageable);
+            case StoreReferenceService.PRICES:
+                return priceRepository.findByStoreId(storeId, pageable);
+            default:
+                throw new ResourceNotFoundException("Unknown store child collection: " + field);
+        }
+    }
+}
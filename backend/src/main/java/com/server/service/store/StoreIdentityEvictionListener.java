@@ -0,0 +1,42 @@
+package com.server.service.store;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.server.dto.store.StoreSummary;
+import com.server.model.store.Store;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Drops cached store identities whenever a store document is written or
+ * removed, so an owner change or a newly created store (possibly cached as
+ * unknown) is visible to the next lookup.
+ */
+@Component
+@RequiredArgsConstructor
+public class StoreIdentityEvictionListener extends AbstractMongoEventListener<Store> {
+
+    private final StoreIdentityResolver storeIdentityResolver;
+
+    @Override
+    public void onAfterSave(@NonNull AfterSaveEvent<Store> event) {
+        storeIdentityResolver.evict(StoreSummary.from(event.getSource()));
+    }
+
+    @Override
+    public void onAfterDelete(@NonNull AfterDeleteEvent<Store> event) {
+        Document filter = event.getSource();
+        Object id = filter.get("_id");
+        if (id instanceof String) {
+            storeIdentityResolver.evict((String) id);
+        } else {
+            // Bulk or criteria deletes: we cannot tell which stores went away
+            storeIdentityResolver.evictAll();
+        }
+    }
+}
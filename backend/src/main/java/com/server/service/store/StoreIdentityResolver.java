@@ -0,0 +1,156 @@
+package com.server.service.store;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.server.dto.store.StoreSummary;
+import com.server.exception.common.ResourceNotFoundException;
+import com.server.model.store.Store;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Maps either identifier of a store, the Mongo {@code _id} or the business
+ * {@code storeId} ({@code STR#########}), to its {@link StoreSummary}. A
+ * miss costs one query on the two indexed fields with a projection, and
+ * the result is cached under both identifiers.
+ *
+ * Unknown ids are cached as well, for {@code store.identity.cache.negative-ttl},
+ * so repeated requests for a bad id do not reach Mongo each time. Saving
+ * or deleting a store evicts its entries on this node, see
+ * {@link StoreIdentityEvictionListener}, and on every other node through
+ * {@link com.server.service.cache.CacheInvalidationWatcher}.
+ */
+@Service
+public class StoreIdentityResolver {
+    private static final Logger logger = LoggerFactory.getLogger(StoreIdentityResolver.class);
+
+    static final String CACHE_NAME = "storeIdentity";
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, Optional<StoreSummary>> identities;
+
+    public StoreIdentityResolver(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${store.identity.cache.max-size:10000}") long maxSize,
+            @Value("${store.identity.cache.ttl:PT5M}") Duration ttl,
+            @Value("${store.identity.cache.negative-ttl:PT30S}") Duration negativeTtl) {
+        this.mongoTemplate = mongoTemplate;
+        this.identities = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, Optional<StoreSummary>>() {
+                @Override
+                public long expireAfterCreate(String key, Optional<StoreSummary> value, long currentTime) {
+                    return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Optional<StoreSummary> value, long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Optional<StoreSummary> value, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, CACHE_NAME);
+    }
+
+    public Optional<StoreSummary> resolve(String id) {
+        if (id == null || id.isBlank()) {
+            return Optional.empty();
+        }
+
+        Optional<StoreSummary> cached = identities.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        Query query = new Query(new Criteria().orOperator(
+            Criteria.where("_id").is(id),
+            Criteria.where("storeId").is(id)));
+        query.fields().include(StoreSummary.FIELDS);
+
+        Optional<StoreSummary> summary = Optional.ofNullable(mongoTemplate.findOne(query, Store.class))
+            .map(StoreSummary::from);
+        identities.put(id, summary);
+        summary.ifPresentOrElse(store -> {
+            identities.put(store.getId(), summary);
+            if (store.getStoreId() != null) {
+                identities.put(store.getStoreId(), summary);
+            }
+        }, () -> logger.debug("No store found for id: {}", id));
+        return summary;
+    }
+
+    /**
+     * @throws ResourceNotFoundException when neither identifier matches a store
+     */
+    public StoreSummary require(String id) {
+        return resolve(id).orElseThrow(() -> new ResourceNotFoundException("Store not found with id: " + id));
+    }
+
+    public Optional<String> getOwnerEmail(String id) {
+        return resolve(id).map(StoreSummary::getOwnerEmail);
+    }
+
+    public boolean isOwnedBy(String id, String email) {
+        return email != null && getOwnerEmail(id)
+            .map(email::equals)
+            .orElse(false);
+    }
+
+    /**
+     * Drops the entry for id and, when it was resolved, the entry under the
+     * store's other identifier.
+     */
+    public void evict(String id) {
+        if (id == null) {
+            return;
+        }
+
+        Optional<StoreSummary> cached = identities.getIfPresent(id);
+        identities.invalidate(id);
+        if (cached != null) {
+            cached.ifPresent(this::evict);
+        }
+    }
+
+    public void evict(StoreSummary store) {
+        logger.debug("Evicting cached identity for store: {}", store.getId());
+        identities.invalidate(store.getId());
+        if (store.getStoreId() != null) {
+            identities.invalidate(store.getStoreId());
+        }
+    }
+
+    // Drops every store resolved for the owner, e.g. after their account changed on another node
+    public void evictOwner(String email) {
+        if (email == null) {
+            return;
+        }
+        identities.asMap().values().removeIf(cached -> cached
+            .map(store -> email.equals(store.getOwnerEmail()))
+            .orElse(false));
+    }
+
+    public void evictAll() {
+        identities.invalidateAll();
+    }
+}
@@ -0,0 +1,184 @@
+package com.server.service.store;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.server.model.store.Store;
+import com.server.model.store.StoreReadiness;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Keeps per-store child counters in {@link StoreReadiness} and answers
+ * whether a store has everything a product needs. {@link StoreReferenceService}
+ * moves the counters with a single {@code $inc} whenever a child is attached
+ * or detached, so every settings service keeps them current without
+ * knowing about them.
+ *
+ * Counters are never created by an increment: a store without a readiness
+ * document is rebuilt from the child collections the first time it is
+ * checked, which also repairs any store whose counters were dropped. The
+ * ready flag itself is cached per node and evicted whenever this node
+ * changes the store's counters.
+ */
+@Service
+public class StoreReadinessService {
+    private static final Logger logger = LoggerFactory.getLogger(StoreReadinessService.class);
+
+    static final String CACHE_NAME = "storeReadiness";
+
+    // Fields a store needs at least one child in before products can be created, with their labels
+    private static final Map<String, String> REQUIRED = new LinkedHashMap<>();
+
+    static {
+        REQUIRED.put(StoreReferenceService.COLORS, "color");
+        REQUIRED.put(StoreReferenceService.SIZES, "size");
+        REQUIRED.put(StoreReferenceService.BILLBOARDS, "billboard");
+        REQUIRED.put(StoreReferenceService.CATEGORIES, "category");
+        REQUIRED.put(StoreReferenceService.PRICES, "price");
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, Optional<String>> missingRequirements;
+
+    public StoreReadinessService(
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${store.readiness.cache.max-size:10000}") long maxSize,
+            @Value("${store.readiness.cache.ttl:PT1M}") Duration ttl) {
+        this.mongoTemplate = mongoTemplate;
+        this.missingRequirements = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(ttl)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, missingRequirements, CACHE_NAME);
+    }
+
+    public boolean isReady(String storeId) {
+        return findMissingRequirement(storeId).isEmpty();
+    }
+
+    /**
+     * @return the label of the first required child type the store has none
+     *         of, e.g. {@code "color"}, or empty when the store is ready
+     */
+    public Optional<String> findMissingRequirement(String storeId) {
+        return missingRequirements.get(storeId, id -> {
+            Map<String, Long> counts = getCounts(id);
+            return REQUIRED.entrySet().stream()
+                .filter(required -> counts.getOrDefault(required.getKey(), 0L) <= 0)
+                .map(Map.Entry::getValue)
+                .findFirst();
+        });
+    }
+
+    public Map<String, Long> getCounts(String storeId) {
+        StoreReadiness readiness = mongoTemplate.findById(storeId, StoreReadiness.class);
+        if (readiness == null || readiness.getRebuiltAt() == null) {
+            return rebuild(storeId);
+        }
+        return readiness.getCounts();
+    }
+
+    /**
+     * Counters of several stores with one {@code $in}; stores without
+     * counters are rebuilt.
+     */
+    public Map<String, Map<String, Long>> getCounts(Collection<String> storeIds) {
+        Map<String, Map<String, Long>> counts = new HashMap<>();
+        if (storeIds.isEmpty()) {
+            return counts;
+        }
+
+        for (StoreReadiness readiness : mongoTemplate.find(
+                new Query(Criteria.where("_id").in(storeIds)), StoreReadiness.class)) {
+            if (readiness.getRebuiltAt() != null) {
+                counts.put(readiness.getId(), readiness.getCounts());
+            }
+        }
+        for (String storeId : storeIds) {
+            if (!counts.containsKey(storeId)) {
+                counts.put(storeId, rebuild(storeId));
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Moves one counter by delta. Does nothing for stores that have no
+     * counters yet, since their first check rebuilds them from scratch.
+     */
+    public void increment(String storeId, String field, long delta) {
+        if (storeId == null || delta == 0) {
+            return;
+        }
+
+        mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(storeId)),
+            new Update().inc("counts." + field, delta).currentDate("updatedAt"),
+            StoreReadiness.class);
+        missingRequirements.invalidate(storeId);
+    }
+
+    // Drops the cached check only; used when another node changed the store's children
+    public void evict(String storeId) {
+        missingRequirements.invalidate(storeId);
+    }
+
+    public void evictAll() {
+        missingRequirements.invalidateAll();
+    }
+
+    /**
+     * Recounts every child type of the store from its collection and
+     * replaces the stored counters.
+     */
+    public Map<String, Long> rebuild(String storeId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        StoreReferenceService.CHILD_TYPES.forEach((field, type) -> counts.put(field,
+            mongoTemplate.count(new Query(Criteria.where("storeId").is(storeId)), type)));
+
+        LocalDateTime now = LocalDateTime.now();
+        mongoTemplate.upsert(
+            new Query(Criteria.where("_id").is(storeId)),
+            new Update().set("counts", counts).set("updatedAt", now).set("rebuiltAt", now),
+            StoreReadiness.class);
+        missingRequirements.invalidate(storeId);
+
+        logger.debug("Rebuilt readiness counters for store {}: {}", storeId, counts);
+        return counts;
+    }
+
+    public long rebuildAll() {
+        Query storeIds = new Query();
+        storeIds.fields().include("_id");
+
+        long rebuilt = 0;
+        for (Document store : mongoTemplate.find(storeIds, Document.class, mongoTemplate.getCollectionName(Store.class))) {
+            rebuild(store.get("_id").toString());
+            rebuilt++;
+        }
+
+        logger.info("Rebuilt readiness counters for {} stores", rebuilt);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,100 @@
+package com.server.service.store;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.DBRef;
+import com.server.model.store.Store;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Rewrites existing store documents to match {@code store.references.mode}.
+ *
+ * {@link #detachAll()} unsets the child arrays on every store;
+ * {@link #rebuildAll()} regenerates them from the child collections, which
+ * is the way back to embedded mode. Runs on startup when
+ * {@code store.references.migrate-on-startup=true}.
+ */
+@Service
+public class StoreReferenceMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(StoreReferenceMigration.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final StoreReferenceService storeReferenceService;
+    private final boolean migrateOnStartup;
+
+    public StoreReferenceMigration(
+            MongoTemplate mongoTemplate,
+            StoreReferenceService storeReferenceService,
+            @Value("${store.references.migrate-on-startup:false}") boolean migrateOnStartup) {
+        this.mongoTemplate = mongoTemplate;
+        this.storeReferenceService = storeReferenceService;
+        this.migrateOnStartup = migrateOnStartup;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (migrateOnStartup) {
+            migrate();
+        }
+    }
+
+    public long migrate() {
+        return storeReferenceService.isDetached() ? detachAll() : rebuildAll();
+    }
+
+    public long detachAll() {
+        Criteria hasArrays = new Criteria().orOperator(
+            Arrays.stream(StoreReferenceService.CHILD_FIELDS)
+                .map(field -> Criteria.where(field).exists(true))
+                .toArray(Criteria[]::new));
+
+        Update update = new Update();
+        for (String field : StoreReferenceService.CHILD_FIELDS) {
+            update.unset(field);
+        }
+
+        long modified = mongoTemplate.updateMulti(new Query(hasArrays), update, Store.class).getModifiedCount();
+        logger.info("Detached child references from {} stores", modified);
+        return modified;
+    }
+
+    public long rebuildAll() {
+        Query storeIds = new Query();
+        storeIds.fields().include("_id");
+
+        long modified = 0;
+        for (Document store : mongoTemplate.find(storeIds, Document.class, mongoTemplate.getCollectionName(Store.class))) {
+            Object storeId = store.get("_id");
+            Update update = new Update();
+            StoreReferenceService.CHILD_TYPES.forEach((field, type) -> update.set(field, childRefs(storeId, type)));
+            modified += mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(storeId)), update, Store.class).getModifiedCount();
+        }
+
+        logger.info("Rebuilt child references on {} stores", modified);
+        return modified;
+    }
+
+    private List<DBRef> childRefs(Object storeId, Class<?> type) {
+        String collection = mongoTemplate.getCollectionName(type);
+        Query query = new Query(Criteria.where("storeId").is(storeId.toString()));
+        query.fields().include("_id");
+
+        return mongoTemplate.find(query, Document.class, collection).stream()
+            .map(child -> new DBRef(collection, child.get("_id")))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,168 @@
+package com.server.service.store;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.DBRef;
+import com.mongodb.client.result.UpdateResult;
+import com.server.exception.common.ResourceNotFoundException;
+import com.server.model.store.Billboard;
+import com.server.model.store.Category;
+import com.server.model.store.Price;
+import com.server.model.store.Store;
+import com.server.model.store.products.Product;
+import com.server.model.store.products.ProductColor;
+import com.server.model.store.products.ProductSize;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the child reference arrays on {@link Store}.
+ *
+ * In {@code embedded} mode a reference is added or removed with a single
+ * {@code $addToSet}/{@code $pull} on the store document instead of loading
+ * and re-saving the whole store. In {@code detached} mode the store keeps no
+ * child arrays at all and children are read with paginated
+ * {@code findByStoreId} queries (see {@link StoreChildLoader}).
+ *
+ * Either way every attach and detach also moves the store's child counter
+ * in {@link StoreReadinessService}. In embedded mode the counter only moves
+ * when the array actually changed, so repeated calls do not skew it.
+ */
+@Service
+public class StoreReferenceService {
+    private static final Logger logger = LoggerFactory.getLogger(StoreReferenceService.class);
+
+    public static final String PRODUCTS = "products";
+    public static final String COLORS = "colors";
+    public static final String SIZES = "sizes";
+    public static final String BILLBOARDS = "billboards";
+    public static final String CATEGORIES = "storeCategories";
+    public static final String PRICES = "prices";
+
+    public static final String[] CHILD_FIELDS = { PRODUCTS, COLORS, SIZES, BILLBOARDS, CATEGORIES, PRICES };
+
+    public static final Map<String, Class<?>> CHILD_TYPES;
+
+    static {
+        Map<String, Class<?>> types = new LinkedHashMap<>();
+        types.put(PRODUCTS, Product.class);
+        types.put(COLORS, ProductColor.class);
+        types.put(SIZES, ProductSize.class);
+        types.put(BILLBOARDS, Billboard.class);
+        types.put(CATEGORIES, Category.class);
+        types.put(PRICES, Price.class);
+        CHILD_TYPES = Collections.unmodifiableMap(types);
+    }
+
+    public enum Mode { EMBEDDED, DETACHED }
+
+    private final MongoTemplate mongoTemplate;
+    private final StoreReadinessService storeReadinessService;
+    private final Mode mode;
+
+    public StoreReferenceService(
+            MongoTemplate mongoTemplate,
+            StoreReadinessService storeReadinessService,
+            @Value("${store.references.mode:embedded}") String mode) {
+        this.mongoTemplate = mongoTemplate;
+        this.storeReadinessService = storeReadinessService;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase());
+        logger.info("Store child references stored in {} mode", this.mode);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public boolean isDetached() {
+        return mode == Mode.DETACHED;
+    }
+
+    public void attach(String storeId, String field, Object child) {
+        if (isDetached()) {
+            requireStore(storeId);
+            storeReadinessService.increment(storeId, field, 1);
+            return;
+        }
+
+        DBRef ref = toDbRef(field, child);
+        UpdateResult result = mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(storeId).and(field).ne(ref)),
+            new Update().addToSet(field, ref), Store.class);
+        if (result.getModifiedCount() > 0) {
+            storeReadinessService.increment(storeId, field, 1);
+        } else {
+            // Nothing matched: either the store is missing or the child was already attached
+            requireStore(storeId);
+        }
+    }
+
+    public void attachAll(String storeId, String field, List<?> children) {
+        if (isDetached()) {
+            requireStore(storeId);
+            storeReadinessService.increment(storeId, field, children.size());
+            return;
+        }
+        if (children.isEmpty()) {
+            return;
+        }
+
+        // Meant for freshly inserted children, so each one counts as new
+        Object[] refs = children.stream().map(child -> toDbRef(field, child)).toArray();
+        UpdateResult result = mongoTemplate.updateFirst(
+            byId(storeId), new Update().addToSet(field).each(refs), Store.class);
+        if (result.getMatchedCount() == 0) {
+            throw new ResourceNotFoundException("Store not found with id: " + storeId);
+        }
+        if (result.getModifiedCount() > 0) {
+            storeReadinessService.increment(storeId, field, children.size());
+        }
+    }
+
+    public void detach(String storeId, String field, Object child) {
+        if (storeId == null) {
+            return;
+        }
+        if (isDetached()) {
+            storeReadinessService.increment(storeId, field, -1);
+            return;
+        }
+
+        DBRef ref = toDbRef(field, child);
+        UpdateResult result = mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(storeId).and(field).is(ref)),
+            new Update().pull(field, ref), Store.class);
+        if (result.getModifiedCount() > 0) {
+            storeReadinessService.increment(storeId, field, -1);
+        }
+    }
+
+    // For callers that must not write a child before knowing its store exists
+    public void requireStore(String storeId) {
+        if (storeId == null || !mongoTemplate.exists(byId(storeId), Store.class)) {
+            throw new ResourceNotFoundException("Store not found with id: " + storeId);
+        }
+    }
+
+    private DBRef toDbRef(String field, Object child) {
+        MongoPersistentProperty property = mongoTemplate.getConverter().getMappingContext()
+            .getRequiredPersistentEntity(Store.class)
+            .getRequiredPersistentProperty(field);
+        return mongoTemplate.getConverter().toDBRef(child, property);
+    }
+
+    private static Query byId(String storeId) {
+        return new Query(Criteria.where("_id").is(storeId));
+    }
+}
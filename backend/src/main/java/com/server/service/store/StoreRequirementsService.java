@@ -6,49 +6,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.server.exception.store.StoreRequirementException;
-import com.server.repository.store.products.ProductColorRepository;
-import com.server.repository.store.products.ProductSizeRepository;
-import com.server.repository.store.settings.BillboardRepository;
-import com.server.repository.store.settings.CategoryRepository;
-import com.server.repository.store.settings.PriceRepository;
+
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class StoreRequirementsService {
     private static final Logger logger = LoggerFactory.getLogger(StoreRequirementsService.class);
     
-    private final ProductColorRepository colorRepository;
-    private final ProductSizeRepository sizeRepository;
-    private final BillboardRepository billboardRepository;
-    private final CategoryRepository categoryRepository;
-    private final PriceRepository priceRepository;
+    private final StoreReadinessService storeReadinessService;
 
     public void checkStoreRequirements(String storeId) {
         
         try {
-            // Check if store has colors
-            if (colorRepository.findByStoreId(storeId).isEmpty()) {
-                throw new StoreRequirementException("Store must have at least one color defined");
-            }
-
-            // Check if store has sizes
-            if (sizeRepository.findByStoreId(storeId).isEmpty()) {
-                throw new StoreRequirementException("Store must have at least one size defined");
-            }
-
-            // Check if store has billboards
-            if (billboardRepository.findByStoreId(storeId).isEmpty()) {
-                throw new StoreRequirementException("Store must have at least one billboard defined");
-            }
-
-            // Check if store has categories
-            if (categoryRepository.findByStoreId(storeId).isEmpty()) {
-                throw new StoreRequirementException("Store must have at least one category defined");
-            }
-
-            // Check if store has prices
-            if (priceRepository.findByStoreId(storeId).isEmpty()) {
-                throw new StoreRequirementException("Store must have at least one price defined");
+            // Colors, sizes, billboards, categories and prices, read from the store's counters
+            Optional<String> missing = storeReadinessService.findMissingRequirement(storeId);
+            if (missing.isPresent()) {
+                throw new StoreRequirementException("Store must have at least one " + missing.get() + " defined");
             }
             
             logger.debug("All store requirements met for storeId: {}", storeId);
@@ -60,4 +34,4 @@ public class StoreRequirementsService {
             throw new StoreRequirementException("Failed to check store requirements: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
@@ -6,20 +6,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.mongodb.core.MongoTemplate;
 
 import com.server.model.accounts.Owner;
 import com.server.model.store.Store;
 import com.server.repository.accounts.StoreOwnerRepository;
 import com.server.repository.store.StoreRepository;
 import com.server.dto.store.StoreDTO;
+import com.server.dto.store.StoreSummary;
 import com.server.exception.common.ResourceNotFoundException;
 import com.server.util.IdGenerator;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import lombok.RequiredArgsConstructor;
@@ -32,51 +32,30 @@ public class StoreService {
     
     private final StoreRepository storeRepository;
     private final StoreOwnerRepository storeOwnerRepository;
-    private final MongoTemplate mongoTemplate;
+    private final ReferenceBatchLoader referenceBatchLoader;
+    private final StoreIdentityResolver storeIdentityResolver;
+    private final StoreReadinessService storeReadinessService;
 
-    public List<Store> getStoresByOwnerEmail(String email) {
-        try {
-            logger.info("Finding owner by email: {}", email);
-            
-            Owner owner = storeOwnerRepository.findByEmail(email)
-                .orElseThrow(() -> {
-                    logger.error("Store owner not found for email: {}", email);
-                    return new ResourceNotFoundException("Store owner not found");
-                });
-            
-            // Get stores from owner
-            List<Store> stores = owner.getStores();
-            if (stores == null) {
-                logger.info("No stores list found for owner: {}, creating new list", email);
-                return new ArrayList<>();
-            }
+    // The owner's stores without their child lists: one indexed ownerEmail query, plus one $in for the counters
+    public List<StoreSummary> getStoreSummariesByOwnerEmail(String email) {
+        List<StoreSummary> stores = storeRepository.findSummariesByOwnerEmail(email).stream()
+            .map(StoreSummary::from)
+            .collect(Collectors.toList());
 
-            // Resolve DBRefs manually if needed
-            List<Store> resolvedStores = stores.stream()
-                .map(store -> {
-                    try {
-                        if (store.getId() != null) {
-                            return mongoTemplate.findById(store.getId(), Store.class);
-                        }
-                        return null;
-                    } catch (Exception e) {
-                        logger.error("Error resolving store reference: {}", e.getMessage());
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-            logger.info("Successfully retrieved {} stores for owner: {}", resolvedStores.size(), email);
-            return resolvedStores;
-            
-        } catch (ResourceNotFoundException e) {
-            logger.error("Owner not found error: {}", e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            logger.error("Error getting stores for owner email {}: {}", email, e.getMessage(), e);
-            throw new RuntimeException("Failed to get owner stores: " + e.getMessage(), e);
-        }
+        Map<String, Map<String, Long>> counts = storeReadinessService.getCounts(
+            stores.stream().map(StoreSummary::getId).collect(Collectors.toList()));
+        stores.forEach(store -> store.setCounts(counts.get(store.getId())));
+
+        logger.debug("Retrieved {} store summaries for owner: {}", stores.size(), email);
+        return stores;
+    }
+
+    // A single store of the owner, looked up by _id or business storeId rather than through the owner's list
+    public Store getOwnedStore(String storeId, String email) {
+        StoreSummary summary = requireOwned(storeId, email, "Store not found or access denied");
+        return referenceBatchLoader.loadByIds(Store.class, List.of(summary.getId())).getItems().stream()
+            .findFirst()
+            .orElseThrow(() -> new ResourceNotFoundException("Store not found or access denied"));
     }
 
     @Transactional
@@ -128,17 +107,18 @@ public class StoreService {
     }
 
     public Store switchStore(String storeId, String email) {
-        // Find owner
-        Owner owner = storeOwnerRepository.findByEmail(email)
-            .orElseThrow(() -> new ResourceNotFoundException("Owner not found"));
-            
-        // Find store in owner's stores list
-        return owner.getStores().stream()
-            .filter(store -> store.getId().equals(storeId))
-            .findFirst()
+        StoreSummary summary = requireOwned(storeId, email, "Store not found");
+        return storeRepository.findById(summary.getId())
             .orElseThrow(() -> new ResourceNotFoundException("Store not found"));
     }
 
+    // Ownership is read from the store's indexed ownerEmail instead of walking the owner's stores
+    private StoreSummary requireOwned(String storeId, String email, String message) {
+        return storeIdentityResolver.resolve(storeId)
+            .filter(store -> email != null && email.equals(store.getOwnerEmail()))
+            .orElseThrow(() -> new ResourceNotFoundException(message));
+    }
+
     public Page<Store> searchStores(String query, List<String> categories, List<String> tags, Pageable pageable) {
         return storeRepository.findBySearchCriteria(
             query != null ? query : "",
@@ -1,5 +1,7 @@
 package com.server.service.store.base;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +34,12 @@ public abstract class AbstractStoreEntityService<T, R extends MongoRepository<T,
         return findByStoreId(storeId);
     }
     
+    @Override
+    public Page<T> findAllByStorePaginated(String storeId, Pageable pageable) {
+        validateStore(storeId);
+        return findByStoreId(storeId, pageable);
+    }
+    
     @Override
     public T findById(String id) {
         return repository.findById(id)
@@ -91,6 +99,7 @@ public abstract class AbstractStoreEntityService<T, R extends MongoRepository<T,
     
     // Abstract methods to be implemented by specific services
     protected abstract List<T> findByStoreId(String storeId);
+    protected abstract Page<T> findByStoreId(String storeId, Pageable pageable);
     protected abstract void setStoreId(T entity, String storeId);
     protected abstract String getStoreId(T entity);
     protected abstract void setCreatedAt(T entity);
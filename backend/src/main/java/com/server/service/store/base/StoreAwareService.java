@@ -3,23 +3,20 @@ package com.server.service.store.base;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.server.exception.common.ResourceNotFoundException;
-import com.server.repository.store.StoreRepository;
+import com.server.security.StoreContext;
 
 public abstract class StoreAwareService {
     @Autowired
-    protected StoreRepository storeRepository;
+    protected StoreContext storeContext;
     
-    protected String currentStoreId;
-    
-    public void setCurrentStore(String storeId) {
-        storeRepository.findById(storeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Store not found with id: " + storeId));
-        this.currentStoreId = storeId;
+    // The store of the current request, resolved once per request by StoreContext
+    protected String currentStoreId() {
+        return storeContext.getStoreId();
     }
     
     protected void validateStore(String storeId) {
-        if (!storeId.equals(currentStoreId)) {
+        if (!currentStoreId().equals(storeId)) {
             throw new ResourceNotFoundException("Resource not found in current store context");
         }
     }
-} 
\ No newline at end of file
+}
@@ -6,14 +6,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import com.server.exception.common.ResourceNotFoundException;
 import com.server.model.store.Billboard;
 import com.server.repository.store.settings.BillboardRepository;
-import com.server.repository.store.StoreRepository;
 import com.server.service.store.base.StoreAwareService;
-import com.server.model.store.Store;
+import com.server.service.store.StoreReferenceService;
 
 import java.util.List;
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.ArrayList;
 
 @Service
 public class BillboardService extends StoreAwareService {
@@ -22,14 +20,14 @@ public class BillboardService extends StoreAwareService {
     private BillboardRepository billboardRepository;
     
     @Autowired
-    private StoreRepository storeRepository;
+    private StoreReferenceService storeReferenceService;
     
     public List<Billboard> getBillboards() {
-        return billboardRepository.findByStoreId(currentStoreId);
+        return billboardRepository.findByStoreId(currentStoreId());
     }
     
     public Billboard createBillboard(Billboard billboard) {
-        billboard.setStoreId(currentStoreId);
+        billboard.setStoreId(currentStoreId());
         billboard.setCreatedAt(LocalDateTime.now());
         billboard.setUpdatedAt(LocalDateTime.now());
         
@@ -41,14 +39,7 @@ public class BillboardService extends StoreAwareService {
         Billboard savedBillboard = billboardRepository.save(billboard);
         
         // Update store's billboards list
-        Store store = storeRepository.findById(currentStoreId)
-            .orElseThrow(() -> new ResourceNotFoundException("Store not found with id: " + currentStoreId));
-        
-        if (store.getBillboards() == null) {
-            store.setBillboards(new ArrayList<>());
-        }
-        store.getBillboards().add(savedBillboard);
-        storeRepository.save(store);
+        storeReferenceService.attach(currentStoreId(), StoreReferenceService.BILLBOARDS, savedBillboard);
         
         return savedBillboard;
     }
@@ -70,41 +61,7 @@ public class BillboardService extends StoreAwareService {
         billboardRepository.delete(billboard);
         
         // Remove billboard from store's billboards list
-        Store store = storeRepository.findById(currentStoreId)
-            .orElseThrow(() -> {
-                System.err.println("Store not found with ID: " + currentStoreId);
-                return new ResourceNotFoundException("Store not found with id: " + currentStoreId);
-            });
-        
-        // Log store details before modification
-        // System.out.println("Store before billboard removal: " + store);
-        // System.out.println("Store billboards before removal: " + store.getBillboards());
-        
-        // Safely remove billboard, handling potential null elements
-        if (store.getBillboards() != null) {
-            // Create a new list to avoid ConcurrentModificationException
-            List<Billboard> updatedBillboards = new ArrayList<>(store.getBillboards());
-            
-            // Log initial list size
-            // System.out.println("Initial billboards list size: " + updatedBillboards.size());
-            
-            // Remove billboard
-            updatedBillboards.removeIf(b -> {
-                // Detailed logging for each billboard
-                // System.out.println("Checking billboard: " + b);
-                // System.out.println("Billboard ID: " + (b != null ? b.getId() : "null"));
-                return b != null && b.getId() != null && b.getId().equals(billboardId);
-            });
-            
-            // Log updated list size
-            // System.out.println("Billboards list size after removal: " + updatedBillboards.size());
-            
-            // Replace the original list with the updated list
-            store.setBillboards(updatedBillboards);
-        }
-        
-        // Save the store
-        storeRepository.save(store);
+        storeReferenceService.detach(currentStoreId(), StoreReferenceService.BILLBOARDS, billboard);
         
         // System.out.println("Billboard deletion process completed for ID: " + billboardId);
     }
@@ -7,17 +7,13 @@ import org.slf4j.LoggerFactory;
 
 import com.server.exception.common.ResourceNotFoundException;
 import com.server.model.store.Category;
-import com.server.model.store.Store;
-import com.server.model.accounts.Owner;
 import com.server.repository.store.settings.CategoryRepository;
-import com.server.repository.accounts.StoreOwnerRepository;
-import com.server.repository.store.StoreRepository;
 import com.server.service.store.base.StoreAwareService;
+import com.server.service.store.StoreReferenceService;
 
 import java.util.List;
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.ArrayList;
 
 @Service
 public class CategoryService extends StoreAwareService {
@@ -28,79 +24,26 @@ public class CategoryService extends StoreAwareService {
     private CategoryRepository categoryRepository;
     
     @Autowired
-    private StoreOwnerRepository storeOwnerRepository;
-    
-    @Autowired
-    private StoreRepository storeRepository;
-    
-    @Override
-    public void setCurrentStore(String storeId) {
-        logger.debug("Setting current store ID: {}", storeId);
-        
-        // First try to find the store directly
-        Store store = storeRepository.findById(storeId).orElse(null);
-        
-        // If not found, look through all owners' stores
-        if (store == null) {
-            logger.debug("Store not found directly, searching through owners");
-            
-            // Find owner that has this store
-            Owner owner = storeOwnerRepository.findAll().stream()
-                .filter(o -> o.getStores() != null && 
-                           o.getStores().stream()
-                               .anyMatch(s -> s.getId().equals(storeId) || 
-                                            s.getStoreId().equals(storeId)))
-                .findFirst()
-                .orElseThrow(() -> {
-                    logger.error("No owner found with store ID: {}", storeId);
-                    return new ResourceNotFoundException("Store not found with id: " + storeId);
-                });
-            
-            // Get the store from owner's stores
-            store = owner.getStores().stream()
-                .filter(s -> s.getId().equals(storeId) || s.getStoreId().equals(storeId))
-                .findFirst()
-                .orElseThrow(() -> new ResourceNotFoundException("Store not found in owner's stores"));
-                
-            // Save to store repository if it doesn't exist
-            if (!storeRepository.existsById(store.getId())) {
-                store = storeRepository.save(store);
-                logger.debug("Saved store to repository: {}", store.getId());
-            }
-        }
-            
-        this.currentStoreId = store.getId();
-        logger.debug("Successfully set current store ID to: {}", this.currentStoreId);
-    }
+    private StoreReferenceService storeReferenceService;
     
     public List<Category> getCategories() {
-        logger.debug("Fetching categories for store: {}", currentStoreId);
-        return categoryRepository.findByStoreId(currentStoreId);
+        logger.debug("Fetching categories for store: {}", currentStoreId());
+        return categoryRepository.findByStoreId(currentStoreId());
     }
     
     public Category createCategory(Category category) {
-        logger.debug("Creating category for store: {}", currentStoreId);
+        logger.debug("Creating category for store: {}", currentStoreId());
+        storeReferenceService.requireStore(currentStoreId());
         
-        // Verify store exists
-        Store store = storeRepository.findById(currentStoreId)
-            .orElseThrow(() -> {
-                logger.error("Store not found with ID: {}", currentStoreId);
-                return new ResourceNotFoundException("Store not found with id: " + currentStoreId);
-            });
-            
-        category.setStoreId(currentStoreId);
+        category.setStoreId(currentStoreId());
         category.setCreatedAt(LocalDateTime.now());
         category.setUpdatedAt(LocalDateTime.now());
         
         Category savedCategory = categoryRepository.save(category);
-        logger.debug("Created category with ID: {} for store: {}", savedCategory.getId(), currentStoreId);
+        logger.debug("Created category with ID: {} for store: {}", savedCategory.getId(), currentStoreId());
         
         // Update store's categories list
-        if (store.getStoreCategories() == null) {
-            store.setStoreCategories(new ArrayList<>());
-        }
-        store.getStoreCategories().add(savedCategory);
-        storeRepository.save(store);
+        storeReferenceService.attach(currentStoreId(), StoreReferenceService.CATEGORIES, savedCategory);
         
         return savedCategory;
     }
@@ -110,7 +53,8 @@ public class CategoryService extends StoreAwareService {
             .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + categoryId));
         validateStore(category.getStoreId());
         categoryRepository.delete(category);
-        logger.debug("Deleted category: {} from store: {}", categoryId, currentStoreId);
+        storeReferenceService.detach(currentStoreId(), StoreReferenceService.CATEGORIES, category);
+        logger.debug("Deleted category: {} from store: {}", categoryId, currentStoreId());
     }
 
     public Category updateCategory(String categoryId, Category category) {
@@ -119,17 +63,18 @@ public class CategoryService extends StoreAwareService {
         validateStore(existingCategory.getStoreId());
         
         category.setId(categoryId);
-        category.setStoreId(currentStoreId);
+        category.setStoreId(currentStoreId());
         category.setUpdatedAt(LocalDateTime.now());
         
         Category updatedCategory = categoryRepository.save(category);
-        logger.debug("Updated category: {} for store: {}", categoryId, currentStoreId);
+        logger.debug("Updated category: {} for store: {}", categoryId, currentStoreId());
         
         return updatedCategory;
     }
 
     @Override
     protected void validateStore(String storeId) {
+        String currentStoreId = currentStoreId();
         if (!currentStoreId.equals(storeId)) {
             logger.error("Store ID mismatch. Current: {}, Requested: {}", currentStoreId, storeId);
             throw new ResourceNotFoundException("Resource not found in current store context");
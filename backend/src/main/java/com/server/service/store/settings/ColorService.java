@@ -5,13 +5,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.server.model.store.products.ProductColor;
-import com.server.model.store.Store;
 import com.server.repository.store.products.ProductColorRepository;
-import com.server.repository.store.StoreRepository;
 import com.server.exception.EntityNotFoundException;
-import com.server.exception.ResourceNotFoundException;
+import com.server.service.store.StoreReferenceService;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,7 +16,7 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ColorService {
     private final ProductColorRepository colorRepository;
-    private final StoreRepository storeRepository;
+    private final StoreReferenceService storeReferenceService;
 
     public List<ProductColor> findAllByStore(String storeId) {
         return colorRepository.findByStoreId(storeId);
@@ -31,14 +28,7 @@ public class ColorService {
         ProductColor savedColor = colorRepository.save(color);
         
         // Update store's colors list
-        Store store = storeRepository.findById(storeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Store not found with id: " + storeId));
-        
-        if (store.getColors() == null) {
-            store.setColors(new ArrayList<>());
-        }
-        store.getColors().add(savedColor);
-        storeRepository.save(store);
+        storeReferenceService.attach(storeId, StoreReferenceService.COLORS, savedColor);
         
         return savedColor;
     }
@@ -61,10 +51,10 @@ public class ColorService {
 
     @Transactional
     public void delete(String colorId) {
-        if (!colorRepository.existsById(colorId)) {
-            throw new EntityNotFoundException("Color not found with id: " + colorId);
-        }
+        ProductColor color = colorRepository.findById(colorId)
+            .orElseThrow(() -> new EntityNotFoundException("Color not found with id: " + colorId));
         colorRepository.deleteById(colorId);
+        storeReferenceService.detach(color.getStoreId(), StoreReferenceService.COLORS, color);
     }
 
     public Optional<ProductColor> findById(String id) {
@@ -7,30 +7,30 @@ import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 
 import com.server.model.store.Price;
-import com.server.model.store.Store;
 import com.server.repository.store.settings.PriceRepository;
-import com.server.repository.store.StoreRepository;
 import com.server.exception.ResourceNotFoundException;
+import com.server.security.StoreContext;
+import com.server.service.store.StoreReferenceService;
 
 import java.util.List;
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.ArrayList;
 
 @Service
 @RequiredArgsConstructor
 public class PriceService {
     private final PriceRepository priceRepository;
-    private final StoreRepository storeRepository;
     private final MongoTemplate mongoTemplate;
-    private String currentStoreId;
+    private final StoreReferenceService storeReferenceService;
+    private final StoreContext storeContext;
 
-    public void setCurrentStore(String storeId) {
-        this.currentStoreId = storeId;
+    // The store of the current request, resolved once per request by StoreContext
+    private String currentStoreId() {
+        return storeContext.getStoreId();
     }
 
     public List<Price> getPrices() {
-        Query query = new Query(Criteria.where("storeId").is(currentStoreId));
+        Query query = new Query(Criteria.where("storeId").is(currentStoreId()));
         return mongoTemplate.find(query, Price.class);
     }
 
@@ -40,20 +40,13 @@ public class PriceService {
     }
 
     public Price createPrice(Price price) {
-        price.setStoreId(currentStoreId);
+        price.setStoreId(currentStoreId());
         price.setCreatedAtIfNull();
         price.calculateAllDiscounts();
         Price savedPrice = priceRepository.save(price);
         
         // Update store's prices list
-        Store store = storeRepository.findById(currentStoreId)
-            .orElseThrow(() -> new ResourceNotFoundException("Store not found with id: " + currentStoreId));
-        
-        if (store.getPrices() == null) {
-            store.setPrices(new ArrayList<>());
-        }
-        store.getPrices().add(savedPrice);
-        storeRepository.save(store);
+        storeReferenceService.attach(currentStoreId(), StoreReferenceService.PRICES, savedPrice);
         
         return savedPrice;
     }
@@ -62,11 +55,11 @@ public class PriceService {
         Price existing = getPrice(price.getId());
         
         // Validate store ownership
-        if (!existing.getStoreId().equals(currentStoreId)) {
+        if (!existing.getStoreId().equals(currentStoreId())) {
             throw new IllegalArgumentException("Price does not belong to current store");
         }
 
-        price.setStoreId(currentStoreId);
+        price.setStoreId(currentStoreId());
         price.setCreatedAt(existing.getCreatedAt());
         price.setUpdatedAt(LocalDateTime.now());
         price.calculateAllDiscounts();
@@ -78,30 +71,31 @@ public class PriceService {
         Price price = getPrice(id);
         
         // Validate store ownership
-        if (!price.getStoreId().equals(currentStoreId)) {
+        if (!price.getStoreId().equals(currentStoreId())) {
             throw new IllegalArgumentException("Price does not belong to current store");
         }
 
         priceRepository.deleteById(id);
+        storeReferenceService.detach(currentStoreId(), StoreReferenceService.PRICES, price);
     }
 
     // Get prices by product
     public List<Price> getPricesByProduct(String productId) {
-        Query query = new Query(Criteria.where("storeId").is(currentStoreId)
+        Query query = new Query(Criteria.where("storeId").is(currentStoreId())
             .and("productIds").in(productId));
         return mongoTemplate.find(query, Price.class);
     }
 
     // Get active prices
     public List<Price> getActivePrices() {
-        Query query = new Query(Criteria.where("storeId").is(currentStoreId)
+        Query query = new Query(Criteria.where("storeId").is(currentStoreId())
             .and("isActive").is(true));
         return mongoTemplate.find(query, Price.class);
     }
 
     // Get discounted prices
     public List<Price> getDiscountedPrices() {
-        Query query = new Query(Criteria.where("storeId").is(currentStoreId)
+        Query query = new Query(Criteria.where("storeId").is(currentStoreId())
             .and("isDiscounted").is(true)
             .and("isActive").is(true));
         return mongoTemplate.find(query, Price.class);
@@ -123,7 +117,7 @@ public class PriceService {
 
     // Get prices with multiple products
     public List<Price> getPricesWithMultipleProducts() {
-        Query query = new Query(Criteria.where("storeId").is(currentStoreId)
+        Query query = new Query(Criteria.where("storeId").is(currentStoreId())
             .and("productIds").exists(true)
             .and("productIds").not().size(0));
         return mongoTemplate.find(query, Price.class);
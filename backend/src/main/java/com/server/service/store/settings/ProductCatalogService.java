@@ -0,0 +1,256 @@
+package com.server.service.store.settings;
+
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.server.dto.common.CursorPage;
+import com.server.dto.store.ProductCatalogQuery;
+import com.server.model.store.products.Product;
+import com.server.service.store.ReferenceBatchLoader;
+import com.server.util.CursorCodec;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Read path for product list views: keyset pagination on (sort field, _id),
+ * filters and sparse fieldsets. With a field list only those columns are
+ * read from Mongo, so unrequested {@code @DBRef} fields stay null and are
+ * never resolved; requested ones are resolved in batch by
+ * {@link ReferenceBatchLoader}.
+ */
+@Service
+public class ProductCatalogService {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalogService.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 24;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String NULL_VALUE = "~";
+
+    // API field name -> Mongo field and getter
+    private static final Map<String, CatalogField> FIELDS = new LinkedHashMap<>();
+
+    static {
+        field("id", "_id", Product::getId);
+        field("name", "name", Product::getName);
+        field("description", "description", Product::getDescription);
+        field("storeId", "storeId", Product::getStoreId);
+        field("category", "category", Product::getCategory);
+        field("colors", "colors", Product::getColors);
+        field("sizes", "sizes", Product::getSizes);
+        field("prices", "prices", Product::getPrices);
+        field("billboards", "billboards", Product::getBillboards);
+        field("basePrice", "basePrice", Product::getBasePrice);
+        field("salePrice", "salePrice", Product::getSalePrice);
+        field("quantity", "quantity", Product::getQuantity);
+        field("availableQuantity", "availableQuantity", Product::getAvailableQuantity);
+        field("images", "images", Product::getImages);
+        field("tags", "tags", Product::getTags);
+        field("active", "isActive", Product::isActive);
+        field("featured", "isFeatured", Product::isFeatured);
+        field("archived", "isArchived", Product::isArchived);
+        field("createdAt", "createdAt", Product::getCreatedAt);
+        field("updatedAt", "updatedAt", Product::getUpdatedAt);
+    }
+
+    private static final Set<String> SORT_FIELDS = Set.of("createdAt", "updatedAt", "name", "basePrice");
+
+    private final MongoTemplate mongoTemplate;
+    private final ReferenceBatchLoader referenceBatchLoader;
+
+    public ProductCatalogService(MongoTemplate mongoTemplate, ReferenceBatchLoader referenceBatchLoader) {
+        this.mongoTemplate = mongoTemplate;
+        this.referenceBatchLoader = referenceBatchLoader;
+    }
+
+    public CursorPage<Map<String, Object>> findCatalogPage(String storeId, ProductCatalogQuery request) {
+        String sortField = request.getSort() == null ? "createdAt" : request.getSort();
+        if (!SORT_FIELDS.contains(sortField)) {
+            throw new IllegalArgumentException("Sort must be one of " + SORT_FIELDS);
+        }
+        boolean ascending = "asc".equalsIgnoreCase(request.getDirection());
+        int pageSize = request.getLimit() == null
+            ? DEFAULT_PAGE_SIZE
+            : Math.max(1, Math.min(request.getLimit(), MAX_PAGE_SIZE));
+        Set<String> fields = resolveFields(request.getFields(), sortField);
+
+        List<Criteria> criteria = new ArrayList<>();
+        criteria.add(Criteria.where("storeId").is(storeId));
+        if (request.getCategoryId() != null) {
+            criteria.add(Criteria.where("category.$id").is(toId(request.getCategoryId())));
+        }
+        if (request.getActive() != null) {
+            criteria.add(Criteria.where("isActive").is(request.getActive()));
+        }
+        if (request.getFeatured() != null) {
+            criteria.add(Criteria.where("isFeatured").is(request.getFeatured()));
+        }
+        if (request.getInStock() != null) {
+            // Stock not held by open reservations
+            criteria.add(request.getInStock()
+                ? Criteria.where("availableQuantity").gt(0)
+                : new Criteria().orOperator(
+                    Criteria.where("availableQuantity").lte(0), Criteria.where("availableQuantity").is(null)));
+        }
+        if (request.getMinPrice() != null) {
+            criteria.add(Criteria.where("basePrice").gte(new Decimal128(request.getMinPrice())));
+        }
+        if (request.getMaxPrice() != null) {
+            criteria.add(Criteria.where("basePrice").lte(new Decimal128(request.getMaxPrice())));
+        }
+        if (request.getCursor() != null && !request.getCursor().isBlank()) {
+            criteria.add(afterCursor(request.getCursor(), sortField, ascending));
+        }
+
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Query query = new Query(new Criteria().andOperator(criteria.toArray(new Criteria[0])))
+            .with(Sort.by(new Sort.Order(direction, sortField), new Sort.Order(direction, "_id")))
+            .limit(pageSize + 1);
+        if (fields != null) {
+            fields.forEach(name -> query.fields().include(FIELDS.get(name).mongoField));
+        }
+
+        List<Product> products = referenceBatchLoader.load(Product.class, query).getItems();
+        boolean hasMore = products.size() > pageSize;
+        if (hasMore) {
+            products = products.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = products.get(products.size() - 1);
+            Object value = FIELDS.get(sortField).getter.apply(last);
+            // The value goes last since names may contain the separator
+            nextCursor = CursorCodec.encode(sortField, direction.name(), last.getId(),
+                value == null ? NULL_VALUE : value.toString());
+        }
+
+        List<Map<String, Object>> items = new ArrayList<>(products.size());
+        for (Product product : products) {
+            items.add(toView(product, fields));
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Rewrites basePrice and salePrice stored as strings (the default
+     * BigDecimal mapping) to Decimal128 so price range filters and sorting
+     * compare numerically.
+     */
+    public long normalizePriceTypes() {
+        long modified = 0;
+        for (String field : List.of("basePrice", "salePrice")) {
+            Document filter = new Document(field, new Document("$type", "string"));
+            List<Document> pipeline = List.of(new Document("$set",
+                new Document(field, new Document("$toDecimal", "$" + field))));
+            modified += mongoTemplate.getCollection(mongoTemplate.getCollectionName(Product.class))
+                .updateMany(filter, pipeline)
+                .getModifiedCount();
+        }
+        logger.info("Converted {} product price fields to Decimal128", modified);
+        return modified;
+    }
+
+    private Set<String> resolveFields(List<String> requested, String sortField) {
+        if (requested == null || requested.isEmpty()) {
+            return null;
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        fields.add("id");
+        for (String name : requested) {
+            String trimmed = name.trim();
+            if (!FIELDS.containsKey(trimmed)) {
+                throw new IllegalArgumentException("Unknown product field: " + trimmed);
+            }
+            fields.add(trimmed);
+        }
+        // The cursor is built from the sort value of the last item
+        fields.add(sortField);
+        return fields;
+    }
+
+    /**
+     * Matches products strictly after the cursor position in (sortField, _id)
+     * order. Mongo sorts null before every value, so nulls come first when
+     * ascending and last when descending.
+     */
+    private Criteria afterCursor(String cursor, String sortField, boolean ascending) {
+        String[] parts = CursorCodec.decode(cursor, 4);
+        if (!parts[0].equals(sortField) || !parts[1].equalsIgnoreCase(ascending ? "ASC" : "DESC")) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+        String id = parts[2];
+        Object value = NULL_VALUE.equals(parts[3]) ? null : parseSortValue(sortField, parts[3]);
+
+        Criteria sameValueNextId = new Criteria().andOperator(
+            Criteria.where(sortField).is(value),
+            ascending ? Criteria.where("_id").gt(id) : Criteria.where("_id").lt(id));
+
+        if (ascending) {
+            return value == null
+                ? new Criteria().orOperator(sameValueNextId, Criteria.where(sortField).ne(null))
+                : new Criteria().orOperator(sameValueNextId, Criteria.where(sortField).gt(value));
+        }
+        return value == null
+            ? sameValueNextId
+            : new Criteria().orOperator(sameValueNextId, Criteria.where(sortField).lt(value),
+                Criteria.where(sortField).is(null));
+    }
+
+    private static Object parseSortValue(String sortField, String raw) {
+        try {
+            switch (sortField) {
+                case "createdAt":
+                case "updatedAt":
+                    return LocalDateTime.parse(raw);
+                case "basePrice":
+                    return new Decimal128(new BigDecimal(raw));
+                default:
+                    return raw;
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    private static Map<String, Object> toView(Product product, Set<String> fields) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        (fields == null ? FIELDS.keySet() : fields)
+            .forEach(name -> view.put(name, FIELDS.get(name).getter.apply(product)));
+        return view;
+    }
+
+    private static Object toId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    private static void field(String name, String mongoField, Function<Product, Object> getter) {
+        FIELDS.put(name, new CatalogField(mongoField, getter));
+    }
+
+    private static final class CatalogField {
+        final String mongoField;
+        final Function<Product, Object> getter;
+
+        CatalogField(String mongoField, Function<Product, Object> getter) {
+            this.mongoField = mongoField;
+            this.getter = getter;
+        }
+    }
+}
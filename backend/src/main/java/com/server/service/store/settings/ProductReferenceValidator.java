@@ -0,0 +1,144 @@
+package com.server.service.store.settings;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.server.model.store.Billboard;
+import com.server.model.store.Category;
+import com.server.model.store.Price;
+import com.server.model.store.products.Product;
+import com.server.model.store.products.ProductColor;
+import com.server.model.store.products.ProductSize;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checks that the colors, sizes, prices, billboards and category referenced
+ * by one or more products exist in the store, and replaces the references
+ * with the stored entities. Ids are collected across all products and
+ * each collection is queried once with {@code $in} and the store id, with
+ * the five queries running in parallel on the lookup executor, so a batch
+ * costs at most five round-trips whatever its size.
+ */
+@Service
+public class ProductReferenceValidator {
+
+    private final MongoTemplate mongoTemplate;
+    private final ExecutorService executor;
+
+    public ProductReferenceValidator(
+            MongoTemplate mongoTemplate,
+            @Qualifier("lookupExecutor") ExecutorService executor) {
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+    }
+
+    public void validate(Product product, String storeId) {
+        validateAll(List.of(product), storeId);
+    }
+
+    /**
+     * @throws IllegalArgumentException listing every referenced id that is
+     *         missing or belongs to another store
+     */
+    public void validateAll(List<Product> products, String storeId) {
+        CompletableFuture<Map<String, ProductColor>> colors =
+            lookup(ProductColor.class, ids(products, Product::getColors, ProductColor::getId), storeId, ProductColor::getId);
+        CompletableFuture<Map<String, ProductSize>> sizes =
+            lookup(ProductSize.class, ids(products, Product::getSizes, ProductSize::getId), storeId, ProductSize::getId);
+        CompletableFuture<Map<String, Price>> prices =
+            lookup(Price.class, ids(products, Product::getPrices, Price::getId), storeId, Price::getId);
+        CompletableFuture<Map<String, Billboard>> billboards =
+            lookup(Billboard.class, ids(products, Product::getBillboards, Billboard::getId), storeId, Billboard::getId);
+        CompletableFuture<Map<String, Category>> categories =
+            lookup(Category.class, categoryIds(products), storeId, Category::getId);
+
+        try {
+            CompletableFuture.allOf(colors, sizes, prices, billboards, categories).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Failed to validate product references", e.getCause());
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (Product product : products) {
+            product.setColors(replace(product.getColors(), ProductColor::getId, colors.join(), "Color", missing));
+            product.setSizes(replace(product.getSizes(), ProductSize::getId, sizes.join(), "Size", missing));
+            product.setPrices(replace(product.getPrices(), Price::getId, prices.join(), "Price", missing));
+            product.setBillboards(replace(product.getBillboards(), Billboard::getId, billboards.join(), "Billboard", missing));
+            if (product.getCategory() != null) {
+                Category category = categories.join().get(product.getCategory().getId());
+                if (category == null) {
+                    missing.add("Category " + product.getCategory().getId());
+                }
+                product.setCategory(category);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException(
+                "References not found in store " + storeId + ": " + String.join(", ", missing));
+        }
+    }
+
+    private <T> CompletableFuture<Map<String, T>> lookup(
+            Class<T> type, Set<String> ids, String storeId, Function<T, String> idOf) {
+        if (ids.isEmpty()) {
+            return CompletableFuture.completedFuture(new HashMap<>());
+        }
+        return CompletableFuture.supplyAsync(() -> mongoTemplate.find(
+                new Query(Criteria.where("_id").in(ids).and("storeId").is(storeId)), type).stream()
+            .collect(Collectors.toMap(idOf, Function.identity())), executor);
+    }
+
+    private static <T> Set<String> ids(List<Product> products, Function<Product, List<T>> refs, Function<T, String> idOf) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Product product : products) {
+            List<T> values = refs.apply(product);
+            if (values != null) {
+                values.stream().map(idOf).filter(Objects::nonNull).forEach(ids::add);
+            }
+        }
+        return ids;
+    }
+
+    private static Set<String> categoryIds(List<Product> products) {
+        return products.stream()
+            .map(Product::getCategory)
+            .filter(Objects::nonNull)
+            .map(Category::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static <T> List<T> replace(
+            List<T> refs, Function<T, String> idOf, Map<String, T> found, String label, Collection<String> missing) {
+        if (refs == null || refs.isEmpty()) {
+            return refs;
+        }
+        List<T> resolved = new ArrayList<>(refs.size());
+        for (T ref : refs) {
+            T value = found.get(idOf.apply(ref));
+            if (value == null) {
+                missing.add(label + " " + idOf.apply(ref));
+            } else {
+                resolved.add(value);
+            }
+        }
+        return resolved;
+    }
+}
@@ -1,18 +1,27 @@
 package com.server.service.store.settings;
 
 import lombok.RequiredArgsConstructor;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.server.exception.common.ResourceNotFoundException;
+import com.server.model.event.OutboxEvent;
 import com.server.model.store.products.Product;
-import com.server.model.store.Store;
 import com.server.repository.store.products.ProductRepository;
-import com.server.repository.store.StoreRepository;
+import com.server.service.cache.StoreCacheEvictor;
+import com.server.service.event.OutboxService;
 import com.server.service.store.base.StoreAwareService;
 import com.server.service.store.StoreRequirementsService;
+import com.server.service.store.StoreReferenceService;
+import com.server.service.store.ReferenceBatchLoader;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -20,15 +29,21 @@ import java.util.List;
 @Transactional
 public class ProductService extends StoreAwareService {
     private final ProductRepository productRepository;
-    private final StoreRepository storeRepository;
     private final StoreRequirementsService storeRequirementsService;
+    private final StoreReferenceService storeReferenceService;
+    private final ReferenceBatchLoader referenceBatchLoader;
+    private final MongoTemplate mongoTemplate;
+    private final StoreCacheEvictor storeCacheEvictor;
+    private final OutboxService outboxService;
 
+    // List reads resolve category, colors, sizes, prices and billboards in one $in per collection
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return referenceBatchLoader.load(Product.class, new Query()).getItems();
     }
 
     public List<Product> getProductsByStore(String storeId) {
-        return productRepository.findByStoreId(storeId);
+        return referenceBatchLoader.load(Product.class,
+            new Query(Criteria.where("storeId").is(storeId))).getItems();
     }
 
     public Product getProduct(String id) {
@@ -37,43 +52,92 @@ public class ProductService extends StoreAwareService {
     }
 
     public Product createProduct(Product product) {
-        // Validate store requirements
-        storeRequirementsService.checkStoreRequirements(currentStoreId);
-        
-        // Ensure store ID is set
+        // Ensure store ID is set; callers without a {storeId} path check the owner of the body's store
         if (product.getStoreId() == null) {
-            product.setStoreId(currentStoreId);
+            product.setStoreId(currentStoreId());
         }
+        String storeId = product.getStoreId();
+
+        // Validate store requirements
+        storeRequirementsService.checkStoreRequirements(storeId);
         
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
+        initAvailableQuantity(product);
         
         Product savedProduct = productRepository.save(product);
         
         // Update store's products list
-        Store store = storeRepository.findById(currentStoreId)
-            .orElseThrow(() -> new ResourceNotFoundException("Store not found with id: " + currentStoreId));
-        
-        if (store.getProducts() == null) {
-            store.setProducts(new ArrayList<>());
-        }
-        store.getProducts().add(savedProduct);
-        storeRepository.save(store);
+        storeReferenceService.attach(storeId, StoreReferenceService.PRODUCTS, savedProduct);
         
         return savedProduct;
     }
 
+    // Bulk import: one requirements check, one insert and one store update for the whole batch
+    public List<Product> createProducts(List<Product> products) {
+        storeRequirementsService.checkStoreRequirements(currentStoreId());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Product product : products) {
+            if (product.getStoreId() == null) {
+                product.setStoreId(currentStoreId());
+            }
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            initAvailableQuantity(product);
+        }
+
+        List<Product> savedProducts = productRepository.saveAll(products);
+        storeReferenceService.attachAll(currentStoreId(), StoreReferenceService.PRODUCTS, savedProducts);
+        return savedProducts;
+    }
+
     public void deleteProduct(String id) {
         Product product = getProduct(id);
         validateStore(product.getStoreId());
         productRepository.deleteById(id);
+        storeReferenceService.detach(product.getStoreId(), StoreReferenceService.PRODUCTS, product);
     }
 
+    /**
+     * Replaces the editable fields of a product with one $set. Stock is
+     * left out: quantity and availableQuantity only move through
+     * InventoryService, so an edit never writes back stock that concurrent
+     * reservations have changed since the client read the product.
+     */
     public Product updateProduct(Product product) {
         Product existingProduct = getProduct(product.getId());
         validateStore(existingProduct.getStoreId());
-        product.setUpdatedAt(LocalDateTime.now());
-        return productRepository.save(product);
+
+        Update update = new Update()
+            .set("name", product.getName())
+            .set("description", product.getDescription())
+            .set("category", product.getCategory())
+            .set("colors", product.getColors())
+            .set("sizes", product.getSizes())
+            .set("prices", product.getPrices())
+            .set("billboards", product.getBillboards())
+            .set("basePrice", decimal(product.getBasePrice()))
+            .set("salePrice", decimal(product.getSalePrice()))
+            .set("images", product.getImages())
+            .set("tags", product.getTags())
+            .set("isActive", product.isActive())
+            .set("isFeatured", product.isFeatured())
+            .set("isArchived", product.isArchived())
+            .set("updatedAt", LocalDateTime.now());
+        Product updated = mongoTemplate.findAndModify(
+            new Query(Criteria.where("_id").is(existingProduct.getId())),
+            update,
+            FindAndModifyOptions.options().returnNew(true),
+            Product.class);
+        if (updated == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + product.getId());
+        }
+
+        // A raw update fires no mapping events
+        storeCacheEvictor.evictStore(updated.getStoreId());
+        outboxService.record(OutboxEvent.PRODUCT, updated.getId(), updated.getStoreId(), OutboxEvent.Action.SAVED);
+        return updated;
     }
 
     public List<Product> getLowStockProducts(String storeId, int threshold) {
@@ -90,4 +154,15 @@ public class ProductService extends StoreAwareService {
         validateStore(storeId);
         return productRepository.findByStoreIdAndCategoryId(storeId, categoryId);
     }
-} 
\ No newline at end of file
+
+    private static Decimal128 decimal(BigDecimal value) {
+        return value == null ? null : new Decimal128(value);
+    }
+
+    // Reservations take stock off availableQuantity, so new products start with all of it available
+    private static void initAvailableQuantity(Product product) {
+        if (product.getAvailableQuantity() == null && product.getQuantity() != null) {
+            product.setAvailableQuantity(product.getQuantity());
+        }
+    }
+}
@@ -4,16 +4,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.server.model.store.products.ProductSize;
-import com.server.model.store.Store;
 import com.server.repository.store.products.ProductSizeRepository;
-import com.server.repository.store.StoreRepository;
 import com.server.exception.EntityNotFoundException;
-import com.server.exception.ResourceNotFoundException;
+import com.server.service.store.StoreReferenceService;
 
 import java.util.List;
 import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.ArrayList;
 
 @Service
 public class SizeService {
@@ -22,7 +19,7 @@ public class SizeService {
     private ProductSizeRepository sizeRepository;
     
     @Autowired
-    private StoreRepository storeRepository;
+    private StoreReferenceService storeReferenceService;
     
     public List<ProductSize> getSizes(String storeId) {
         return sizeRepository.findByStoreId(storeId);
@@ -34,14 +31,7 @@ public class SizeService {
         ProductSize savedSize = sizeRepository.save(size);
         
         // Update store's sizes list
-        Store store = storeRepository.findById(size.getStoreId())
-            .orElseThrow(() -> new ResourceNotFoundException("Store not found with id: " + size.getStoreId()));
-        
-        if (store.getSizes() == null) {
-            store.setSizes(new ArrayList<>());
-        }
-        store.getSizes().add(savedSize);
-        storeRepository.save(store);
+        storeReferenceService.attach(size.getStoreId(), StoreReferenceService.SIZES, savedSize);
         
         return savedSize;
     }
@@ -68,6 +58,7 @@ public class SizeService {
             .orElseThrow(() -> new EntityNotFoundException("Size not found with id: " + sizeId));
             
         sizeRepository.delete(size);
+        storeReferenceService.detach(size.getStoreId(), StoreReferenceService.SIZES, size);
     }
     
     public Optional<ProductSize> findById(String id) {
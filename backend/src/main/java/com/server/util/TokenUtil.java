@@ -1,6 +1,7 @@
 package com.server.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -36,12 +37,18 @@ public class TokenUtil {
     private SecretKey accessKey;
     private SecretKey refreshKey;
 
+    // Parsers are immutable and thread-safe, so they are built once and shared
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
+
     @PostConstruct
     private void init() {
         try {
             // Generate secure keys using the provided secrets as seeds
             this.accessKey = generateSecureKey(accessSecret);
             this.refreshKey = generateSecureKey(refreshSecret);
+            this.accessParser = Jwts.parserBuilder().setSigningKey(accessKey).build();
+            this.refreshParser = Jwts.parserBuilder().setSigningKey(refreshKey).build();
             System.out.println("Access key: " + accessKey);
             System.out.println("Refresh key: " + refreshKey);
         } catch (Exception e) {
@@ -63,6 +70,7 @@ public class TokenUtil {
                     .setSubject(owner.getEmail())
                     .claim("userId", owner.getId())
                     .claim("fullName", owner.getFullName())
+                    .claim("role", owner.getRole())
                     .setIssuedAt(new Date())
                     .setExpiration(new Date(System.currentTimeMillis() + accessExpiration))
                     .signWith(accessKey, SignatureAlgorithm.HS512)
@@ -88,13 +96,17 @@ public class TokenUtil {
         }
     }
 
+    /**
+     * Verifies the signature and expiry of an access token once and returns
+     * its claims. Throws the underlying JJWT exception when the token is invalid.
+     */
+    public Claims verifyAccessToken(String token) {
+        return accessParser.parseClaimsJws(token).getBody();
+    }
+
     public Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(accessKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            return verifyAccessToken(token);
         } catch (Exception e) {
             logger.error("Error parsing token claims: ", e);
             throw e;
@@ -123,10 +135,7 @@ public class TokenUtil {
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(accessKey)
-                .build()
-                .parseClaimsJws(token);
+            accessParser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             logger.error("Token validation failed: ", e);
@@ -139,6 +148,7 @@ public class TokenUtil {
             .setSubject(owner.getEmail())
             .claim("fullName", owner.getFullName())
             .claim("userId", owner.getId())
+            .claim("role", owner.getRole())
             .setIssuedAt(new Date())
             .setExpiration(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000))
             .signWith(accessKey, SignatureAlgorithm.HS512)
@@ -147,12 +157,7 @@ public class TokenUtil {
 
     public String validateTokenAndGetUserId(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                .setSigningKey(accessKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-            return claims.getSubject();
+            return verifyAccessToken(token).getSubject();
         } catch (Exception e) {
             return null;
         }
@@ -160,10 +165,7 @@ public class TokenUtil {
 
     public boolean validateRefreshToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(refreshKey)
-                .build()
-                .parseClaimsJws(token);
+            refreshParser.parseClaimsJws(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -171,11 +173,6 @@ public class TokenUtil {
     }
 
     public String getEmailFromRefreshToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(refreshKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return refreshParser.parseClaimsJws(token).getBody().getSubject();
     }
 }
\ No newline at end of file